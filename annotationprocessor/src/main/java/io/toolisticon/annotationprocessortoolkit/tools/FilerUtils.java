@@ -95,6 +95,23 @@ public final class FilerUtils {
         return createResource("",fileName);
     }
 
+    /**
+     * Creates a buffered resource file writer.
+     * Content will only be written if the buffer is full or if the writer is flushed or closed.
+     *
+     * @param location            the location to write the file to.
+     * @param targetPackage       the target package to use
+     * @param fileName            the file name to use
+     * @param bufferSize          the buffer size to use
+     * @param originatingElements the originating elements responsible for resource file creation.
+     * @return SimpleResourceWriter if it hasn't been created before.
+     * @throws IOException
+     * @throws javax.annotation.processing.FilerException if the same pathname has already been created
+     */
+    public static SimpleResourceWriter createBufferedResource(StandardLocation location, String targetPackage, String fileName, int bufferSize, Element... originatingElements) throws IOException {
+        return new SimpleResourceWriter(ProcessingEnvironmentUtils.getFiler().createResource(location, targetPackage != null ? targetPackage : "", fileName, originatingElements), bufferSize);
+    }
+
 
     /**
      * Creates a class file writer.
@@ -120,5 +137,19 @@ public final class FilerUtils {
         return new SimpleJavaWriter(ProcessingEnvironmentUtils.getFiler().createSourceFile(fileName, originatingElements));
     }
 
+    /**
+     * Creates a buffered source file writer.
+     * Content will only be written if the buffer is full or if the writer is flushed or closed.
+     *
+     * @param fileName            the filename to use
+     * @param bufferSize          the buffer size to use
+     * @param originatingElements the element which originates the creation of the source file
+     * @return a SimpleJavaWriter that can be used to write java source code
+     * @throws IOException is thrown if writer can't be created
+     */
+    public static SimpleJavaWriter createBufferedSourceFile(String fileName, int bufferSize, Element... originatingElements) throws IOException {
+        return new SimpleJavaWriter(ProcessingEnvironmentUtils.getFiler().createSourceFile(fileName, originatingElements), bufferSize);
+    }
+
 
 }
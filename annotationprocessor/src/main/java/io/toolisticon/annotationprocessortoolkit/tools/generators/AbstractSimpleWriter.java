@@ -3,22 +3,45 @@ package io.toolisticon.annotationprocessortoolkit.tools.generators;
 import io.toolisticon.annotationprocessortoolkit.templating.TemplateProcessor;
 
 import javax.tools.FileObject;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.Map;
 
 /**
  * Abstract base class for writers of java code and resources.
+ * <p/>
+ * By default the content is flushed after each write operation.
+ * Writers created with a buffer size greater than 0 are working in buffered mode:
+ * content is collected in a buffer of the passed size and is only written if the buffer is full or if {@link #flush()} or {@link #close()} is called.
  */
 public class AbstractSimpleWriter<T extends FileObject> {
 
 
     private final T fileObject;
     private final Writer foWriter;
+    private final boolean buffered;
 
     public AbstractSimpleWriter(T fileObject) throws IOException {
+        this(fileObject, 0);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param fileObject the file object to write to
+     * @param bufferSize the buffer size to use for buffered mode, 0 to flush after each write operation
+     * @throws IOException is thrown if writer of file object can't be opened
+     */
+    public AbstractSimpleWriter(T fileObject, int bufferSize) throws IOException {
+
+        if (bufferSize < 0) {
+            throw new IllegalArgumentException("bufferSize must not be negative");
+        }
+
         this.fileObject = fileObject;
-        this.foWriter = fileObject.openWriter();
+        this.buffered = bufferSize > 0;
+        this.foWriter = buffered ? new BufferedWriter(fileObject.openWriter(), bufferSize) : fileObject.openWriter();
     }
 
     /**
@@ -29,7 +52,7 @@ public class AbstractSimpleWriter<T extends FileObject> {
      */
     public void append(String content) throws IOException {
         foWriter.append(content);
-        foWriter.flush();
+        flushIfUnbuffered();
     }
 
     /**
@@ -40,39 +63,33 @@ public class AbstractSimpleWriter<T extends FileObject> {
      */
     public void write(char[] buffer) throws IOException {
         foWriter.write(buffer);
-        foWriter.flush();
+        flushIfUnbuffered();
     }
 
     /**
      * Write a template based content.
+     * The template is rendered directly to the writer.
      *
      * @param templateFileName the template resource file to use
      * @param values           the values to be used with template
      * @throws IOException is thrown if content can't be written
      */
     public void writeTemplate(String templateFileName, Map<String, Object> values) throws IOException {
-        String processedTemplate = TemplateProcessor.processTemplateResourceFile(templateFileName, values);
-
-        if (processedTemplate != null) {
-            append(processedTemplate);
-        }
-
+        TemplateProcessor.processTemplateResourceFile(templateFileName, values, foWriter);
+        flushIfUnbuffered();
     }
 
     /**
      * Write a template based content.
+     * The template is rendered directly to the writer.
      *
      * @param templateString the template string to use
      * @param values         the values to be used with template
      * @throws IOException is thrown if content can't be written
      */
     public void writeTemplateString(String templateString, Map<String, Object> values) throws IOException {
-        String processedTemplate = TemplateProcessor.processTemplate(templateString, values);
-
-        if (processedTemplate != null) {
-            append(processedTemplate);
-        }
-
+        TemplateProcessor.processTemplate(templateString, values, foWriter);
+        flushIfUnbuffered();
     }
 
     /**
@@ -83,11 +100,36 @@ public class AbstractSimpleWriter<T extends FileObject> {
      */
     public void write(String content) throws IOException {
         foWriter.write(content);
+        flushIfUnbuffered();
+    }
+
+    /**
+     * Flushes the written content to the file object.
+     *
+     * @throws IOException is thrown if content can't be written
+     */
+    public void flush() throws IOException {
         foWriter.flush();
     }
 
+    /**
+     * Checks whether the writer is working in buffered mode.
+     *
+     * @return true if writer is working in buffered mode, otherwise false
+     */
+    public boolean isBuffered() {
+        return buffered;
+    }
+
+    private void flushIfUnbuffered() throws IOException {
+        if (!buffered) {
+            foWriter.flush();
+        }
+    }
+
     /**
      * Closes encapsulated writer.
+     * Buffered content will be flushed before.
      *
      * @throws IOException is thrown if writer can't be closed
      */
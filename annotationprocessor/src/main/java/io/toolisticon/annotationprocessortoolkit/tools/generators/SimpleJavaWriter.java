@@ -14,5 +14,9 @@ public class SimpleJavaWriter extends AbstractSimpleWriter<JavaFileObject> {
         super(fileObject);
     }
 
+    public SimpleJavaWriter(JavaFileObject fileObject, int bufferSize) throws IOException {
+        super(fileObject, bufferSize);
+    }
+
 
 }
@@ -15,5 +15,9 @@ public class SimpleResourceWriter extends AbstractSimpleWriter<FileObject> {
         super(fileObject);
     }
 
+    public SimpleResourceWriter(FileObject fileObject, int bufferSize) throws IOException {
+        super(fileObject, bufferSize);
+    }
+
 
 }
\ No newline at end of file
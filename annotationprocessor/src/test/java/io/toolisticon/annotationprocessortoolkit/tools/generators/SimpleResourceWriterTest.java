@@ -115,4 +115,72 @@ public class SimpleResourceWriterTest {
 
     }
 
+    @Test
+    public void testBufferedMode_shouldNotFlushAfterEachWrite() throws IOException {
+
+        SimpleResourceWriter bufferedUnit = new SimpleResourceWriter(fileObject, 1024);
+        MatcherAssert.assertThat(bufferedUnit.isBuffered(), Matchers.is(true));
+
+        for (int i = 0; i < 1000; i++) {
+            bufferedUnit.append("A");
+        }
+        bufferedUnit.write("B");
+        bufferedUnit.write("C".toCharArray());
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("value", "D");
+        bufferedUnit.writeTemplateString("${value}", model);
+
+        MatcherAssert.assertThat(stringWriter.getBuffer().length(), Matchers.is(0));
+        Mockito.verify(stringWriter, Mockito.never()).flush();
+
+        bufferedUnit.flush();
+        MatcherAssert.assertThat(stringWriter.getBuffer().length(), Matchers.is(1003));
+        Mockito.verify(stringWriter, Mockito.times(1)).flush();
+
+    }
+
+    @Test
+    public void testBufferedMode_shouldWriteIfBufferIsFull() throws IOException {
+
+        SimpleResourceWriter bufferedUnit = new SimpleResourceWriter(fileObject, 4);
+
+        bufferedUnit.append("ABC");
+        MatcherAssert.assertThat(stringWriter.getBuffer().toString(), Matchers.is(""));
+
+        bufferedUnit.append("DEF");
+        MatcherAssert.assertThat(stringWriter.getBuffer().toString(), Matchers.is("ABCD"));
+
+        Mockito.verify(stringWriter, Mockito.never()).flush();
+
+    }
+
+    @Test
+    public void testBufferedMode_closeShouldFlushBuffer() throws IOException {
+
+        SimpleResourceWriter bufferedUnit = new SimpleResourceWriter(fileObject, 1024);
+
+        bufferedUnit.write("ABC");
+        MatcherAssert.assertThat(stringWriter.getBuffer().toString(), Matchers.is(""));
+
+        bufferedUnit.close();
+        MatcherAssert.assertThat(stringWriter.getBuffer().toString(), Matchers.is("ABC"));
+        Mockito.verify(stringWriter, Mockito.times(1)).close();
+
+    }
+
+    @Test
+    public void testUnbufferedMode() {
+
+        MatcherAssert.assertThat(unit.isBuffered(), Matchers.is(false));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBufferSize() throws IOException {
+
+        new SimpleResourceWriter(fileObject, -1);
+
+    }
+
 }
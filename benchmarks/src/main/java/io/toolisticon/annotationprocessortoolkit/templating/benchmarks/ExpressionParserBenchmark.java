@@ -0,0 +1,76 @@
+package io.toolisticon.annotationprocessortoolkit.templating.benchmarks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.expressions.Expression;
+import io.toolisticon.annotationprocessortoolkit.templating.expressions.ExpressionParser;
+import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.Operand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of parsing expression strings with the {@link ExpressionParser} and of evaluating parsed expressions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionParserBenchmark {
+
+    @Param({
+            "model.name",
+            "1 + 2 * 3 - 4 / 5",
+            "!(model.count * 2 >= 10) && (model.name == 'abc' || model.flag) && !model.disabled",
+            "'prefix' + ((model.a + model.b) * (model.c - 1.5)) + 'suffix' != model.expected || (((true && !false) || model.x < 5) && model.y != null)"
+    })
+    public String expressionString;
+
+    private Expression expression;
+    private Map<String, Object> model;
+
+    @Setup
+    public void setup() {
+
+        expression = ExpressionParser.parseExpression(expressionString);
+
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("name", "abc");
+        values.put("count", 3L);
+        values.put("flag", true);
+        values.put("disabled", false);
+        values.put("a", 1L);
+        values.put("b", 2L);
+        values.put("c", 3.5);
+        values.put("expected", "prefix10.0suffix");
+        values.put("x", 3L);
+        values.put("y", "y");
+
+        model = new HashMap<String, Object>();
+        model.put("model", values);
+
+    }
+
+    @Benchmark
+    public Expression parseExpression() {
+        return ExpressionParser.parseExpression(expressionString);
+    }
+
+    @Benchmark
+    public Operand evaluateExpression() {
+        return expression.evaluateExpression(model);
+    }
+
+}
@@ -0,0 +1,56 @@
+package io.toolisticon.annotationprocessortoolkit.templating.benchmarks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.ParseUtilities;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.ForTemplateBlock;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockBinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering of a {@link ForTemplateBlock} over large collections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForTemplateBlockBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int numberOfEntries;
+
+    private TemplateBlockBinder compiledTemplate;
+    private TemplateBlockBinder compiledParallelTemplate;
+    private Map<String, Object> model;
+
+    @Setup
+    public void setup() {
+        compiledTemplate = ParseUtilities.parseString(SyntheticTemplates.createForTemplate());
+        compiledParallelTemplate = ParseUtilities.parseString(SyntheticTemplates.createParallelForTemplate());
+        model = SyntheticTemplates.createForModel(numberOfEntries);
+    }
+
+    @Benchmark
+    public String renderForBlock() {
+        return compiledTemplate.getContent(model);
+    }
+
+    @Benchmark
+    public String renderParallelForBlock() {
+        return compiledParallelTemplate.getContent(model);
+    }
+
+}
@@ -0,0 +1,56 @@
+package io.toolisticon.annotationprocessortoolkit.templating.benchmarks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.ParseUtilities;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.IfTemplateBlock;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockBinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing and rendering of nested {@link IfTemplateBlock}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NestedIfTemplateBlockBenchmark {
+
+    @Param({"1", "8", "32"})
+    public int depth;
+
+    private String templateString;
+    private TemplateBlockBinder compiledTemplate;
+    private Map<String, Object> model;
+
+    @Setup
+    public void setup() {
+        templateString = SyntheticTemplates.createNestedIfTemplate(depth);
+        compiledTemplate = ParseUtilities.parseString(templateString);
+        model = SyntheticTemplates.createNestedIfModel();
+    }
+
+    @Benchmark
+    public TemplateBlockBinder parseNestedIfBlocks() {
+        return ParseUtilities.parseString(templateString);
+    }
+
+    @Benchmark
+    public String renderNestedIfBlocks() {
+        return compiledTemplate.getContent(model);
+    }
+
+}
@@ -0,0 +1,45 @@
+package io.toolisticon.annotationprocessortoolkit.templating.benchmarks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.ParseUtilities;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockBinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of synthetic templates from 1 KB up to 1 MB with {@link ParseUtilities#parseString(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseStringBenchmark {
+
+    @Param({"1024", "16384", "262144", "1048576"})
+    public int templateSize;
+
+    private String templateString;
+
+    @Setup
+    public void setup() {
+        templateString = SyntheticTemplates.createTemplate(templateSize);
+    }
+
+    @Benchmark
+    public TemplateBlockBinder parseString() {
+        return ParseUtilities.parseString(templateString);
+    }
+
+}
@@ -0,0 +1,123 @@
+package io.toolisticon.annotationprocessortoolkit.templating.benchmarks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.ParseUtilities;
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateCache;
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateProcessor;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockBinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures processing of synthetic templates from 1 KB up to 1 MB with {@link TemplateProcessor#processTemplate(String, Map)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessTemplateBenchmark {
+
+    /**
+     * Writer that just counts the written chars.
+     * Used to measure rendering without the costs of storing the output.
+     */
+    private static class CountingWriter extends Writer {
+
+        private long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public Writer append(CharSequence csq) {
+            count += csq != null ? csq.length() : 4;
+            return this;
+        }
+
+        @Override
+        public void flush() {
+
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+
+    @Param({"1024", "16384", "262144", "1048576"})
+    public int templateSize;
+
+    private String templateString;
+    private Map<String, Object> model;
+    private TemplateBlockBinder compiledTemplate;
+
+    @Setup
+    public void setup() {
+        templateString = SyntheticTemplates.createTemplate(templateSize);
+        model = SyntheticTemplates.createTemplateModel();
+        compiledTemplate = ParseUtilities.parseString(templateString);
+    }
+
+    /**
+     * Processes the template - the compiled template will be taken from the template cache.
+     *
+     * @return the processed template
+     */
+    @Benchmark
+    public String processTemplate() {
+        return TemplateProcessor.processTemplate(templateString, model);
+    }
+
+    /**
+     * Parses and processes the template.
+     *
+     * @return the processed template
+     */
+    @Benchmark
+    public String processTemplate_withoutCache() {
+        TemplateCache.getDefaultInstance().clear();
+        return TemplateProcessor.processTemplate(templateString, model);
+    }
+
+    /**
+     * Just renders the already compiled template.
+     *
+     * @return the processed template
+     */
+    @Benchmark
+    public String renderCompiledTemplate() {
+        return compiledTemplate.getContent(model);
+    }
+
+    /**
+     * Renders the already compiled template directly to a writer without creating the result string.
+     *
+     * @return the number of rendered chars
+     * @throws IOException if output can't be written
+     */
+    @Benchmark
+    public long renderCompiledTemplate_toWriter() throws IOException {
+        CountingWriter writer = new CountingWriter();
+        compiledTemplate.render(writer, model);
+        return writer.count;
+    }
+
+}
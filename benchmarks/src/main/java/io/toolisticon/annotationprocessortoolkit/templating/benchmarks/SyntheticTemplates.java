@@ -0,0 +1,154 @@
+package io.toolisticon.annotationprocessortoolkit.templating.benchmarks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.benchmarks.model.Entry;
+import io.toolisticon.annotationprocessortoolkit.templating.benchmarks.model.Section;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates synthetic templates and models for benchmarks.
+ * <p/>
+ * Everything is generated in memory, so benchmarks don't need any external resources.
+ */
+public final class SyntheticTemplates {
+
+    /**
+     * Template fragment that uses all block types.
+     * Fragments will be repeated to reach the requested template size.
+     */
+    static final String SECTION_TEMPLATE = ""
+            + "// section ${section.name}\n"
+            + "!{if section.enabled && section.count > 2}\n"
+            + "public static final long COUNT = ${section.count};\n"
+            + "!{/if}\n"
+            + "!{for entry : section.entries}\n"
+            + "    private ${entry.type} ${entry.name} = ${entry.value * 2 + 1};\n"
+            + "!{/for}\n"
+            + "!{static}static content ${notResolved} !{if x}!{/static}\n"
+            + "public String get${section.name}() { return \"${section.name}\" + ${section.count}; }\n"
+            + "\n";
+
+    /**
+     * Hidden constructor.
+     */
+    private SyntheticTemplates() {
+
+    }
+
+    /**
+     * Creates a template with at least the passed number of chars.
+     *
+     * @param templateSize the minimal size of the template
+     * @return the template string
+     */
+    public static String createTemplate(int templateSize) {
+
+        StringBuilder stringBuilder = new StringBuilder(templateSize + SECTION_TEMPLATE.length());
+        while (stringBuilder.length() < templateSize) {
+            stringBuilder.append(SECTION_TEMPLATE);
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Creates a model that can be used to render templates created by {@link #createTemplate(int)}.
+     *
+     * @return the model
+     */
+    public static Map<String, Object> createTemplateModel() {
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("section", new Section("Section", true, 5L, createEntries(5)));
+
+        return model;
+    }
+
+    /**
+     * Creates a template that loops over the 'entries' collection of the model.
+     *
+     * @return the template string
+     */
+    public static String createForTemplate() {
+        return "!{for entry : entries}\n"
+                + "    private ${entry.type} ${entry.name} = ${entry.value};\n"
+                + "!{/for}\n";
+    }
+
+    /**
+     * Creates a template that loops over the 'entries' collection of the model and renders the iterations in parallel.
+     *
+     * @return the template string
+     */
+    public static String createParallelForTemplate() {
+        return "!{for entry : entries, parallel : 'true'}\n"
+                + "    private ${entry.type} ${entry.name} = ${entry.value};\n"
+                + "!{/for}\n";
+    }
+
+    /**
+     * Creates a model that can be used to render templates created by {@link #createForTemplate()} and {@link #createParallelForTemplate()}.
+     *
+     * @param numberOfEntries the size of the collection to loop over
+     * @return the model
+     */
+    public static Map<String, Object> createForModel(int numberOfEntries) {
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("entries", createEntries(numberOfEntries));
+
+        return model;
+    }
+
+    /**
+     * Creates a template with nested if blocks.
+     * All conditions evaluate to true for models created by {@link #createNestedIfModel()}.
+     *
+     * @param depth the nesting depth
+     * @return the template string
+     */
+    public static String createNestedIfTemplate(int depth) {
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (int i = 0; i < depth; i++) {
+            stringBuilder.append("!{if flag && (value + ").append(i).append(") > 0 && name != null}\n")
+                    .append("level ").append(i).append(" ${name}\n");
+        }
+
+        for (int i = 0; i < depth; i++) {
+            stringBuilder.append("!{/if}\n");
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Creates a model that can be used to render templates created by {@link #createNestedIfTemplate(int)}.
+     *
+     * @return the model
+     */
+    public static Map<String, Object> createNestedIfModel() {
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("flag", true);
+        model.put("value", 1L);
+        model.put("name", "NAME");
+
+        return model;
+    }
+
+    private static List<Entry> createEntries(int numberOfEntries) {
+
+        List<Entry> entries = new ArrayList<Entry>(numberOfEntries);
+        for (int i = 0; i < numberOfEntries; i++) {
+            entries.add(new Entry("long", "field" + i, i));
+        }
+
+        return entries;
+    }
+
+}
@@ -0,0 +1,112 @@
+package io.toolisticon.annotationprocessortoolkit.templating.benchmarks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateCache;
+import io.toolisticon.annotationprocessortoolkit.templating.TemplatePrecompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading of synthetic template resources from 1 KB up to 256 KB by {@link TemplateCache#getCompiledTemplateForResource(String)}.
+ * <p/>
+ * Compares loading of precompiled templates of unchanged template files, of precompiled templates whose template file has been touched -
+ * so its content has to be compared - and parsing of template files without precompiled template.
+ * Template caches are loaded by a separate class loader, since template resources are just looked up on the classpath of the templating classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateLoadingBenchmark {
+
+    private static final String RESOURCE_NAME = "/SyntheticTemplate.tpl";
+
+    @Param({"1024", "16384", "262144"})
+    public int templateSize;
+
+    @Param({"precompiled", "precompiledTouched", "text"})
+    public String loading;
+
+    private File directory;
+    private URLClassLoader classLoader;
+    private Constructor<?> templateCacheConstructor;
+    private Method getCompiledTemplateForResource;
+
+    @Setup
+    public void setup() throws Exception {
+
+        directory = File.createTempFile("templates", "");
+        if (!directory.delete() || !directory.mkdir()) {
+            throw new IOException("Can't create directory " + directory);
+        }
+
+        File templateFile = new File(directory, RESOURCE_NAME.substring(1));
+        OutputStream outputStream = new FileOutputStream(templateFile);
+        try {
+            outputStream.write(SyntheticTemplates.createTemplate(templateSize).getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+
+        if (!"text".equals(loading)) {
+            TemplatePrecompiler.precompile(templateFile);
+        }
+        if ("precompiledTouched".equals(loading) && !templateFile.setLastModified(templateFile.lastModified() + 2000L)) {
+            throw new IOException("Can't touch " + templateFile);
+        }
+
+        URL templatingClasses = TemplateCache.class.getProtectionDomain().getCodeSource().getLocation();
+        classLoader = new URLClassLoader(new URL[]{directory.toURI().toURL(), templatingClasses}, null);
+
+        Class<?> templateCacheClass = classLoader.loadClass(TemplateCache.class.getName());
+        templateCacheConstructor = templateCacheClass.getConstructor(int.class, long.class);
+        getCompiledTemplateForResource = templateCacheClass.getMethod("getCompiledTemplateForResource", String.class);
+
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+
+        classLoader.close();
+
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+
+    }
+
+    @Benchmark
+    public Object loadTemplate() throws Exception {
+
+        // a new cache is used for each invocation, so the template is always loaded
+        Object templateCache = templateCacheConstructor.newInstance(TemplateCache.DEFAULT_MAX_ENTRIES, TemplateCache.DEFAULT_MAX_BYTES);
+        return getCompiledTemplateForResource.invoke(templateCache, RESOURCE_NAME);
+
+    }
+
+}
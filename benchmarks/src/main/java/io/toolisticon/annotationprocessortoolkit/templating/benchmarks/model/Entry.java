@@ -0,0 +1,30 @@
+package io.toolisticon.annotationprocessortoolkit.templating.benchmarks.model;
+
+/**
+ * Model class used by synthetic templates.
+ */
+public class Entry {
+
+    private final String type;
+    private final String name;
+    private final long value;
+
+    public Entry(String type, String name, long value) {
+        this.type = type;
+        this.name = name;
+        this.value = value;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+}
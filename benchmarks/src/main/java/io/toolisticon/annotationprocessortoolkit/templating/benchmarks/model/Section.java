@@ -0,0 +1,38 @@
+package io.toolisticon.annotationprocessortoolkit.templating.benchmarks.model;
+
+import java.util.List;
+
+/**
+ * Model class used by synthetic templates.
+ */
+public class Section {
+
+    private final String name;
+    private final boolean enabled;
+    private final long count;
+    private final List<Entry> entries;
+
+    public Section(String name, boolean enabled, long count, List<Entry> entries) {
+        this.name = name;
+        this.enabled = enabled;
+        this.count = count;
+        this.entries = entries;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+}
@@ -0,0 +1,22 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A template that can be rendered.
+ * <p/>
+ * Is implemented by compiled template block trees and by classes generated with the {@link io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateSourceGenerator}.
+ */
+public interface CompiledTemplate {
+
+    /**
+     * Renders the template to the passed output.
+     *
+     * @param output    the output to render to
+     * @param variables the variables to use
+     * @throws IOException if output can't be written
+     */
+    void render(Appendable output, Map<String, Object> variables) throws IOException;
+
+}
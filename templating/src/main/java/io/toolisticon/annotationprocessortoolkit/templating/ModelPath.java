@@ -0,0 +1,93 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled model path like 'model.name'.
+ * <p/>
+ * The path is split into its tokens once, so that it can be resolved multiple times without parsing it again.
+ * Instances are immutable and can be shared between threads.
+ */
+public class ModelPath {
+
+    private final String path;
+    private final String[] pathTokens;
+
+    public ModelPath(String path) {
+
+        if (path == null) {
+            throw new IllegalArgumentException("path must not be null");
+        }
+
+        this.path = path;
+        this.pathTokens = splitPath(path);
+    }
+
+    /**
+     * Splits the path into its tokens.
+     * Behaves like path.split("[.]") - trailing empty tokens are removed.
+     *
+     * @param path the path to split
+     * @return the path tokens
+     */
+    private static String[] splitPath(String path) {
+
+        if (path.indexOf('.') < 0) {
+            return new String[]{path};
+        }
+
+        List<String> tokens = new ArrayList<String>();
+
+        int beginIndex = 0;
+        int separatorIndex;
+        while ((separatorIndex = path.indexOf('.', beginIndex)) >= 0) {
+            tokens.add(path.substring(beginIndex, separatorIndex));
+            beginIndex = separatorIndex + 1;
+        }
+        tokens.add(path.substring(beginIndex));
+
+        // remove trailing empty tokens
+        int size = tokens.size();
+        while (size > 0 && tokens.get(size - 1).isEmpty()) {
+            size--;
+        }
+
+        return tokens.subList(0, size).toArray(new String[size]);
+    }
+
+    /**
+     * Resolves the path on the model.
+     * Type and value are determined in one pass.
+     *
+     * @param model the model
+     * @return the result or null if passed model is null
+     */
+    public ModelPathResolver.ResolvedModelPathResult resolve(Map<String, Object> model) {
+        return ModelPathResolver.resolveModelPath(model, this);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the path tokens.
+     *
+     * @return a copy of the path tokens
+     */
+    public String[] getPathTokens() {
+        return pathTokens.clone();
+    }
+
+    String[] pathTokens() {
+        return pathTokens;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+}
@@ -5,16 +5,25 @@ import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidPa
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class to access Model.
- * Model can either be set via TheadLocal or passed in via method parameter.
+ * Model should be passed in via method parameter, setting it via ThreadLocal is deprecated.
  */
 public class ModelPathResolver {
 
     /**
+     * The model bound to the current thread.
+     * Just used as fallback by the methods that don't take an explicit model - it's read via {@link #getThreadBoundModel()}.
      *
+     * @deprecated pass the model explicitly, for example via {@link io.toolisticon.annotationprocessortoolkit.templating.expressions.Expression#evaluateExpression(Map)}.
+     * The template engine doesn't set the model bound to the current thread anymore, so it's an empty map unless it's set by the caller.
+     * For example the operands of expressions parsed by
+     * {@link io.toolisticon.annotationprocessortoolkit.templating.expressions.ExpressionParser#parseExpression(String, Map)}
+     * resolve their value() against this empty map and not against the passed model.
      */
+    @Deprecated
     public static ThreadLocal<Map<String, Object>> modelMapThreadLocal = new ThreadLocal<Map<String, Object>>() {
         @Override
         protected Map<String, Object> initialValue() {
@@ -22,6 +31,100 @@ public class ModelPathResolver {
         }
     };
 
+    private static final String[] GETTER_PREFIXES = {"get", "is", "has"};
+
+    /**
+     * Per class getter cache - entries will be removed together with their classes.
+     */
+    private static final ClassValue<Getters> GETTERS = new ClassValue<Getters>() {
+        @Override
+        protected Getters computeValue(Class<?> type) {
+            return new Getters(type);
+        }
+    };
+
+    /**
+     * Holds the public methods without parameters of a class and the getters resolved for field names.
+     */
+    private static class Getters {
+
+        /**
+         * Used to cache failed lookups, since ConcurrentHashMap doesn't support null values.
+         */
+        private static final Getter NO_GETTER = new Getter(null);
+
+        private final Map<String, Method> methodsWithoutParameters = new HashMap<String, Method>();
+        private final ConcurrentHashMap<String, Getter> getters = new ConcurrentHashMap<String, Getter>();
+
+        private Getters(Class<?> type) {
+
+            for (Method method : type.getMethods()) {
+
+                if (method.getParameterTypes().length == 0) {
+
+                    // prefer methods with most specific return type over bridge methods - like Class.getMethod does
+                    Method existingMethod = methodsWithoutParameters.get(method.getName());
+                    if (existingMethod == null || existingMethod.getReturnType().isAssignableFrom(method.getReturnType())) {
+                        methodsWithoutParameters.put(method.getName(), method);
+                    }
+
+                }
+
+            }
+
+        }
+
+        private Method getGetter(String fieldNameOrGetter) {
+
+            Getter getter = getters.get(fieldNameOrGetter);
+            if (getter == null) {
+                Method method = findGetter(fieldNameOrGetter.trim());
+                getter = method != null ? new Getter(method) : NO_GETTER;
+                getters.putIfAbsent(fieldNameOrGetter, getter);
+            }
+
+            return getter.method;
+        }
+
+        private Method findGetter(String trimmedFieldNameOrGetter) {
+
+            if (trimmedFieldNameOrGetter.length() == 0) {
+                return null;
+            }
+
+            // check if passed fieldNameOrGetter is already method without parameter
+            Method method = methodsWithoutParameters.get(trimmedFieldNameOrGetter);
+            if (method != null) {
+                return method;
+            }
+
+            // now check existence of method with getter prefixes - return first match
+            for (String getterPrefix : GETTER_PREFIXES) {
+
+                String getterName = getterPrefix + trimmedFieldNameOrGetter.substring(0, 1).toUpperCase() + trimmedFieldNameOrGetter.substring(1);
+
+                method = methodsWithoutParameters.get(getterName);
+                if (method != null) {
+                    return method;
+                }
+
+            }
+
+            return null;
+        }
+
+    }
+
+    private static class Getter {
+
+        private final Method method;
+
+        private Getter(Method method) {
+            this.method = method;
+        }
+
+    }
+
     /**
      * Static class that holds the result of the resolved path.
      */
@@ -44,15 +147,29 @@ public class ModelPathResolver {
         }
     }
 
+    /**
+     * Gets the model bound to the current thread.
+     * All methods that don't take an explicit model read the model bound to the current thread via this method.
+     *
+     * @return the model of {@link #modelMapThreadLocal}, an empty map unless it's set by the caller
+     * @deprecated pass the model explicitly - the template engine doesn't bind models to the current thread anymore.
+     */
+    @Deprecated
+    public static Map<String, Object> getThreadBoundModel() {
+        return modelMapThreadLocal.get();
+    }
+
     /**
      * Resolves path on the model.
      * This method can be used to get model from ThreadLocal.
      *
      * @param path the path to resolve
      * @return
+     * @deprecated relies on {@link #modelMapThreadLocal}. Use {@link #resolveModelPath(Map, String)} instead.
      */
+    @Deprecated
     public static ResolvedModelPathResult resolveModelPath(String path) {
-        return resolveModelPath(modelMapThreadLocal.get(), path);
+        return resolveModelPath(getThreadBoundModel(), path);
     }
 
 
@@ -69,8 +186,25 @@ public class ModelPathResolver {
             return null;
         }
 
-        // break path strings to path tokens
-        String[] pathTokens = path.split("[.]");
+        return resolveModelPath(model, new ModelPath(path));
+
+    }
+
+    /**
+     * Resolves a compiled path on the model.
+     *
+     * @param model     the model
+     * @param modelPath the compiled path to resolve
+     * @return the result or null if model or path are null
+     */
+    public static ResolvedModelPathResult resolveModelPath(Map<String, Object> model, ModelPath modelPath) {
+
+        if (model == null || modelPath == null) {
+            return null;
+        }
+
+        final String path = modelPath.getPath();
+        final String[] pathTokens = modelPath.pathTokens();
 
         Object currentNode = model;
         Class currentNodeType = null;
@@ -81,6 +215,20 @@ public class ModelPathResolver {
                 throw new InvalidPathException("Path cannot be resolved. Encountered null value in path '" + path + "'  so token '" + currentPathToken + "' cannot be applied.");
             } else if (currentNode.getClass().isArray()) {
                 throw new InvalidPathException("Path cannot be resolved. Encountered array in path '" + path + "' so token '" + currentPathToken + "' cannot be applied.");
+            } else if (currentNode instanceof VariableScope) {
+
+                // resolve against chained scopes without copying them
+                currentNode = ((VariableScope) currentNode).lookup(currentPathToken);
+
+                if (currentNode == VariableScope.NOT_FOUND) {
+                    throw new InvalidPathException("Path cannot be resolved. Encountered Map in path '" + path + "' which has no key " + currentPathToken + ".");
+                }
+
+                // Now use values type
+                if (currentNode != null) {
+                    currentNodeType = currentNode.getClass();
+                }
+
             } else if (currentNode instanceof Map) {
 
                 if (!(((Map) currentNode).containsKey(currentPathToken))) {
@@ -99,23 +247,20 @@ public class ModelPathResolver {
                 // POJOS
 
                 // get getter
-                String getterName = getGetter(currentNode, currentPathToken);
+                Method getterMethodToCall = getGetterMethod(currentNode.getClass(), currentPathToken);
 
-                if (getterName == null) {
+                if (getterMethodToCall == null) {
                     throw new InvalidPathException("Path '" + path + "' cannot be resolved. Path token " + currentPathToken + " not resolvable");
                 }
 
                 // now call method via reflection
                 try {
-                    Method getterMethodToCall = currentNode.getClass().getMethod(getterName);
 
                     currentNode = getterMethodToCall.invoke(currentNode);
                     currentNodeType = getterMethodToCall.getReturnType();
 
-                } catch (NoSuchMethodException e) {
-                    // can be ignored - because it's guaranteed that the method exists
                 } catch (Exception e) {
-                    throw new InvalidPathException("Path '\" + path + \"' cannot be resolved. Cannot invoke getter method of token '" + currentPathToken + "'", e);
+                    throw new InvalidPathException("Path '" + path + "' cannot be resolved. Cannot invoke getter method of token '" + currentPathToken + "'", e);
                 }
 
 
@@ -137,52 +282,25 @@ public class ModelPathResolver {
      */
     protected static String getGetter(Object instance, String fieldNameOrGetter) {
 
-        final String[] GETTER_PREFIXES = {"get", "is", "has"};
-
-        final String trimmedFieldNameOrGetter = fieldNameOrGetter != null ? fieldNameOrGetter.trim() : null;
-
-        if (instance == null || trimmedFieldNameOrGetter == null || trimmedFieldNameOrGetter.length() == 0) {
+        if (instance == null || fieldNameOrGetter == null) {
             return null;
         }
 
-        try {
-
-            // check if passed fieldNameOrGetter is already method without parameter
-            Method method = instance.getClass().getMethod(trimmedFieldNameOrGetter.trim());
-
-            if (java.lang.reflect.Modifier.isPublic(method.getModifiers())) {
-                return trimmedFieldNameOrGetter;
-            }
-
-
-        } catch (NoSuchMethodException e) {
-            // ignore this
-        }
-
-        // now check existence of method with getter prefixes - return first match
-        for (String getterPrefix : GETTER_PREFIXES) {
-
-            // construct getter name
-            String getterName = getterPrefix + trimmedFieldNameOrGetter.substring(0, 1).toUpperCase() + trimmedFieldNameOrGetter.substring(1);
-
-
-            try {
+        Method getter = getGetterMethod(instance.getClass(), fieldNameOrGetter);
+        return getter != null ? getter.getName() : null;
 
-                // check if passed fieldNameOrGetter is already method without parameter
-                Method method = instance.getClass().getMethod(getterName);
-                if (java.lang.reflect.Modifier.isPublic(method.getModifiers())) {
-                    return getterName;
-                }
-
-            } catch (NoSuchMethodException e) {
-                // ignore this
-            }
-
-
-        }
-
-        return null;
+    }
 
+    /**
+     * Gets the getter method for a field name or getter of a class.
+     * Lookups are cached per class - failed lookups are cached as well.
+     *
+     * @param type              the class to search the getter in
+     * @param fieldNameOrGetter the name of the field or method to get the getter for
+     * @return the public method without parameters or null if no callable getter can be found
+     */
+    static Method getGetterMethod(Class<?> type, String fieldNameOrGetter) {
+        return GETTERS.get(type).getGetter(fieldNameOrGetter);
     }
 
 }
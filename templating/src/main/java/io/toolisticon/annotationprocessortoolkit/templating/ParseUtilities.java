@@ -1,18 +1,24 @@
 package io.toolisticon.annotationprocessortoolkit.templating;
 
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.MissingClosingTagException;
 import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.ForTemplateBlock;
 import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.IfTemplateBlock;
 import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.IncludeTemplateBlock;
 import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.PlainTextTemplateBlock;
 import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.StaticTemplateBlock;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlock;
 import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockBinder;
 import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockType;
 import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.VariableTextTemplateBlock;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -62,87 +68,300 @@ public class ParseUtilities {
     }
 
 
-    public static final Pattern DYNAMIC_TEXT_BLOCK_REGEX = Pattern.compile("[$][{]\\s*((?:\\w|.)*?)\\s*[}]");
+    /**
+     * Holds the state of a block while parsing.
+     */
+    private static class ParserFrame {
 
+        private final TemplateToken startTag;
+        private final TemplateBlockBinder binder;
+        private final int contentBeginIndex;
+        private final int line;
 
-    public static TemplateBlockBinder parseString(String templateString) {
+        // line numbers of created blocks, null if line numbers aren't collected
+        private final Map<TemplateBlock, Integer> lineNumbers;
 
-        String tmpTemplateString = templateString;
+        private int pendingTextBeginIndex = -1;
+        private int pendingTextEndIndex = -1;
+        private int pendingTextLine = 0;
 
-        TemplateBlockBinder binder = new TemplateBlockBinder(tmpTemplateString);
+        // nesting depth of include blocks inside the content of an include block
+        private int ignoredIncludeBlocks = 0;
+
+        private ParserFrame(TemplateToken startTag, TemplateBlockBinder binder, int contentBeginIndex, int line, Map<TemplateBlock, Integer> lineNumbers) {
+            this.startTag = startTag;
+            this.binder = binder;
+            this.contentBeginIndex = contentBeginIndex;
+            this.line = line;
+            this.lineNumbers = lineNumbers;
+        }
+
+        private boolean isControlBlock(TemplateBlockType templateBlockType) {
+            return startTag != null && startTag.getTemplateBlockType() == templateBlockType;
+        }
 
-        NextDetectedBlockResult nextBlock = TemplateBlockType.getNextBlock(templateString);
+        private boolean trimsContent() {
+            return isControlBlock(TemplateBlockType.FOR) || isControlBlock(TemplateBlockType.IF);
+        }
 
-        while (nextBlock != null) {
+        private void addPendingText(int beginIndex, int endIndex, int line) {
+            if (pendingTextBeginIndex < 0) {
+                pendingTextBeginIndex = beginIndex;
+                pendingTextLine = line;
+            }
+            pendingTextEndIndex = endIndex;
+        }
 
-            // add plain text block upfront
-            if (nextBlock.getBeginIndex() != 0) {
-                binder.addTemplateBlock(new PlainTextTemplateBlock(tmpTemplateString.substring(0, nextBlock.getBeginIndex())));
+        private void addTemplateBlock(TemplateBlock templateBlock, int line) {
+            binder.addTemplateBlock(templateBlock);
+            if (lineNumbers != null) {
+                lineNumbers.put(templateBlock, line);
             }
+        }
 
+        /**
+         * Adds pending plain text as a block to the binder.
+         * Content of for and if blocks is trimmed like it's done by {@link ParseUtilities#trimContentString(String)}.
+         *
+         * @param tokenizer      the tokenizer providing the text
+         * @param atEndOfContent flag that defines whether the end of the blocks content has been reached
+         */
+        private void flushPendingText(TemplateTokenizer tokenizer, boolean atEndOfContent) {
+
+            if (pendingTextBeginIndex < 0) {
+                return;
+            }
 
-            switch (nextBlock.getTemplateBlockType()) {
+            String text = tokenizer.getText(pendingTextBeginIndex, pendingTextEndIndex);
 
-                case DYNAMIC_TEXT: {
-                    ParserResult nextDynamicText = getNextDynamicText(tmpTemplateString);
-                    binder.addTemplateBlock(new VariableTextTemplateBlock(nextDynamicText.getContent()));
-                    tmpTemplateString = tmpTemplateString.substring(nextDynamicText.getEndIndex());
-                    break;
+            if (trimsContent()) {
+                if (pendingTextBeginIndex == contentBeginIndex) {
+                    text = trimLeadingLine(text);
+                }
+                if (atEndOfContent) {
+                    text = trimTrailingSpaces(text);
                 }
-                case FOR: {
+            }
 
+            addTemplateBlock(new PlainTextTemplateBlock(text), pendingTextLine);
+            pendingTextBeginIndex = -1;
+            pendingTextEndIndex = -1;
 
-                    ForTemplateBlock forTemplateBlock = new ForTemplateBlock(nextBlock.getAttributes(), nextBlock.getContent());
-                    binder.addTemplateBlock(forTemplateBlock);
+        }
 
-                    forTemplateBlock.setBinder(parseString(forTemplateBlock.getTemplateString()));
-                    tmpTemplateString = nextBlock.getRemainingStringToBeProcessed();
+    }
 
-                    break;
-                }
-                case IF: {
 
-                    IfTemplateBlock ifTemplateBlock = new IfTemplateBlock(nextBlock.getAttributes(), nextBlock.getContent());
-                    binder.addTemplateBlock(ifTemplateBlock);
+    /**
+     * Charset used to decode template resources.
+     */
+    public static final Charset UTF_8 = Charset.forName("UTF-8");
 
-                    ifTemplateBlock.setBinder(parseString(ifTemplateBlock.getTemplateString()));
-                    tmpTemplateString = nextBlock.getRemainingStringToBeProcessed();
+    public static final Pattern DYNAMIC_TEXT_BLOCK_REGEX = Pattern.compile("[$][{]\\s*((?:\\w|.)*?)\\s*[}]");
 
-                    break;
+    private static final Pattern TRIM_LEADING_LINE_PATTERN = Pattern.compile("^[ ]*?\n");
+    private static final Pattern TRIM_TRAILING_SPACES_PATTERN = Pattern.compile("[ ]+$");
+
+    private static final String ATTRIBUTE_PATTERN_STRING = "\\s*(\\w+)\\s*:\\s*'(.*?)'\\s*";
+    private static final Pattern ATTRIBUTE_PATTERN = Pattern.compile(ATTRIBUTE_PATTERN_STRING);
+    private static final Pattern ATTRIBUTES_PATTERN = Pattern.compile(ATTRIBUTE_PATTERN_STRING + "(?:," + ATTRIBUTE_PATTERN_STRING + ")*");
+
+
+    /**
+     * Parses a template string.
+     * <p/>
+     * Template string is scanned once by the {@link TemplateTokenizer}, the block tree is built from the emitted tokens.
+     *
+     * @param templateString the template string to parse
+     * @return the binder containing all parsed template blocks
+     * @throws MissingClosingTagException if a control block isn't closed properly
+     */
+    public static TemplateBlockBinder parseString(String templateString) {
+        return parse(new TemplateTokenizer(templateString), true, null);
+    }
+
+    /**
+     * Parses a template string and collects the line numbers of all created template blocks.
+     * Used to map template blocks back to the template, for example by the {@link io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateProfiler}.
+     *
+     * @param templateString the template string to parse
+     * @param lineNumbers    the map to store the line numbers of the template blocks in, line numbers start with 1
+     * @return the binder containing all parsed template blocks
+     * @throws MissingClosingTagException if a control block isn't closed properly
+     */
+    public static TemplateBlockBinder parseString(String templateString, Map<TemplateBlock, Integer> lineNumbers) {
+
+        if (lineNumbers == null) {
+            throw new IllegalArgumentException("lineNumbers must not be null");
+        }
+
+        return parse(new TemplateTokenizer(templateString), true, lineNumbers);
+    }
+
+    /**
+     * Parses a template from a reader.
+     * <p/>
+     * The reader is consumed incrementally and blocks are created while reading, so the template is never kept in memory as a whole.
+     * The template strings of for and if blocks aren't kept.
+     * The reader won't be closed.
+     *
+     * @param reader the reader to read the template from
+     * @return the binder containing all parsed template blocks
+     * @throws IOException                if reader can't be read
+     * @throws MissingClosingTagException if a control block isn't closed properly
+     */
+    public static TemplateBlockBinder parseReader(Reader reader) throws IOException {
+        return parseTokenizer(new TemplateTokenizer(reader));
+    }
+
+    /**
+     * Parses a template provided by a reader based tokenizer.
+     *
+     * @param tokenizer the tokenizer
+     * @return the binder containing all parsed template blocks
+     * @throws IOException if reader can't be read
+     */
+    static TemplateBlockBinder parseTokenizer(TemplateTokenizer tokenizer) throws IOException {
+        try {
+            return parse(tokenizer, false, null);
+        } catch (TemplateTokenizer.ReadFailedException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static TemplateBlockBinder parse(TemplateTokenizer tokenizer, boolean keepControlBlockContent, Map<TemplateBlock, Integer> lineNumbers) {
+
+        TemplateBlockBinder binder = new TemplateBlockBinder(null);
+
+        List<ParserFrame> stack = new ArrayList<ParserFrame>();
+        ParserFrame currentFrame = new ParserFrame(null, binder, 0, 1, lineNumbers);
+        stack.add(currentFrame);
+
+        int line = 1;
+
+        TemplateToken token;
+        while ((token = tokenizer.nextToken()) != null) {
+
+            // tokens cover the template without gaps, so lines can be counted token by token
+            int tokenLine = line;
+            if (lineNumbers != null) {
+                line += tokenizer.countLineBreaks(token.getBeginIndex(), token.getEndIndex());
+            }
+
+            // content of include blocks is ignored - just nested include blocks must be tracked to find the end tag
+            if (currentFrame.isControlBlock(TemplateBlockType.INCLUDE) && !isEndTagOfFrame(currentFrame, token)) {
+                if (token.getTemplateBlockType() == TemplateBlockType.INCLUDE) {
+                    currentFrame.ignoredIncludeBlocks += token.getKind() == TemplateToken.Kind.START_TAG ? 1 : -1;
                 }
-                case INCLUDE: {
-                    IncludeTemplateBlock includeTemplateBlock = new IncludeTemplateBlock(nextBlock.getAttributes());
-                    binder.addTemplateBlock(includeTemplateBlock);
+                continue;
+            }
 
-                    tmpTemplateString = nextBlock.getRemainingStringToBeProcessed();
+            switch (token.getKind()) {
 
+                case PLAIN_TEXT: {
+                    currentFrame.addPendingText(token.getBeginIndex(), token.getEndIndex(), tokenLine);
+                    break;
+                }
+                case DYNAMIC_TEXT: {
+                    currentFrame.flushPendingText(tokenizer, false);
+                    currentFrame.addTemplateBlock(new VariableTextTemplateBlock(token.getContent()), tokenLine);
                     break;
                 }
                 case STATIC: {
+                    currentFrame.flushPendingText(tokenizer, false);
+                    currentFrame.addTemplateBlock(new StaticTemplateBlock(token.getContent()), tokenLine);
+                    break;
+                }
+                case START_TAG: {
+                    currentFrame.flushPendingText(tokenizer, false);
+                    currentFrame = new ParserFrame(token, new TemplateBlockBinder(null), token.getEndIndex(), tokenLine, lineNumbers);
+                    stack.add(currentFrame);
+                    tokenizer.openControlBlock(token.getTemplateBlockType());
+                    break;
+                }
+                case END_TAG: {
 
+                    if (!isOpen(stack, token.getTemplateBlockType())) {
+                        // end tags without start tag are treated as plain text
+                        currentFrame.addPendingText(token.getBeginIndex(), token.getEndIndex(), tokenLine);
+                        break;
+                    }
 
-                    StaticTemplateBlock staticTemplateBlock = new StaticTemplateBlock(nextBlock.getContent());
-                    binder.addTemplateBlock(staticTemplateBlock);
+                    if (!currentFrame.isControlBlock(token.getTemplateBlockType())) {
+                        throw new MissingClosingTagException("Cannot find closing tag for " + currentFrame.startTag.getTemplateBlockType().name() + " control block");
+                    }
 
-                    tmpTemplateString = nextBlock.getRemainingStringToBeProcessed();
+                    currentFrame.flushPendingText(tokenizer, true);
+                    stack.remove(stack.size() - 1);
+                    tokenizer.closeControlBlock(token.getTemplateBlockType());
 
+                    String content = keepControlBlockContent ? tokenizer.getText(currentFrame.contentBeginIndex, token.getBeginIndex()) : "";
+                    TemplateBlock block = createControlBlock(currentFrame, content);
+                    int blockLine = currentFrame.line;
+                    currentFrame = stack.get(stack.size() - 1);
+                    currentFrame.addTemplateBlock(block, blockLine);
 
                     break;
                 }
 
+            }
 
+            // just pending text must be kept - control block content is kept completely if requested
+            if (!keepControlBlockContent) {
+                tokenizer.release(currentFrame.pendingTextBeginIndex >= 0 ? currentFrame.pendingTextBeginIndex : token.getEndIndex());
             }
 
-            // get next block type
-            nextBlock = TemplateBlockType.getNextBlock(tmpTemplateString);
         }
 
-        // add last plain text block
-        binder.addTemplateBlock(new PlainTextTemplateBlock(tmpTemplateString));
+        if (stack.size() > 1) {
+            throw new MissingClosingTagException("Cannot find closing tag for " + currentFrame.startTag.getTemplateBlockType().name() + " control block");
+        }
+
+        currentFrame.flushPendingText(tokenizer, true);
 
         return binder;
     }
 
+    private static boolean isEndTagOfFrame(ParserFrame frame, TemplateToken token) {
+        return token.getKind() == TemplateToken.Kind.END_TAG && frame.isControlBlock(token.getTemplateBlockType()) && frame.ignoredIncludeBlocks == 0;
+    }
+
+    private static boolean isOpen(List<ParserFrame> stack, TemplateBlockType templateBlockType) {
+
+        for (int i = stack.size() - 1; i > 0; i--) {
+            if (stack.get(i).isControlBlock(templateBlockType)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static TemplateBlock createControlBlock(ParserFrame frame, String content) {
+
+        String attributes = frame.startTag.getContent();
+
+        switch (frame.startTag.getTemplateBlockType()) {
+            case FOR: {
+                ForTemplateBlock forTemplateBlock = new ForTemplateBlock(attributes, content);
+                forTemplateBlock.setBinder(frame.binder);
+                return forTemplateBlock;
+            }
+            case IF: {
+                IfTemplateBlock ifTemplateBlock = new IfTemplateBlock(attributes, content);
+                ifTemplateBlock.setBinder(frame.binder);
+                return ifTemplateBlock;
+            }
+            case INCLUDE: {
+                // content of include blocks is ignored
+                return new IncludeTemplateBlock(attributes);
+            }
+            default:
+                throw new IllegalStateException("Unsupported control block type " + frame.startTag.getTemplateBlockType());
+        }
+
+    }
+
 
     /**
      * Get dynamic text block.
@@ -170,6 +389,7 @@ public class ParseUtilities {
 
     /**
      * Reads a resource file into a String
+     * The resource file is decoded as UTF-8.
      *
      * @param resourcefileName
      * @return the content of the resource file as a String
@@ -177,18 +397,32 @@ public class ParseUtilities {
      */
     public static String readResourceToString(String resourcefileName) throws IOException {
 
+        return readFromReader(openResourceReader(resourcefileName));
+
+    }
+
+    /**
+     * Opens a reader for a resource file.
+     * The resource file is decoded as UTF-8.
+     *
+     * @param resourcefileName the name of the resource file
+     * @return the reader, must be closed by the caller
+     * @throws IllegalArgumentException if resource can't be found
+     */
+    public static Reader openResourceReader(String resourcefileName) {
+
         InputStream inputStream = ParseUtilities.class.getResourceAsStream(resourcefileName);
         if (inputStream != null) {
-            return readFromInputStream(inputStream);
+            return new InputStreamReader(inputStream, UTF_8);
         } else {
             throw new IllegalArgumentException("Can't open resource file '" + resourcefileName + "'");
         }
 
-
     }
 
     /**
      * Reads a String from an InputStream.
+     * The stream is decoded as UTF-8.
      * CLoses the stream
      *
      * @param stream the inputStream to use
@@ -197,20 +431,36 @@ public class ParseUtilities {
      */
     public static String readFromInputStream(InputStream stream) throws IOException {
 
-        byte[] buffer = new byte[10000];
-        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        return readFromReader(new InputStreamReader(stream, UTF_8));
+
+    }
+
+    /**
+     * Reads a String from a Reader.
+     * Closes the reader.
+     *
+     * @param reader the reader to use
+     * @return The String read from the reader
+     * @throws IOException
+     */
+    private static String readFromReader(Reader reader) throws IOException {
+
+        try {
 
-        int line = 0;
-        // read bytes from stream, and store them in buffer
-        while ((line = stream.read(buffer)) != -1) {
-            // Writes bytes from byte array (buffer) into output stream.
-            os.write(buffer, 0, line);
+            StringBuilder result = new StringBuilder();
+            char[] buffer = new char[8192];
+
+            int length;
+            while ((length = reader.read(buffer)) != -1) {
+                result.append(buffer, 0, length);
+            }
+
+            return result.toString();
+
+        } finally {
+            reader.close();
         }
-        stream.close();
-        os.flush();
-        os.close();
 
-        return new String(os.toByteArray());
     }
 
 
@@ -225,13 +475,30 @@ public class ParseUtilities {
      */
     public static String trimContentString(String content) {
 
-        String tmpContentString = content;
-        tmpContentString = tmpContentString.replaceFirst("^[ ]*?\n", "");
-        tmpContentString = tmpContentString.replaceAll("[ ]+$", "");
-        return tmpContentString;
+        return trimTrailingSpaces(trimLeadingLine(content));
 
     }
 
+    /**
+     * Removes first line if it contains just spaces.
+     *
+     * @param content the content string
+     * @return the trimmed content string
+     */
+    private static String trimLeadingLine(String content) {
+        return TRIM_LEADING_LINE_PATTERN.matcher(content).replaceFirst("");
+    }
+
+    /**
+     * Removes trailing spaces.
+     *
+     * @param content the content string
+     * @return the trimmed content string
+     */
+    private static String trimTrailingSpaces(String content) {
+        return TRIM_TRAILING_SPACES_PATTERN.matcher(content).replaceAll("");
+    }
+
     /**
      * Pareses a string and creates a map containing attribute names and values.
      * If an attribute is set more than once, the last attribute value will be included.
@@ -242,15 +509,11 @@ public class ParseUtilities {
     public static Map<String, String> parseNamedAttributes(String attributeString) {
 
         Map<String, String> attributeMap = new HashMap<>();
-        final String attributePatternString = "\\s*(\\w+)\\s*:\\s*'(.*?)'\\s*";
-
-        Pattern attributePattern = Pattern.compile("(" + attributePatternString + ")(?:,(\" + attributePatternString+ \"))*");
 
-        Matcher matcher = attributePattern.matcher(attributeString);
+        Matcher matcher = ATTRIBUTES_PATTERN.matcher(attributeString);
         if (matcher.matches()) {
 
-            Pattern findPattern = Pattern.compile(attributePatternString);
-            Matcher findMatcher = findPattern.matcher(attributeString);
+            Matcher findMatcher = ATTRIBUTE_PATTERN.matcher(attributeString);
 
             while (findMatcher.find()) {
                 String attributeName = findMatcher.group(1);
@@ -0,0 +1,444 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.CyclicIncludeException;
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidPrecompiledTemplateException;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlock;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockBinder;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateOptimizer;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateSerializer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache for compiled templates.
+ * <p/>
+ * Holds the parsed {@link TemplateBlockBinder} trees of templates, so that a template that is rendered multiple times must only be parsed once.
+ * Parsed templates are optimized by the {@link TemplateOptimizer} before they are cached.
+ * Templates can either be cached by their resource name or by their content.
+ * <p/>
+ * The cache is bounded by the number of entries and by the estimated number of bytes of the cached templates.
+ * If one of the bounds is exceeded, the least recently used entries will be evicted.
+ * <p/>
+ * Included templates are compiled via the cache as well. Includes of resources that are currently compiled - like recursive templates that
+ * include themselves - are resolved by the include block when it's rendered.
+ * <p/>
+ * Template resources that have been precompiled by the {@link TemplatePrecompiler} are loaded from their precompiled templates without parsing.
+ * Precompiled templates that are stale because their template resource has changed are ignored.
+ * <p/>
+ * Caches can be created with a {@link TemplateTransformer}, which rewrites the compiled templates before they are cached.
+ * <p/>
+ * This implementation is threadsafe.
+ */
+public class TemplateCache {
+
+    /**
+     * The default maximal number of cached templates.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    /**
+     * The default maximal number of bytes of cached templates.
+     */
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024L * 1024L;
+
+    private static final TemplateCache DEFAULT_INSTANCE = new TemplateCache(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+
+    /**
+     * The template resources that are currently compiled by the current thread - used to detect cyclic includes.
+     */
+    private static final ThreadLocal<List<String>> RESOURCES_IN_COMPILATION = new ThreadLocal<List<String>>() {
+        @Override
+        protected List<String> initialValue() {
+            return new ArrayList<String>();
+        }
+    };
+
+    /**
+     * Key of a cache entry.
+     * Keeps resource based and content based entries apart.
+     */
+    private static class CacheKey {
+
+        private final boolean resource;
+        private final String value;
+
+        private CacheKey(boolean resource, String value) {
+            this.resource = resource;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+
+            CacheKey cacheKey = (CacheKey) o;
+            return resource == cacheKey.resource && value.equals(cacheKey.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (resource ? 1 : 0) + value.hashCode();
+        }
+    }
+
+    /**
+     * A cache entry.
+     */
+    private static class CacheEntry {
+
+        private final TemplateBlockBinder binder;
+        private final long weight;
+
+        private CacheEntry(TemplateBlockBinder binder, long weight) {
+            this.binder = binder;
+            this.weight = weight;
+        }
+    }
+
+    private final LinkedHashMap<CacheKey, CacheEntry> entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true);
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private final TemplateTransformer transformer;
+
+    private int maxEntries;
+    private long maxBytes;
+    private long currentBytes = 0L;
+
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxEntries the maximal number of cached templates
+     * @param maxBytes   the maximal number of bytes of cached templates
+     * @throws IllegalArgumentException if one of the passed bounds is negative
+     */
+    public TemplateCache(int maxEntries, long maxBytes) {
+        this(maxEntries, maxBytes, null);
+    }
+
+    /**
+     * Creates a new cache that transforms compiled templates before they are cached.
+     *
+     * @param maxEntries  the maximal number of cached templates
+     * @param maxBytes    the maximal number of bytes of cached templates
+     * @param transformer the transformer to use or null if compiled templates shouldn't be transformed
+     * @throws IllegalArgumentException if one of the passed bounds is negative
+     */
+    public TemplateCache(int maxEntries, long maxBytes, TemplateTransformer transformer) {
+        checkBounds(maxEntries, maxBytes);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.transformer = transformer;
+    }
+
+    /**
+     * Gets the cache instance that is used by the {@link TemplateProcessor}.
+     *
+     * @return the default cache instance
+     */
+    public static TemplateCache getDefaultInstance() {
+        return DEFAULT_INSTANCE;
+    }
+
+    /**
+     * Gets the compiled template for a template resource file.
+     * Loads the precompiled template or parses the resource if it isn't cached yet.
+     *
+     * @param resourceName the name of the template resource file
+     * @return the compiled template
+     * @throws IOException              if resource can't be read
+     * @throws IllegalArgumentException if resource can't be found
+     * @throws CyclicIncludeException   if the resource is requested while it's compiled by the current thread - include blocks never do so,
+     *                                  they resolve such includes and detect cyclic includes when they are rendered
+     */
+    public TemplateBlockBinder getCompiledTemplateForResource(String resourceName) throws IOException {
+
+        if (resourceName == null) {
+            throw new IllegalArgumentException("resourceName must not be null");
+        }
+
+        CacheKey key = new CacheKey(true, resourceName);
+        TemplateBlockBinder binder = lookup(key);
+
+        if (binder == null) {
+
+            List<String> resourcesInCompilation = RESOURCES_IN_COMPILATION.get();
+            if (resourcesInCompilation.contains(resourceName)) {
+                StringBuilder includeChain = new StringBuilder();
+                for (String resourceInCompilation : resourcesInCompilation.subList(resourcesInCompilation.indexOf(resourceName), resourcesInCompilation.size())) {
+                    includeChain.append(resourceInCompilation).append(" -> ");
+                }
+                throw new CyclicIncludeException("Detected cyclic include of template resources : " + includeChain + resourceName);
+            }
+
+            long weight = 0L;
+            Map<TemplateBlock, Integer> lineNumbers = null;
+
+            resourcesInCompilation.add(resourceName);
+            try {
+
+                if (requiresLineNumbers()) {
+
+                    String templateText = ParseUtilities.readResourceToString(resourceName);
+                    lineNumbers = new IdentityHashMap<TemplateBlock, Integer>();
+                    binder = ParseUtilities.parseString(templateText, lineNumbers);
+                    weight = getWeight(templateText);
+
+                }
+
+                // precompiled templates are preferred, parsing is used as fallback
+                ByteBuffer precompiledTemplate = binder == null ? TemplatePrecompiler.readPrecompiledTemplate(resourceName) : null;
+                if (precompiledTemplate != null) {
+                    weight = 2L * precompiledTemplate.remaining();
+                    binder = loadPrecompiledTemplate(resourceName, precompiledTemplate);
+                }
+
+                if (binder == null) {
+
+                    // template is parsed while it's read
+                    Reader reader = ParseUtilities.openResourceReader(resourceName);
+                    TemplateTokenizer tokenizer = new TemplateTokenizer(reader);
+                    try {
+                        binder = TemplateOptimizer.optimize(ParseUtilities.parseTokenizer(tokenizer));
+                    } finally {
+                        reader.close();
+                    }
+
+                    weight = 2L * tokenizer.getPosition();
+
+                }
+
+            } finally {
+                resourcesInCompilation.remove(resourcesInCompilation.size() - 1);
+            }
+
+            // transformers may resolve recursive includes, so the resource must not be marked as in compilation anymore
+            binder = transform(resourceName, true, binder, lineNumbers);
+
+            store(key, binder, weight + getWeight(resourceName));
+
+        }
+
+        return binder;
+    }
+
+    /**
+     * Checks whether a template resource is currently compiled by the current thread.
+     * Used by include blocks to detect recursive includes.
+     *
+     * @param resourceName the name of the template resource file
+     * @return true if the resource is currently compiled, otherwise false
+     */
+    public static boolean isInCompilation(String resourceName) {
+        return RESOURCES_IN_COMPILATION.get().contains(resourceName);
+    }
+
+    /**
+     * Loads a precompiled template, if it has been compiled from the current template resource.
+     * Precompiled templates without template resource are always used.
+     *
+     * @param resourceName        the name of the template resource file
+     * @param precompiledTemplate the buffer containing the precompiled template
+     * @return the compiled template or null if precompiled template is invalid or stale
+     * @throws IOException if template resource can't be checked
+     */
+    private static TemplateBlockBinder loadPrecompiledTemplate(String resourceName, ByteBuffer precompiledTemplate) throws IOException {
+
+        try {
+
+            URL templateUrl = ParseUtilities.class.getResource(resourceName);
+            if (templateUrl != null && !TemplatePrecompiler.isUpToDate(TemplateSerializer.readSourceFingerprint(precompiledTemplate), templateUrl)) {
+                return null;
+            }
+
+            return TemplateSerializer.deserialize(precompiledTemplate);
+
+        } catch (InvalidPrecompiledTemplateException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            // thrown by blocks for corrupt attributes or missing includes
+            return null;
+        }
+
+    }
+
+    /**
+     * Gets the compiled template for a template string.
+     * Parses the template string if it isn't cached yet.
+     *
+     * @param templateString the template string
+     * @return the compiled template
+     */
+    public TemplateBlockBinder getCompiledTemplate(String templateString) {
+
+        if (templateString == null) {
+            throw new IllegalArgumentException("templateString must not be null");
+        }
+
+        CacheKey key = new CacheKey(false, templateString);
+        TemplateBlockBinder binder = lookup(key);
+
+        if (binder == null) {
+
+            Map<TemplateBlock, Integer> lineNumbers = null;
+            if (requiresLineNumbers()) {
+                lineNumbers = new IdentityHashMap<TemplateBlock, Integer>();
+                binder = ParseUtilities.parseString(templateString, lineNumbers);
+            } else {
+                binder = TemplateOptimizer.optimize(ParseUtilities.parseString(templateString));
+            }
+
+            binder = transform(templateString, false, binder, lineNumbers);
+
+            // template string is used as key and must be counted twice
+            store(key, binder, 2 * getWeight(templateString));
+
+        }
+
+        return binder;
+    }
+
+    private boolean requiresLineNumbers() {
+        return transformer != null && transformer.requiresLineNumbers();
+    }
+
+    private TemplateBlockBinder transform(String template, boolean resource, TemplateBlockBinder binder, Map<TemplateBlock, Integer> lineNumbers) {
+        return transformer != null ? transformer.transform(template, resource, binder, lineNumbers) : binder;
+    }
+
+    private synchronized TemplateBlockBinder lookup(CacheKey key) {
+
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            hitCount.incrementAndGet();
+            return entry.binder;
+        }
+
+        missCount.incrementAndGet();
+        return null;
+
+    }
+
+    private synchronized void store(CacheKey key, TemplateBlockBinder binder, long weight) {
+
+        // entries that exceed the bounds on their own won't be cached
+        if (maxEntries == 0 || weight > maxBytes) {
+            return;
+        }
+
+        CacheEntry previousEntry = entries.put(key, new CacheEntry(binder, weight));
+        if (previousEntry != null) {
+            currentBytes -= previousEntry.weight;
+        }
+        currentBytes += weight;
+
+        evict();
+
+    }
+
+    private void evict() {
+
+        Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && (entries.size() > maxEntries || currentBytes > maxBytes)) {
+
+            CacheEntry entry = iterator.next().getValue();
+            iterator.remove();
+
+            currentBytes -= entry.weight;
+            evictionCount.incrementAndGet();
+
+        }
+
+    }
+
+    private static long getWeight(String string) {
+        return 2L * string.length();
+    }
+
+    private static void checkBounds(int maxEntries, long maxBytes) {
+        if (maxEntries < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("maxEntries and maxBytes must not be negative");
+        }
+    }
+
+    /**
+     * Changes the bounds of the cache.
+     * Evicts entries immediately, if the new bounds are exceeded.
+     *
+     * @param maxEntries the maximal number of cached templates
+     * @param maxBytes   the maximal number of bytes of cached templates
+     * @throws IllegalArgumentException if one of the passed bounds is negative
+     */
+    public synchronized void setBounds(int maxEntries, long maxBytes) {
+        checkBounds(maxEntries, maxBytes);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    /**
+     * Removes all entries from the cache.
+     * Counters won't be reset.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0L;
+    }
+
+    public synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Gets the number of cached templates.
+     *
+     * @return the number of cached templates
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the estimated number of bytes of all cached templates.
+     *
+     * @return the estimated number of bytes
+     */
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+}
@@ -0,0 +1,275 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.SourceFingerprint;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockBinder;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateOptimizer;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateSerializer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.jar.JarEntry;
+
+/**
+ * Precompiles template resources at build time.
+ * <p/>
+ * The precompiler parses and optimizes template files and writes the compiled template in the binary format of the {@link TemplateSerializer} next to them.
+ * The {@link TemplateCache} loads these precompiled templates instead of parsing the template resources, if they exist.
+ * <p/>
+ * Can be run after the resources have been copied, for example by the exec-maven-plugin in the process-classes phase:
+ * <pre>
+ * java io.toolisticon.annotationprocessortoolkit.templating.TemplatePrecompiler target/classes
+ * </pre>
+ * Included template resources must be available on the classpath of the precompiler.
+ * Precompiled templates store the {@link SourceFingerprint} of their template file. If the template resource is available at runtime and has changed,
+ * the stale precompiled template is ignored and the template resource is parsed instead.
+ * Template files and entries of jar files are checked by their metadata, so unchanged template resources usually aren't read.
+ */
+public final class TemplatePrecompiler {
+
+    /**
+     * Suffix of template files.
+     */
+    public static final String TEMPLATE_SUFFIX = ".tpl";
+
+    /**
+     * Suffix of precompiled template files.
+     */
+    public static final String PRECOMPILED_TEMPLATE_SUFFIX = ".tplc";
+
+    /**
+     * Hidden constructor.
+     */
+    private TemplatePrecompiler() {
+
+    }
+
+    /**
+     * Precompiles all template files in the passed directories.
+     *
+     * @param args the directories
+     * @throws IOException if a template file can't be read or a precompiled template can't be written
+     */
+    public static void main(String[] args) throws IOException {
+
+        if (args.length == 0) {
+            System.err.println("Usage: TemplatePrecompiler <directory>...");
+            System.exit(1);
+        }
+
+        for (String directory : args) {
+            int count = precompileDirectory(new File(directory));
+            System.out.println("Precompiled " + count + " templates in " + directory);
+        }
+
+    }
+
+    /**
+     * Precompiles all template files in the passed directory and its subdirectories.
+     *
+     * @param directory the directory
+     * @return the number of precompiled template files
+     * @throws IOException if a template file can't be read or a precompiled template can't be written
+     */
+    public static int precompileDirectory(File directory) throws IOException {
+
+        if (directory == null || !directory.isDirectory()) {
+            throw new IllegalArgumentException("Passed directory must be an existing directory : " + directory);
+        }
+
+        int count = 0;
+
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    count += precompileDirectory(file);
+                } else if (file.getName().endsWith(TEMPLATE_SUFFIX)) {
+                    precompile(file);
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Precompiles a template file.
+     * The precompiled template is written next to the template file.
+     *
+     * @param templateFile the template file
+     * @return the precompiled template file
+     * @throws IOException if template file can't be read or precompiled template can't be written
+     */
+    public static File precompile(File templateFile) throws IOException {
+
+        if (templateFile == null || !templateFile.isFile()) {
+            throw new IllegalArgumentException("Passed templateFile must be an existing file : " + templateFile);
+        }
+
+        byte[] content = readBytes(templateFile);
+        TemplateBlockBinder binder = TemplateOptimizer.optimize(ParseUtilities.parseString(new String(content, ParseUtilities.UTF_8)));
+
+        File precompiledTemplateFile = new File(templateFile.getParentFile(), getPrecompiledTemplateName(templateFile.getName()));
+
+        OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(precompiledTemplateFile));
+        try {
+            TemplateSerializer.serialize(binder, SourceFingerprint.of(content, templateFile.lastModified()), outputStream);
+        } finally {
+            outputStream.close();
+        }
+
+        return precompiledTemplateFile;
+    }
+
+    /**
+     * Gets the name of the precompiled template of a template.
+     *
+     * @param templateName the name of the template file or resource
+     * @return the name of the precompiled template
+     */
+    public static String getPrecompiledTemplateName(String templateName) {
+
+        if (templateName.endsWith(TEMPLATE_SUFFIX)) {
+            return templateName.substring(0, templateName.length() - TEMPLATE_SUFFIX.length()) + PRECOMPILED_TEMPLATE_SUFFIX;
+        }
+
+        return templateName + PRECOMPILED_TEMPLATE_SUFFIX;
+    }
+
+    /**
+     * Reads the precompiled template of a template resource.
+     *
+     * @param resourceName the name of the template resource
+     * @return the buffer containing the precompiled template or null if there is no precompiled template
+     * @throws IOException if precompiled template exists but can't be read
+     */
+    static ByteBuffer readPrecompiledTemplate(String resourceName) throws IOException {
+
+        URL url = ParseUtilities.class.getResource(getPrecompiledTemplateName(resourceName));
+        return url != null ? readPrecompiledTemplate(url) : null;
+
+    }
+
+    /**
+     * Reads a precompiled template.
+     * Files are memory mapped, all other resources are read into memory.
+     *
+     * @param url the url of the precompiled template
+     * @return the buffer containing the precompiled template
+     * @throws IOException if precompiled template can't be read
+     */
+    static ByteBuffer readPrecompiledTemplate(URL url) throws IOException {
+
+        if ("file".equals(url.getProtocol())) {
+
+            FileInputStream inputStream = new FileInputStream(toFile(url));
+            try {
+                FileChannel channel = inputStream.getChannel();
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } finally {
+                // mapping stays valid after channel is closed
+                inputStream.close();
+            }
+
+        }
+
+        InputStream inputStream = url.openStream();
+        try {
+            return ByteBuffer.wrap(readBytes(inputStream));
+        } finally {
+            inputStream.close();
+        }
+
+    }
+
+    /**
+     * Checks whether a precompiled template has been compiled from the current content of its template resource.
+     * Template files are checked by their length and modification time, entries of jar files by their size and checksum.
+     * The template resource is just read if its metadata isn't available or if a template file has been modified without changing its length.
+     *
+     * @param sourceFingerprint the fingerprint stored in the precompiled template
+     * @param templateUrl       the url of the template resource
+     * @return true if the template resource is unchanged, otherwise false
+     * @throws IOException if template resource can't be read
+     */
+    static boolean isUpToDate(SourceFingerprint sourceFingerprint, URL templateUrl) throws IOException {
+
+        if ("file".equals(templateUrl.getProtocol())) {
+
+            File templateFile = toFile(templateUrl);
+            if (templateFile.length() != sourceFingerprint.getLength()) {
+                return false;
+            } else if (templateFile.lastModified() == sourceFingerprint.getLastModified()) {
+                return true;
+            }
+
+        } else {
+
+            URLConnection connection = templateUrl.openConnection();
+            if (connection instanceof JarURLConnection) {
+
+                // size and checksum are stored in the directory of the jar file
+                JarEntry jarEntry = ((JarURLConnection) connection).getJarEntry();
+                if (jarEntry.getSize() >= 0 && jarEntry.getCrc() >= 0) {
+                    return jarEntry.getSize() == sourceFingerprint.getLength() && jarEntry.getCrc() == sourceFingerprint.getChecksum();
+                }
+
+            }
+
+        }
+
+        InputStream inputStream = templateUrl.openStream();
+        try {
+            return sourceFingerprint.matchesContent(readBytes(inputStream));
+        } finally {
+            inputStream.close();
+        }
+
+    }
+
+    private static File toFile(URL url) throws IOException {
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid file url : " + url, e);
+        }
+    }
+
+    private static byte[] readBytes(File file) throws IOException {
+
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            return readBytes(inputStream);
+        } finally {
+            inputStream.close();
+        }
+
+    }
+
+    private static byte[] readBytes(InputStream inputStream) throws IOException {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+}
@@ -1,32 +1,132 @@
 package io.toolisticon.annotationprocessortoolkit.templating;
 
 import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockBinder;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateProfiler;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateRenderCache;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
  * Base class for parsing templates.
+ * <p/>
+ * Compiled templates are kept in the default {@link TemplateCache}.
+ * Template resource files are loaded from their precompiled templates, if they have been precompiled by the {@link TemplatePrecompiler}.
+ * <p/>
+ * If a {@link TemplateProfiler} is set, templates are rendered by its instrumented templates instead.
+ * Otherwise, if a {@link TemplateRenderCache} is set, templates are rendered by its memoizing templates.
  */
 public class TemplateProcessor {
 
+    private static volatile TemplateProfiler profiler;
+    private static volatile TemplateRenderCache renderCache;
 
-    public static String processTemplate(String templateString, Map<String, Object> values) {
+    /**
+     * Enables or disables profiling of all processed templates.
+     *
+     * @param profiler the profiler to use or null to disable profiling
+     */
+    public static void setProfiler(TemplateProfiler profiler) {
+        TemplateProcessor.profiler = profiler;
+    }
 
-        TemplateBlockBinder binder = ParseUtilities.parseString(templateString);
-        return binder.getContent(values);
+    /**
+     * Gets the profiler used for all processed templates.
+     *
+     * @return the profiler or null if profiling is disabled
+     */
+    public static TemplateProfiler getProfiler() {
+        return profiler;
+    }
 
+    /**
+     * Enables or disables the memoization of rendered sub trees of all processed templates.
+     * Is ignored while a profiler is set.
+     *
+     * @param renderCache the render cache to use or null to disable memoization
+     */
+    public static void setRenderCache(TemplateRenderCache renderCache) {
+        TemplateProcessor.renderCache = renderCache;
     }
 
-    public static String processTemplateResourceFile(String templateFileName, Map<String, Object> values) {
+    /**
+     * Gets the render cache used for all processed templates.
+     *
+     * @return the render cache or null if memoization is disabled
+     */
+    public static TemplateRenderCache getRenderCache() {
+        return renderCache;
+    }
+
+    private static TemplateBlockBinder getCompiledTemplate(String templateString) {
+
+        TemplateProfiler currentProfiler = profiler;
+        if (currentProfiler != null) {
+            return currentProfiler.getProfiledTemplate(templateString);
+        }
 
-        String templateString = null;
+        TemplateRenderCache currentRenderCache = renderCache;
+        return currentRenderCache != null ? currentRenderCache.getCompiledTemplate(templateString) : TemplateCache.getDefaultInstance().getCompiledTemplate(templateString);
+
+    }
+
+    private static TemplateBlockBinder getCompiledTemplateForResource(String templateFileName) {
+
+        TemplateProfiler currentProfiler = profiler;
+        TemplateRenderCache currentRenderCache = renderCache;
         try {
-            templateString = ParseUtilities.readResourceToString(templateFileName);
-        } catch (Exception e) {
+            if (currentProfiler != null) {
+                return currentProfiler.getProfiledTemplateForResource(templateFileName);
+            }
+            return currentRenderCache != null ? currentRenderCache.getCompiledTemplateForResource(templateFileName) : TemplateCache.getDefaultInstance().getCompiledTemplateForResource(templateFileName);
+        } catch (IOException e) {
             throw new IllegalArgumentException("Cannot open template file '" + templateFileName + "'", e);
         }
 
-        return processTemplate(templateString, values);
+    }
+
+    public static String processTemplate(String templateString, Map<String, Object> values) {
+
+        TemplateBlockBinder binder = getCompiledTemplate(templateString);
+        return binder.getContent(values);
+
+    }
+
+    public static String processTemplateResourceFile(String templateFileName, Map<String, Object> values) {
+
+        TemplateBlockBinder binder = getCompiledTemplateForResource(templateFileName);
+
+        return binder.getContent(values);
+    }
+
+    /**
+     * Renders a template string directly to the passed output.
+     *
+     * @param templateString the template string
+     * @param values         the values to use
+     * @param output         the output to render to
+     * @throws IOException if output can't be written
+     */
+    public static void processTemplate(String templateString, Map<String, Object> values, Appendable output) throws IOException {
+
+        TemplateBlockBinder binder = getCompiledTemplate(templateString);
+        binder.render(output, values);
+
+    }
+
+    /**
+     * Renders a template resource file directly to the passed output.
+     *
+     * @param templateFileName the template resource file name
+     * @param values           the values to use
+     * @param output           the output to render to
+     * @throws IOException if output can't be written
+     */
+    public static void processTemplateResourceFile(String templateFileName, Map<String, Object> values, Appendable output) throws IOException {
+
+        TemplateBlockBinder binder = getCompiledTemplateForResource(templateFileName);
+
+        binder.render(output, values);
     }
 
 
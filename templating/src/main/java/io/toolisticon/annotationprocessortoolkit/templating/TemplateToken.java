@@ -0,0 +1,70 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockType;
+
+/**
+ * Token emitted by the {@link TemplateTokenizer}.
+ */
+public class TemplateToken {
+
+    /**
+     * Defines the kind of a token.
+     */
+    public enum Kind {
+        /**
+         * Plain text - must be taken from template string by using begin and end index.
+         */
+        PLAIN_TEXT,
+        /**
+         * Dynamic text like ${expression} - content is the expression.
+         */
+        DYNAMIC_TEXT,
+        /**
+         * Start tag of a control block like !{for ...} - content is the attribute string.
+         */
+        START_TAG,
+        /**
+         * End tag of a control block like !{/for}.
+         */
+        END_TAG,
+        /**
+         * A complete static block including start and end tag - content is the unprocessed text inbetween.
+         */
+        STATIC
+    }
+
+    private final Kind kind;
+    private final TemplateBlockType templateBlockType;
+    private final int beginIndex;
+    private final int endIndex;
+    private final String content;
+
+    public TemplateToken(Kind kind, TemplateBlockType templateBlockType, int beginIndex, int endIndex, String content) {
+        this.kind = kind;
+        this.templateBlockType = templateBlockType;
+        this.beginIndex = beginIndex;
+        this.endIndex = endIndex;
+        this.content = content;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public TemplateBlockType getTemplateBlockType() {
+        return templateBlockType;
+    }
+
+    public int getBeginIndex() {
+        return beginIndex;
+    }
+
+    public int getEndIndex() {
+        return endIndex;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+}
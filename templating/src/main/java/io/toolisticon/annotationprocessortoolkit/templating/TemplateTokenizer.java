@@ -0,0 +1,516 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.MissingClosingTagException;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single pass tokenizer for templates.
+ * <p/>
+ * Emits tokens for plain text, dynamic text (${...}), start and end tags of control blocks and static blocks by scanning
+ * the template once from left to right.
+ * Nesting of control blocks isn't checked by the tokenizer - this is done by the parser.
+ * But the parser must notify the tokenizer about opened and closed control blocks, because content of tags must not
+ * exceed the end tag of an enclosing control block.
+ * <p/>
+ * Templates can either be passed as a String or as a {@link Reader}.
+ * A reader is consumed incrementally into a window of chars. Chars before the index passed to {@link #release(int)} are dropped from the window,
+ * so the whole template doesn't need to be kept in memory.
+ * Token indices are always relative to the beginning of the template.
+ * <p/>
+ * This implementation is not threadsafe.
+ */
+public class TemplateTokenizer {
+
+    /**
+     * Thrown if the reader of the template can't be read - wraps the {@link IOException}.
+     */
+    static class ReadFailedException extends IllegalStateException {
+
+        private ReadFailedException(IOException e) {
+            super(e);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private char[] buffer;
+
+    // index of the first char of buffer relative to the beginning of the template
+    private int bufferOffset = 0;
+    private int bufferLength;
+    private int releasedIndex = 0;
+
+    private final int[] openControlBlocks = new int[TemplateBlockType.values().length];
+
+    private int position = 0;
+    private TemplateToken lookahead = null;
+
+    public TemplateTokenizer(String templateString) {
+
+        if (templateString == null) {
+            throw new IllegalArgumentException("templateString must not be null");
+        }
+
+        this.reader = null;
+        this.buffer = templateString.toCharArray();
+        this.bufferLength = buffer.length;
+    }
+
+    /**
+     * Creates a tokenizer that consumes the passed reader incrementally.
+     * The reader won't be closed.
+     *
+     * @param reader the reader to read the template from
+     */
+    public TemplateTokenizer(Reader reader) {
+
+        if (reader == null) {
+            throw new IllegalArgumentException("reader must not be null");
+        }
+
+        this.reader = reader;
+        this.buffer = new char[INITIAL_BUFFER_SIZE];
+        this.bufferLength = 0;
+    }
+
+    /**
+     * Tokenizes the whole template string.
+     *
+     * @param templateString the template string to tokenize
+     * @return a list containing all tokens
+     */
+    public static List<TemplateToken> tokenize(String templateString) {
+
+        List<TemplateToken> tokens = new ArrayList<TemplateToken>();
+
+        TemplateTokenizer tokenizer = new TemplateTokenizer(templateString);
+        TemplateToken token;
+        while ((token = tokenizer.nextToken()) != null) {
+            tokens.add(token);
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Notifies the tokenizer that a control block has been opened.
+     *
+     * @param templateBlockType the type of the opened control block
+     */
+    void openControlBlock(TemplateBlockType templateBlockType) {
+        openControlBlocks[templateBlockType.ordinal()]++;
+    }
+
+    /**
+     * Notifies the tokenizer that a control block has been closed.
+     *
+     * @param templateBlockType the type of the closed control block
+     */
+    void closeControlBlock(TemplateBlockType templateBlockType) {
+        openControlBlocks[templateBlockType.ordinal()]--;
+    }
+
+    /**
+     * Allows the tokenizer to drop all chars before passed index.
+     * Text before that index can't be requested via {@link #getText(int, int)} afterwards.
+     *
+     * @param index the index relative to the beginning of the template
+     */
+    void release(int index) {
+        releasedIndex = Math.max(releasedIndex, Math.min(index, position));
+    }
+
+    /**
+     * Gets text of the template.
+     *
+     * @param beginIndex the begin index, inclusive
+     * @param endIndex   the end index, exclusive
+     * @return the text
+     */
+    String getText(int beginIndex, int endIndex) {
+        return new String(buffer, beginIndex - bufferOffset, endIndex - beginIndex);
+    }
+
+    /**
+     * Counts the line breaks in the text of the template.
+     *
+     * @param beginIndex the begin index, inclusive
+     * @param endIndex   the end index, exclusive
+     * @return the number of '\n' chars
+     */
+    int countLineBreaks(int beginIndex, int endIndex) {
+
+        int lineBreaks = 0;
+        for (int index = beginIndex - bufferOffset; index < endIndex - bufferOffset; index++) {
+            if (buffer[index] == '\n') {
+                lineBreaks++;
+            }
+        }
+
+        return lineBreaks;
+    }
+
+    /**
+     * Gets the number of chars that have been tokenized.
+     *
+     * @return the number of chars
+     */
+    int getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the next token.
+     *
+     * @return the next token or null if the end of the template has been reached
+     * @throws MissingClosingTagException if a static block isn't closed
+     * @throws ReadFailedException        if reader of template can't be read
+     */
+    public TemplateToken nextToken() {
+
+        if (lookahead != null) {
+            TemplateToken token = lookahead;
+            lookahead = null;
+            return token;
+        }
+
+        if (!hasChar(position)) {
+            return null;
+        }
+
+        int textBeginIndex = position;
+        int index = position;
+        for (; hasChar(index + 1); index++) {
+
+            char currentChar = charAt(index);
+            if ((currentChar == '$' || currentChar == '!') && charAt(index + 1) == '{') {
+
+                TemplateToken tag = currentChar == '$' ? readDynamicText(index) : readControlTag(index);
+                if (tag != null) {
+
+                    position = tag.getEndIndex();
+
+                    // emit preceding plain text first
+                    if (index > textBeginIndex) {
+                        lookahead = tag;
+                        return new TemplateToken(TemplateToken.Kind.PLAIN_TEXT, TemplateBlockType.PLAIN_TEXT, textBeginIndex, index, null);
+                    }
+
+                    return tag;
+                }
+
+            }
+
+        }
+
+        // last char has been reached
+        position = index + 1;
+        return new TemplateToken(TemplateToken.Kind.PLAIN_TEXT, TemplateBlockType.PLAIN_TEXT, textBeginIndex, position, null);
+
+    }
+
+    /**
+     * Reads a dynamic text tag starting at passed index.
+     *
+     * @param beginIndex the index of the '$' char
+     * @return the token or null if there is no valid dynamic text tag
+     */
+    private TemplateToken readDynamicText(int beginIndex) {
+
+        int contentBeginIndex = skipWhitespaces(beginIndex + 2);
+        int closingBraceIndex = findClosingBrace(contentBeginIndex);
+
+        if (closingBraceIndex < 0) {
+            return null;
+        }
+
+        return new TemplateToken(
+                TemplateToken.Kind.DYNAMIC_TEXT,
+                TemplateBlockType.DYNAMIC_TEXT,
+                beginIndex,
+                closingBraceIndex + 1,
+                getText(contentBeginIndex, trimTrailingWhitespaces(contentBeginIndex, closingBraceIndex)));
+
+    }
+
+    /**
+     * Reads a control block tag starting at passed index.
+     *
+     * @param beginIndex the index of the '!' char
+     * @return the token or null if there is no valid control block tag
+     */
+    private TemplateToken readControlTag(int beginIndex) {
+
+        int index = beginIndex + 2;
+
+        // end tag
+        if (hasChar(index) && charAt(index) == '/') {
+
+            TemplateBlockType templateBlockType = readControlBlockCommand(index + 1);
+            if (templateBlockType == null) {
+                return null;
+            }
+
+            int closingBraceIndex = skipWhitespaces(index + 1 + templateBlockType.getControlBlockCommand().length());
+            if (!hasChar(closingBraceIndex) || charAt(closingBraceIndex) != '}') {
+                return null;
+            }
+
+            return new TemplateToken(TemplateToken.Kind.END_TAG, templateBlockType, beginIndex, closingBraceIndex + 1, null);
+
+        }
+
+        // start tag
+        TemplateBlockType templateBlockType = readControlBlockCommand(index);
+        if (templateBlockType == null) {
+            return null;
+        }
+        index += templateBlockType.getControlBlockCommand().length();
+
+        if (templateBlockType.hasAttributes()) {
+
+            // at least one whitespace is needed between command and attributes
+            if (!hasChar(index) || !isWhitespace(charAt(index))) {
+                return null;
+            }
+
+            int contentBeginIndex = skipWhitespaces(index);
+            int closingBraceIndex = findClosingBrace(contentBeginIndex);
+            if (closingBraceIndex < 0) {
+                return null;
+            }
+
+            return new TemplateToken(
+                    TemplateToken.Kind.START_TAG,
+                    templateBlockType,
+                    beginIndex,
+                    closingBraceIndex + 1,
+                    getText(contentBeginIndex, trimTrailingWhitespaces(contentBeginIndex, closingBraceIndex)));
+
+        }
+
+        int closingBraceIndex = skipWhitespaces(index);
+        if (!hasChar(closingBraceIndex) || charAt(closingBraceIndex) != '}') {
+            return null;
+        }
+
+        if (templateBlockType == TemplateBlockType.STATIC) {
+            return readStaticBlock(beginIndex, closingBraceIndex + 1);
+        }
+
+        return new TemplateToken(TemplateToken.Kind.START_TAG, templateBlockType, beginIndex, closingBraceIndex + 1, null);
+
+    }
+
+    /**
+     * Reads content of a static block up to the next static end tag.
+     *
+     * @param beginIndex        the begin index of the static start tag
+     * @param contentBeginIndex the index after the static start tag
+     * @return the static block token
+     * @throws MissingClosingTagException if no end tag can be found
+     */
+    private TemplateToken readStaticBlock(int beginIndex, int contentBeginIndex) {
+
+        final String endTagPrefix = "!{/" + TemplateBlockType.STATIC.getControlBlockCommand();
+
+        for (int endTagIndex = contentBeginIndex; hasChar(endTagIndex); endTagIndex++) {
+
+            if (!startsWith(endTagPrefix, endTagIndex)) {
+                continue;
+            }
+
+            int closingBraceIndex = skipWhitespaces(endTagIndex + endTagPrefix.length());
+            if (hasChar(closingBraceIndex) && charAt(closingBraceIndex) == '}') {
+                return new TemplateToken(
+                        TemplateToken.Kind.STATIC,
+                        TemplateBlockType.STATIC,
+                        beginIndex,
+                        closingBraceIndex + 1,
+                        getText(contentBeginIndex, endTagIndex));
+            }
+
+        }
+
+        throw new MissingClosingTagException("Cannot find closing tag for " + TemplateBlockType.STATIC.name() + " control block");
+
+    }
+
+    /**
+     * Gets the control block type whose command starts at passed index.
+     *
+     * @param index the index to check
+     * @return the control block type or null if no command starts at index
+     */
+    private TemplateBlockType readControlBlockCommand(int index) {
+
+        for (TemplateBlockType templateBlockType : TemplateBlockType.values()) {
+            if (templateBlockType.isControlBlock() && startsWith(templateBlockType.getControlBlockCommand(), index)) {
+                return templateBlockType;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Searches the closing brace of a tag.
+     * Content of a tag mustn't contain line breaks, but line breaks are allowed in trailing whitespaces.
+     * Content of a tag mustn't contain end tags of enclosing control blocks.
+     *
+     * @param contentBeginIndex the index to start the search at
+     * @return the index of the closing brace, or -1 if no valid closing brace can be found
+     */
+    private int findClosingBrace(int contentBeginIndex) {
+
+        boolean lineBreakDetected = false;
+
+        for (int index = contentBeginIndex; hasChar(index); index++) {
+
+            char currentChar = charAt(index);
+
+            if (currentChar == '}') {
+                return index;
+            } else if (currentChar == '\n' || currentChar == '\r') {
+                lineBreakDetected = true;
+            } else if (currentChar == '\u0085' || currentChar == '\u2028' || currentChar == '\u2029') {
+                return -1;
+            } else if (!isWhitespace(currentChar) && lineBreakDetected) {
+                return -1;
+            } else if (currentChar == '!' && isEndTagOfOpenControlBlock(index)) {
+                return -1;
+            }
+
+        }
+
+        return -1;
+    }
+
+    private boolean isEndTagOfOpenControlBlock(int index) {
+
+        if (!startsWith("!{/", index)) {
+            return false;
+        }
+
+        TemplateBlockType templateBlockType = readControlBlockCommand(index + 3);
+        if (templateBlockType == null || openControlBlocks[templateBlockType.ordinal()] == 0) {
+            return false;
+        }
+
+        int closingBraceIndex = skipWhitespaces(index + 3 + templateBlockType.getControlBlockCommand().length());
+        return hasChar(closingBraceIndex) && charAt(closingBraceIndex) == '}';
+
+    }
+
+    private int skipWhitespaces(int index) {
+        while (hasChar(index) && isWhitespace(charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private int trimTrailingWhitespaces(int beginIndex, int endIndex) {
+        while (endIndex > beginIndex && isWhitespace(charAt(endIndex - 1))) {
+            endIndex--;
+        }
+        return endIndex;
+    }
+
+    private boolean startsWith(String prefix, int index) {
+
+        for (int i = 0; i < prefix.length(); i++) {
+            if (!hasChar(index + i) || charAt(index + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether the template has a char at passed index.
+     * Reads more chars from the reader if necessary.
+     *
+     * @param index the index relative to the beginning of the template
+     * @return true if template has a char at index, otherwise false
+     */
+    private boolean hasChar(int index) {
+
+        while (index >= bufferOffset + bufferLength) {
+            if (!fill()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the char at passed index - {@link #hasChar(int)} must have been checked before.
+     *
+     * @param index the index relative to the beginning of the template
+     * @return the char
+     */
+    private char charAt(int index) {
+        return buffer[index - bufferOffset];
+    }
+
+    /**
+     * Reads the next chars from the reader into the buffer.
+     * Released chars are dropped, if the buffer is full.
+     *
+     * @return true if chars have been read, false if the end of the template has been reached
+     */
+    private boolean fill() {
+
+        if (reader == null) {
+            return false;
+        }
+
+        if (bufferLength == buffer.length) {
+
+            int releasedChars = releasedIndex - bufferOffset;
+            if (releasedChars >= buffer.length / 2) {
+                // drop released chars
+                System.arraycopy(buffer, releasedChars, buffer, 0, bufferLength - releasedChars);
+                bufferOffset += releasedChars;
+                bufferLength -= releasedChars;
+            } else {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+
+        }
+
+        try {
+
+            int read = reader.read(buffer, bufferLength, buffer.length - bufferLength);
+            if (read < 0) {
+                return false;
+            }
+
+            bufferLength += read;
+            return true;
+
+        } catch (IOException e) {
+            throw new ReadFailedException(e);
+        }
+
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+}
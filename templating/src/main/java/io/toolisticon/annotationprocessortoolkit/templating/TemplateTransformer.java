@@ -0,0 +1,34 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlock;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockBinder;
+
+import java.util.Map;
+
+/**
+ * Transforms templates compiled by a {@link TemplateCache} before they are cached.
+ * <p/>
+ * Allows to keep rewritten templates - like memoizing or instrumented templates - in a bounded cache, while they are loaded like all other templates.
+ */
+public interface TemplateTransformer {
+
+    /**
+     * Checks whether templates must be parsed from their template text, so that the line numbers of all template blocks are known.
+     * These templates aren't optimized and precompiled templates aren't used for them.
+     *
+     * @return true if line numbers are required, otherwise false
+     */
+    boolean requiresLineNumbers();
+
+    /**
+     * Transforms a compiled template.
+     *
+     * @param template         the name of the template resource or the template string
+     * @param resource         true if the template is a template resource, false if it is a template string
+     * @param compiledTemplate the compiled template, it isn't shared and can be modified
+     * @param lineNumbers      the line numbers of the template blocks or null if they aren't required
+     * @return the transformed template
+     */
+    TemplateBlockBinder transform(String template, boolean resource, TemplateBlockBinder compiledTemplate, Map<TemplateBlock, Integer> lineNumbers);
+
+}
@@ -0,0 +1,121 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A scope frame that binds a single variable and falls back to its parent variables on lookup.
+ * <p/>
+ * Used for loop variables, so that the outer variables don't have to be copied for each iteration.
+ * Variables put to a scope are stored in the scope itself (copy-on-write), so the parent variables are never modified.
+ */
+public class VariableScope extends AbstractMap<String, Object> {
+
+    /**
+     * Returned by {@link #lookup(String)} if variable isn't bound.
+     */
+    static final Object NOT_FOUND = new Object();
+
+    private final Map<String, Object> parent;
+    private final String name;
+    private final Object value;
+
+    private Map<String, Object> writtenVariables;
+
+    public VariableScope(Map<String, Object> parent, String name, Object value) {
+
+        if (name == null) {
+            throw new IllegalArgumentException("name must not be null");
+        }
+
+        this.parent = parent != null ? parent : Collections.<String, Object>emptyMap();
+        this.name = name;
+        this.value = value;
+    }
+
+    /**
+     * Looks up a variable in the chain of scopes.
+     * Walks the chain once, instead of calling containsKey and get.
+     *
+     * @param key the name of the variable
+     * @return the value of the variable or {@link #NOT_FOUND} if variable isn't bound
+     */
+    Object lookup(String key) {
+
+        Map<String, Object> current = this;
+        while (current instanceof VariableScope) {
+
+            VariableScope scope = (VariableScope) current;
+            if (scope.writtenVariables != null && scope.writtenVariables.containsKey(key)) {
+                return scope.writtenVariables.get(key);
+            }
+            if (scope.name.equals(key)) {
+                return scope.value;
+            }
+
+            current = scope.parent;
+        }
+
+        if (current.containsKey(key)) {
+            return current.get(key);
+        }
+
+        return NOT_FOUND;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        Object result = lookup((String) key);
+        return result != NOT_FOUND ? result : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && lookup((String) key) != NOT_FOUND;
+    }
+
+    @Override
+    public Object put(String key, Object newValue) {
+
+        Object previousValue = get(key);
+
+        if (writtenVariables == null) {
+            writtenVariables = new HashMap<String, Object>();
+        }
+        writtenVariables.put(key, newValue);
+
+        return previousValue;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+
+        Map<String, Object> variables = new LinkedHashMap<String, Object>(parent);
+        variables.put(name, value);
+        if (writtenVariables != null) {
+            variables.putAll(writtenVariables);
+        }
+
+        return Collections.unmodifiableMap(variables).entrySet();
+    }
+
+    public Map<String, Object> getParent() {
+        return parent;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+}
@@ -0,0 +1,17 @@
+package io.toolisticon.annotationprocessortoolkit.templating.exceptions;
+
+/**
+ * Exception that is thrown if template resources include each other in a cycle.
+ * <p/>
+ */
+public class CyclicIncludeException extends RuntimeException {
+
+    public CyclicIncludeException(String message) {
+        super(message);
+    }
+
+    public CyclicIncludeException(String message, Throwable e) {
+        super(message, e);
+    }
+
+}
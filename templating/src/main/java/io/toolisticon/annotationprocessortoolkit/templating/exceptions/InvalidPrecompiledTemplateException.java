@@ -0,0 +1,17 @@
+package io.toolisticon.annotationprocessortoolkit.templating.exceptions;
+
+/**
+ * Exception that is thrown if a precompiled template can't be read.
+ * <p/>
+ */
+public class InvalidPrecompiledTemplateException extends RuntimeException {
+
+    public InvalidPrecompiledTemplateException(String message) {
+        super(message);
+    }
+
+    public InvalidPrecompiledTemplateException(String message, Throwable e) {
+        super(message, e);
+    }
+
+}
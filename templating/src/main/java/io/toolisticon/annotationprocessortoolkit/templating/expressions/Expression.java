@@ -1,103 +1,192 @@
 package io.toolisticon.annotationprocessortoolkit.templating.expressions;
 
+import io.toolisticon.annotationprocessortoolkit.templating.ModelPathResolver;
+import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.DynamicOperand;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.ExpressionOperand;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.Operand;
-import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.OperandType;
+import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.UnaryOperationWrapperOperand;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operations.OperationType;
-import io.toolisticon.annotationprocessortoolkit.templating.expressions.operations.OperationTypeMode;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Map;
 
 /**
- * This implementation is not threadsafe.
+ * An immutable parsed expression.
+ * <p/>
+ * Expressions are parsed once and can be evaluated multiple times against different models.
+ * Evaluation doesn't change the state of the expression, so it can be shared between threads.
  */
 public class Expression {
 
-    private Operand[] operands;
-    private OperationType[] operationTypes;
+    private final Operand[] operands;
+    private final OperationType[] operationTypes;
+
+    /**
+     * Evaluation order in reverse polish notation.
+     * Values greater or equal than zero refer to operands, negative values refer to operation types (-1 refers to index 0).
+     */
+    private final int[] evaluationOrder;
+
+    /**
+     * Whether the expression just consists of literal operands.
+     */
+    private final boolean constant;
 
     public Expression(Operand[] operands, OperationType[] operationTypes) {
+
+        if (operands == null || operationTypes == null || operands.length != operationTypes.length + 1) {
+            throw new IllegalArgumentException("Expression must have exactly one operand more than operations");
+        }
+
         this.operands = operands;
         this.operationTypes = operationTypes;
+        this.evaluationOrder = createEvaluationOrder(operationTypes);
+        this.constant = areConstantOperands(operands);
     }
 
-    public Operand[] getOperands() {
-        return operands;
-    }
+    private static boolean areConstantOperands(Operand[] operands) {
 
-    public OperationType[] getOperationTypes() {
-        return operationTypes;
+        for (Operand operand : operands) {
+            if (!isConstantOperand(operand)) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
-    public Operand evaluateExpression() {
+    private static boolean isConstantOperand(Operand operand) {
 
-        // in case of one operand return it
-        if (operands.length == 1 && operationTypes.length == 0) {
-            return operands[0];
+        if (operand instanceof DynamicOperand) {
+            return false;
+        } else if (operand instanceof ExpressionOperand) {
+            return ((ExpressionOperand) operand).getExpression().isConstant();
+        } else if (operand instanceof UnaryOperationWrapperOperand) {
+            return isConstantOperand(((UnaryOperationWrapperOperand) operand).getOperand());
         }
 
-        // first resolve sub expressions
-        for (int i = 0; i < operands.length; i++) {
+        return true;
+    }
 
-            // evaluate sub expressions and replace operand by result
-            if (operands[i].getOperandType().equals(OperandType.EXPRESSION)) {
-                operands[i] = ((ExpressionOperand) operands[i]).getExpression().evaluateExpression();
-            }
+    /**
+     * Creates the evaluation order by using the shunting yard algorithm.
+     * Operations with the same execution order are evaluated from left to right.
+     *
+     * @param operationTypes the binary operation types
+     * @return the evaluation order in reverse polish notation
+     */
+    private static int[] createEvaluationOrder(OperationType[] operationTypes) {
 
-        }
+        int[] result = new int[2 * operationTypes.length + 1];
+        int resultSize = 0;
 
-        // goto binary expressions by execution order (execution order is from left to right)
-        for (OperationType binaryOperationType : OperationType.getOperationsByOperationTypeMode(OperationTypeMode.BINARY)) {
+        int[] operationStack = new int[operationTypes.length];
+        int operationStackSize = 0;
 
-            boolean foundOperation = true;
-            while (foundOperation) {
+        result[resultSize++] = 0;
 
-                foundOperation = false;
+        for (int operationIndex = 0; operationIndex < operationTypes.length; operationIndex++) {
 
-                for (int operationIndex = 0; operationIndex < operationTypes.length; operationIndex++) {
+            int executionOrder = operationTypes[operationIndex].getOperationExecutionOrder();
 
-                    if (binaryOperationType.equals(operationTypes[operationIndex])) {
-                        // apply operation
-                        applyOperation(operationIndex);
-                        foundOperation = true;
-                        break;
-                    }
-
-                }
+            // lower execution order binds stronger
+            while (operationStackSize > 0 && operationTypes[operationStack[operationStackSize - 1]].getOperationExecutionOrder() <= executionOrder) {
+                result[resultSize++] = -(operationStack[--operationStackSize] + 1);
             }
+
+            operationStack[operationStackSize++] = operationIndex;
+            result[resultSize++] = operationIndex + 1;
+
         }
 
+        while (operationStackSize > 0) {
+            result[resultSize++] = -(operationStack[--operationStackSize] + 1);
+        }
 
-        return operands[0];
+        return result;
     }
 
-    private void applyOperation(int operationIndex) {
+    public Operand[] getOperands() {
+        return operands;
+    }
 
-        if (operationIndex >= 0 && operationIndex < operationTypes.length) {
+    public OperationType[] getOperationTypes() {
+        return operationTypes;
+    }
 
-            // resolve one operand
-            List<Operand> newOperands = new ArrayList<>(Arrays.asList(operands));
-            List<OperationType> newOperationTypes = new ArrayList<>(Arrays.asList(operationTypes));
+    /**
+     * Checks whether the expression just consists of literals and doesn't depend on the model.
+     * Constant expressions always evaluate to the same result.
+     *
+     * @return true if expression is constant, otherwise false
+     */
+    public boolean isConstant() {
+        return constant;
+    }
 
-            // getOperands and operationType
-            Operand operand1 = newOperands.get(operationIndex);
-            Operand operand2 = newOperands.get(operationIndex + 1);
+    /**
+     * Evaluates the expression against the passed model.
+     * The model is passed explicitly to all dynamic operands and sub expressions, so evaluation is reentrant and threadsafe.
+     *
+     * @param model the model to resolve dynamic operands with
+     * @return the result operand
+     */
+    public Operand evaluateExpression(Map<String, Object> model) {
 
-            OperationType operationtype = newOperationTypes.get(operationIndex);
+        // in case of one operand return it
+        if (operationTypes.length == 0) {
+            return resolveOperand(operands[0], model);
+        }
+
+        Operand[] stack = new Operand[operands.length];
+        int stackSize = 0;
 
+        for (int step : evaluationOrder) {
 
-            // do operation and update expressions
-            newOperands.remove(operationIndex + 1);
-            newOperands.set(operationIndex, operationtype.doOperation(operand1, operand2));
-            newOperationTypes.remove(operationIndex);
+            if (step >= 0) {
+                stack[stackSize++] = resolveOperand(operands[step], model);
+            } else {
+                Operand operand2 = stack[--stackSize];
+                Operand operand1 = stack[stackSize - 1];
+                stack[stackSize - 1] = operationTypes[-step - 1].doOperation(operand1, operand2);
+            }
+
+        }
 
-            operands = newOperands.toArray(new Operand[newOperands.size()]);
-            operationTypes = newOperationTypes.toArray(new OperationType[newOperationTypes.size()]);
+        return stack[0];
+    }
+
+    /**
+     * Evaluates the expression against the model bound to the current thread.
+     * Runs in linear time.
+     *
+     * @return the result operand
+     * @deprecated relies on {@link ModelPathResolver#modelMapThreadLocal}. Use {@link #evaluateExpression(Map)} instead.
+     */
+    @Deprecated
+    public Operand evaluateExpression() {
+        return evaluateExpression(ModelPathResolver.getThreadBoundModel());
+    }
 
+    /**
+     * Resolves an operand to its value for the current evaluation.
+     * Dynamic operands are resolved against the model, sub expressions and unary operations are evaluated.
+     *
+     * @param operand the operand to resolve
+     * @param model   the model to resolve dynamic operands with
+     * @return an operand holding the resolved value
+     */
+    static Operand resolveOperand(Operand operand, Map<String, Object> model) {
+
+        if (operand instanceof ExpressionOperand) {
+            return ((ExpressionOperand) operand).getExpression().evaluateExpression(model);
+        } else if (operand instanceof DynamicOperand) {
+            return ((DynamicOperand) operand).resolve(model);
+        } else if (operand instanceof UnaryOperationWrapperOperand) {
+            UnaryOperationWrapperOperand unaryOperand = (UnaryOperationWrapperOperand) operand;
+            return unaryOperand.getUnaryOperationType().doOperation(resolveOperand(unaryOperand.getOperand(), model));
         }
 
+        return operand;
     }
 
 }
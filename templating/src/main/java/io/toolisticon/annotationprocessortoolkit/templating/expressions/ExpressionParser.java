@@ -1,6 +1,5 @@
 package io.toolisticon.annotationprocessortoolkit.templating.expressions;
 
-import io.toolisticon.annotationprocessortoolkit.templating.ModelPathResolver;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.Operand;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.OperandFactory;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.OperandType;
@@ -20,6 +19,11 @@ import java.util.regex.Pattern;
  */
 public class ExpressionParser {
 
+    private static final Pattern OPENING_BRACE_PATTERN = Pattern.compile("[ ]*[(][ ]*");
+    private static final Pattern CLOSING_BRACE_PATTERN = Pattern.compile("[ ]*[)][ ]*");
+
+    private static final OperandType[] PATTERN_BASED_OPERAND_TYPES = OperandType.getPatternBasedOperandTypes();
+
     private static class ExpressionParseResult {
 
         Expression expression;
@@ -39,14 +43,54 @@ public class ExpressionParser {
         }
     }
 
+    /**
+     * Expression that is bound to a model, which is used by {@link #evaluateExpression()}.
+     */
+    private static class ModelBoundExpression extends Expression {
+
+        private final Map<String, Object> model;
+
+        private ModelBoundExpression(Expression expression, Map<String, Object> model) {
+            super(expression.getOperands(), expression.getOperationTypes());
+            this.model = model;
+        }
+
+        @Deprecated
+        @Override
+        public Operand evaluateExpression() {
+            return evaluateExpression(model);
+        }
+
+    }
+
+    /**
+     * Parses an expression string and binds the passed model to the returned expression.
+     * The model bound to the current thread isn't changed.
+     *
+     * @param expressionString the expression string to parse
+     * @param model            the model to be used by evaluateExpression()
+     * @return the parsed expression
+     * @deprecated couples the expression to a single model.
+     * Use {@link #parseExpression(String)} and {@link Expression#evaluateExpression(Map)} instead.
+     * Just evaluateExpression() uses the passed model - the model isn't bound to the current thread anymore, so calling value() on the
+     * operands of the returned expression resolves them against {@link io.toolisticon.annotationprocessortoolkit.templating.ModelPathResolver#modelMapThreadLocal},
+     * which is an empty map unless it's set by the caller.
+     */
+    @Deprecated
     public static Expression parseExpression(String expressionString, Map<String, Object> model) {
 
-        ModelPathResolver.modelMapThreadLocal.set(model);
-        return parseExpression(expressionString);
+        return new ModelBoundExpression(parseExpression(expressionString), model);
 
     }
 
-    protected static Expression parseExpression(String expressionString) {
+    /**
+     * Parses an expression string.
+     * The returned expression is immutable and can be evaluated multiple times by using {@link Expression#evaluateExpression(Map)}.
+     *
+     * @param expressionString the expression string to parse
+     * @return the parsed expression
+     */
+    public static Expression parseExpression(String expressionString) {
 
         return parseExpressionRecursively(expressionString, false).getExpression();
 
@@ -54,9 +98,6 @@ public class ExpressionParser {
 
     public static ExpressionParseResult parseExpressionRecursively(String expressionString, boolean usedBrackets) {
 
-        final Pattern openingBracePattern = Pattern.compile("[ ]*[(][ ]*");
-        final Pattern closingBracePattern = Pattern.compile("[ ]*[)][ ]*");
-
         List<Object> operands = new ArrayList<Object>();
         List<OperationType> operations = new ArrayList<OperationType>();
 
@@ -81,31 +122,18 @@ public class ExpressionParser {
             // determine unary operations to be applied on operand
             List<OperationType> unaryOperationTypesToBeApplied = new ArrayList<OperationType>();
 
-            boolean found = true;
-            while (found) {
-                // next iteration
-                found = false;
-
-                for (OperationType operationType : OperationType.getOperationsByOperationTypeMode(OperationTypeMode.UNARY)) {
-
-                    Matcher unaryOperationMatcher = operationType.getOperationPattern().matcher(expressionString);
-                    if (unaryOperationMatcher.find(index) && unaryOperationMatcher.start() == index) {
-
-                        index = unaryOperationMatcher.end();
-
-                        unaryOperationTypesToBeApplied.add(operationType);
-                        found = true;
-                        break;
+            OperationTypeSearchResult unaryOperationTypeSearchResult;
+            while ((unaryOperationTypeSearchResult = OperationType.getOperationTypeAt(OperationTypeMode.UNARY, expressionString, index)) != null) {
 
-                    }
+                index = unaryOperationTypeSearchResult.getEndIndex();
+                unaryOperationTypesToBeApplied.add(unaryOperationTypeSearchResult.getValue());
 
-                }
             }
 
 
             // check if brace is opened => do subexpression
-            Matcher openingBraceMatcher = openingBracePattern.matcher(expressionString);
-            if (openingBraceMatcher.find(index) && openingBraceMatcher.start() == index) {
+            Matcher openingBraceMatcher = matchAt(OPENING_BRACE_PATTERN, expressionString, index);
+            if (openingBraceMatcher != null) {
 
                 index = openingBraceMatcher.end();
 
@@ -138,8 +166,8 @@ public class ExpressionParser {
             // get Closing brace
             if (usedBrackets) {
 
-                Matcher closingBracketMatcher = closingBracePattern.matcher(expressionString);
-                if (closingBracketMatcher.find(index) && closingBracketMatcher.start() == index) {
+                Matcher closingBracketMatcher = matchAt(CLOSING_BRACE_PATTERN, expressionString, index);
+                if (closingBracketMatcher != null) {
 
                     return new ExpressionParseResult(new Expression(operands.toArray(new Operand[operands.size()]), (OperationType[]) operations.toArray(new OperationType[operations.size()])), expressionString.substring(closingBracketMatcher.end()));
 
@@ -160,21 +188,19 @@ public class ExpressionParser {
 
 
     /**
-     * Gets the next operation type.
+     * Gets the next binary operation type.
+     * Runs in constant time via the operator lookup table of {@link OperationType}.
      *
      * @param expressionString the expressions string
      * @param index            the current processing index
-     * @return
+     * @return the search result
+     * @throws IllegalArgumentException if there is no binary operation at the index
      */
     public static OperationTypeSearchResult getOperationType(String expressionString, int index) {
 
-        for (OperationType operationType : OperationType.getOperationsByOperationTypeMode(OperationTypeMode.BINARY)) {
-
-            Matcher matcher = operationType.getOperationPattern().matcher(expressionString);
-            if (matcher.find(index) && matcher.start() == index) {
-                return new OperationTypeSearchResult(operationType, matcher.start(), matcher.end());
-            }
-
+        OperationTypeSearchResult result = OperationType.getOperationTypeAt(OperationTypeMode.BINARY, expressionString, index);
+        if (result != null) {
+            return result;
         }
 
         throw new IllegalArgumentException("Can't determine operation type for string : " + expressionString.substring(index));
@@ -182,10 +208,10 @@ public class ExpressionParser {
 
     public static OperandTypeSearchResult getOperandType(String expressionString, int index) {
 
-        for (OperandType operandType : OperandType.getPatternBasedOperandTypes()) {
+        for (OperandType operandType : PATTERN_BASED_OPERAND_TYPES) {
 
-            Matcher matcher = operandType.getOperandPattern().matcher(expressionString);
-            if (matcher.find(index) && matcher.start() == index) {
+            Matcher matcher = matchAt(operandType.getOperandPattern(), expressionString, index);
+            if (matcher != null) {
                 return new OperandTypeSearchResult(operandType, matcher.start(), matcher.end());
             }
 
@@ -194,4 +220,23 @@ public class ExpressionParser {
         throw new IllegalArgumentException("Can't determine operands type for string : " + expressionString.substring(index));
     }
 
+    /**
+     * Checks if pattern matches at passed index.
+     * Other than Matcher.find(int) this doesn't search the rest of the string if there is no match at index.
+     *
+     * @param pattern          the pattern to use
+     * @param expressionString the expressions string
+     * @param index            the current processing index
+     * @return the matcher if pattern matches at index, otherwise null
+     */
+    private static Matcher matchAt(Pattern pattern, String expressionString, int index) {
+
+        Matcher matcher = pattern.matcher(expressionString);
+        matcher.region(index, expressionString.length());
+        matcher.useTransparentBounds(true);
+        matcher.useAnchoringBounds(false);
+
+        return matcher.lookingAt() ? matcher : null;
+    }
+
 }
@@ -2,12 +2,16 @@ package io.toolisticon.annotationprocessortoolkit.templating.expressions.operand
 
 /**
  * Boolean based operand.
- * Uses Boolean.valueOf to determine value of passed expression string.
+ * Uses Boolean.valueOf to determine value of passed expression string once at creation time.
  */
 public class BooleanOperand extends ParsedOperand<Boolean> {
 
+    private final Boolean value;
+
     public BooleanOperand(String expressionString) {
         super(expressionString);
+
+        this.value = Boolean.valueOf(getExpressionString());
     }
 
 
@@ -18,7 +22,7 @@ public class BooleanOperand extends ParsedOperand<Boolean> {
 
     @Override
     public Boolean value() {
-        return Boolean.valueOf(getExpressionString());
+        return value;
     }
 
     @Override
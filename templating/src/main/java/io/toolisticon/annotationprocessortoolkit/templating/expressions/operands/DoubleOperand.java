@@ -3,13 +3,17 @@ package io.toolisticon.annotationprocessortoolkit.templating.expressions.operand
 
 /**
  * Floating point based operand.
- *
- * Uses Double.valueOf to get value from expression.
+ * <p/>
+ * Uses Double.parseDouble to get value from expression once at creation time.
  */
-public class DoubleOperand extends ParsedOperand<Double> {
+public class DoubleOperand extends ParsedOperand<Double> implements NumericOperand {
 
-    public DoubleOperand( String expressionString) {
-        super( expressionString);
+    private final double value;
+
+    public DoubleOperand(String expressionString) {
+        super(expressionString);
+
+        this.value = Double.parseDouble(getExpressionString());
 
     }
 
@@ -20,11 +24,21 @@ public class DoubleOperand extends ParsedOperand<Double> {
 
     @Override
     public Double value() {
-        return Double.valueOf(getExpressionString());
+        return value;
+    }
+
+    @Override
+    public long longValue() {
+        return (long) value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
     }
 
     @Override
     public OperandType getOperandType() {
         return OperandType.DOUBLE;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package io.toolisticon.annotationprocessortoolkit.templating.expressions.operands;
+
+/**
+ * Used to hold a floating point operation result without boxing it.
+ */
+public class DoubleOperationResultOperand extends Operand<Double> implements NumericOperand {
+
+    private final double value;
+
+    public DoubleOperationResultOperand(double value) {
+        super();
+
+        this.value = value;
+
+    }
+
+    @Override
+    public Class<Double> getOperandsJavaType() {
+        return Double.class;
+    }
+
+    @Override
+    public Double value() {
+        return value;
+    }
+
+    @Override
+    public long longValue() {
+        return (long) value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public OperandType getOperandType() {
+        return OperandType.OPERATION_RESULT;
+    }
+}
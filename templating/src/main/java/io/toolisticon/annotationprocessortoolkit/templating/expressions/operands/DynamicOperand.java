@@ -1,40 +1,90 @@
 package io.toolisticon.annotationprocessortoolkit.templating.expressions.operands;
 
+import io.toolisticon.annotationprocessortoolkit.templating.ModelPath;
 import io.toolisticon.annotationprocessortoolkit.templating.ModelPathResolver;
 
+import java.util.Map;
+
 
 /**
  * Dynamic operand queried from models.
  */
 public class DynamicOperand extends ParsedOperand<Object> {
 
-    private Object value;
+    private final ModelPath modelPath;
 
     public DynamicOperand(String expressionString) {
         super(expressionString);
 
+        this.modelPath = new ModelPath(getExpressionString());
+
+    }
+
+    public ModelPath getModelPath() {
+        return modelPath;
     }
 
+    /**
+     * Gets the type of the value of the model bound to the current thread.
+     * Expressions don't use this method, they resolve dynamic operands via {@link #resolve(Map)}.
+     *
+     * @return the type
+     */
     @Override
+    @SuppressWarnings("deprecation")
     public Class<Object> getOperandsJavaType() {
 
-        ModelPathResolver.ResolvedModelPathResult result = ModelPathResolver.resolveModelPath(ModelPathResolver.modelMapThreadLocal.get(), getExpressionString());
+        ModelPathResolver.ResolvedModelPathResult result = modelPath.resolve(ModelPathResolver.getThreadBoundModel());
 
         // result cannot be null
         return result.getType();
 
     }
 
+    /**
+     * Gets the value of the model bound to the current thread.
+     * Expressions don't use this method, they resolve dynamic operands via {@link #resolve(Map)}.
+     *
+     * @return the value
+     */
     @Override
+    @SuppressWarnings("deprecation")
     public Object value() {
 
-        ModelPathResolver.ResolvedModelPathResult result = ModelPathResolver.resolveModelPath(ModelPathResolver.modelMapThreadLocal.get(), getExpressionString());
+        ModelPathResolver.ResolvedModelPathResult result = modelPath.resolve(ModelPathResolver.getThreadBoundModel());
 
         // result cannot be null
         return result.getValue();
 
     }
 
+    /**
+     * Resolves the model path once and returns an operand holding the current type and value.
+     * Expressions use this method to resolve type and value in a single pass for each evaluation.
+     *
+     * @param model the model to resolve the model path on
+     * @return the resolved operand
+     */
+    public OperationResultOperand resolve(Map<String, Object> model) {
+
+        ModelPathResolver.ResolvedModelPathResult result = modelPath.resolve(model);
+
+        // result cannot be null
+        return OperandFactory.createOperationResult(result.getType(), result.getValue());
+
+    }
+
+    /**
+     * Resolves the model path on the model bound to the current thread.
+     *
+     * @return the resolved operand
+     * @deprecated relies on {@link ModelPathResolver#modelMapThreadLocal}. Use {@link #resolve(Map)} instead.
+     */
+    @Deprecated
+    public OperationResultOperand resolve() {
+        return resolve(ModelPathResolver.getThreadBoundModel());
+    }
+
     @Override
     public OperandType getOperandType() {
         return OperandType.DYNAMIC_VALUE;
@@ -1,5 +1,6 @@
 package io.toolisticon.annotationprocessortoolkit.templating.expressions.operands;
 
+import io.toolisticon.annotationprocessortoolkit.templating.ModelPathResolver;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.Expression;
 
 /**
@@ -9,8 +10,6 @@ public class ExpressionOperand extends ParsedOperand<Object> {
 
     private final Expression expression;
 
-    private Operand calculatedExpressionOperand;
-
     public ExpressionOperand( String expressionString, Expression expression) {
         super( expressionString);
 
@@ -36,11 +35,10 @@ public class ExpressionOperand extends ParsedOperand<Object> {
         return OperandType.EXPRESSION;
     }
 
+    @SuppressWarnings("deprecation")
     private Operand calculateExpression() {
-        if (this.calculatedExpressionOperand == null) {
-            this.calculatedExpressionOperand = expression.evaluateExpression();
-        }
-        return calculatedExpressionOperand;
+        // result isn't cached, since it depends on the model - expressions resolve sub expressions with an explicit model instead
+        return expression.evaluateExpression(ModelPathResolver.getThreadBoundModel());
     }
 
 }
@@ -17,6 +17,8 @@ public enum InternalOperandTypeForCalculations {
     STRING(String.class),
     OBJECT;
 
+    private static final InternalOperandTypeForCalculations[] VALUES = values();
+
     private final Class[] supportedTypes;
 
     InternalOperandTypeForCalculations(Class... supportedTypes) {
@@ -33,7 +35,13 @@ public enum InternalOperandTypeForCalculations {
             return false;
         }
 
-        return getSupportedOperandModeClasses(this).contains(type);
+        for (Class supportedType : supportedTypes) {
+            if (supportedType.equals(type)) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     public static Set<Class> getSupportedOperandModeClasses(InternalOperandTypeForCalculations... internalOperandTypeForCalculationses) {
@@ -57,8 +65,9 @@ public enum InternalOperandTypeForCalculations {
     public static InternalOperandTypeForCalculations getOperationModeForOperand(Operand operand) {
 
         if (operand != null) {
-            for (InternalOperandTypeForCalculations internalOperandTypeForCalculations : InternalOperandTypeForCalculations.values()) {
-                if (internalOperandTypeForCalculations.isSupportedType(operand.getOperandsJavaType())) {
+            Class operandsJavaType = operand.getOperandsJavaType();
+            for (InternalOperandTypeForCalculations internalOperandTypeForCalculations : VALUES) {
+                if (internalOperandTypeForCalculations.isSupportedType(operandsJavaType)) {
                     return internalOperandTypeForCalculations;
                 }
             }
@@ -1,13 +1,18 @@
 package io.toolisticon.annotationprocessortoolkit.templating.expressions.operands;
 
 /**
- * String based operand.
+ * Decimal based operand.
+ * The expression string is parsed once at creation time.
  */
-public class LongOperand extends ParsedOperand<Long> {
+public class LongOperand extends ParsedOperand<Long> implements NumericOperand {
+
+    private final long value;
 
     public LongOperand(String expressionString) {
         super(expressionString);
 
+        this.value = Long.parseLong(getExpressionString());
+
     }
 
     @Override
@@ -17,11 +22,21 @@ public class LongOperand extends ParsedOperand<Long> {
 
     @Override
     public Long value() {
-        return Long.valueOf(getExpressionString());
+        return value;
+    }
+
+    @Override
+    public long longValue() {
+        return value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
     }
 
     @Override
     public OperandType getOperandType() {
         return OperandType.LONG;
     }
-}
\ No newline at end of file
+}
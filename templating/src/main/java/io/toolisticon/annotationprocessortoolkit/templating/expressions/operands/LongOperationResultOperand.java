@@ -0,0 +1,41 @@
+package io.toolisticon.annotationprocessortoolkit.templating.expressions.operands;
+
+/**
+ * Used to hold a decimal operation result without boxing it.
+ */
+public class LongOperationResultOperand extends Operand<Long> implements NumericOperand {
+
+    private final long value;
+
+    public LongOperationResultOperand(long value) {
+        super();
+
+        this.value = value;
+
+    }
+
+    @Override
+    public Class<Long> getOperandsJavaType() {
+        return Long.class;
+    }
+
+    @Override
+    public Long value() {
+        return value;
+    }
+
+    @Override
+    public long longValue() {
+        return value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public OperandType getOperandType() {
+        return OperandType.OPERATION_RESULT;
+    }
+}
@@ -0,0 +1,24 @@
+package io.toolisticon.annotationprocessortoolkit.templating.expressions.operands;
+
+/**
+ * Operands that keep their numeric value as primitive.
+ * <p/>
+ * Operations read the primitive value to avoid boxing. Values of numeric operands are never null.
+ */
+public interface NumericOperand {
+
+    /**
+     * Gets the value as primitive long.
+     *
+     * @return the value
+     */
+    long longValue();
+
+    /**
+     * Gets the value as primitive double.
+     *
+     * @return the value
+     */
+    double doubleValue();
+
+}
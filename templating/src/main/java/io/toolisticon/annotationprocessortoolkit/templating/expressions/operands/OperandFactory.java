@@ -8,6 +8,14 @@ import io.toolisticon.annotationprocessortoolkit.templating.expressions.operatio
  */
 public class OperandFactory {
 
+    // literals are immutable and can be shared by all expressions
+    private static final BooleanOperand TRUE_OPERAND = new BooleanOperand("true");
+    private static final BooleanOperand FALSE_OPERAND = new BooleanOperand("false");
+    private static final NullValueOperand NULL_VALUE_OPERAND = new NullValueOperand("null");
+
+    private static final OperationResultOperand TRUE_OPERATION_RESULT = new OperationResultOperand((Class) Boolean.class, Boolean.TRUE);
+    private static final OperationResultOperand FALSE_OPERATION_RESULT = new OperationResultOperand((Class) Boolean.class, Boolean.FALSE);
+
     /**
      * Hidden constructor.
      */
@@ -33,7 +41,7 @@ public class OperandFactory {
 
         switch (operandType) {
             case BOOLEAN: {
-                operand = new BooleanOperand(expressionString);
+                operand = createBooleanOperand(expressionString);
                 break;
             }
             case LONG: {
@@ -57,7 +65,7 @@ public class OperandFactory {
                 break;
             }
             case NULL_VALUE: {
-                operand = new NullValueOperand(expressionString);
+                operand = "null".equals(expressionString.trim()) ? NULL_VALUE_OPERAND : new NullValueOperand(expressionString);
                 break;
             }
             default:
@@ -76,10 +84,59 @@ public class OperandFactory {
     }
 
 
+    private static BooleanOperand createBooleanOperand(String expressionString) {
+
+        String trimmedExpressionString = expressionString.trim();
+        if ("true".equals(trimmedExpressionString)) {
+            return TRUE_OPERAND;
+        } else if ("false".equals(trimmedExpressionString)) {
+            return FALSE_OPERAND;
+        }
+
+        return new BooleanOperand(expressionString);
+    }
+
+
     public static OperationResultOperand createOperationResult(Class type, Object value) {
+
+        // boolean results are immutable and can be shared
+        if (Boolean.class.equals(type) && value != null) {
+            return (Boolean) value ? TRUE_OPERATION_RESULT : FALSE_OPERATION_RESULT;
+        }
+
         return new OperationResultOperand(type, value);
     }
 
+    /**
+     * Gets the shared operation result for a boolean value.
+     *
+     * @param value the result
+     * @return the shared operand
+     */
+    public static OperationResultOperand createOperationResult(boolean value) {
+        return value ? TRUE_OPERATION_RESULT : FALSE_OPERATION_RESULT;
+    }
+
+    /**
+     * Creates an operation result for a decimal value without boxing it.
+     *
+     * @param value the result
+     * @return the operand
+     */
+    public static LongOperationResultOperand createOperationResult(long value) {
+        return new LongOperationResultOperand(value);
+    }
+
+    /**
+     * Creates an operation result for a floating point value without boxing it.
+     *
+     * @param value the result
+     * @return the operand
+     */
+    public static DoubleOperationResultOperand createOperationResult(double value) {
+        return new DoubleOperationResultOperand(value);
+    }
+
     public static UnaryOperationWrapperOperand createUnaryOperand(Operand operand, OperationType operationType) {
         return new UnaryOperationWrapperOperand(operand, operationType);
     }
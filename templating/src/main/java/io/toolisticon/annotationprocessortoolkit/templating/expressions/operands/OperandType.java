@@ -16,14 +16,16 @@ public enum OperandType {
     EXPRESSION(null);
 
 
-    private final String regExpr;
+    private static final OperandType[] PATTERN_BASED_OPERAND_TYPES = createPatternBasedOperandTypes();
+
+    private final Pattern operandPattern;
 
     private OperandType(String regExpr) {
-        this.regExpr = regExpr != null ? "[ ]*" + regExpr + "[ ]*" : null;
+        this.operandPattern = regExpr != null ? Pattern.compile("[ ]*" + regExpr + "[ ]*") : null;
     }
 
     public Pattern getOperandPattern() {
-        return regExpr != null ? Pattern.compile(regExpr) : null;
+        return operandPattern;
     }
 
     public static OperandType getOperandType(String operandString) {
@@ -32,9 +34,9 @@ public enum OperandType {
             throw new IllegalArgumentException("Passed operandString must not be null");
         }
 
-        for (OperandType operandType : values()) {
+        for (OperandType operandType : PATTERN_BASED_OPERAND_TYPES) {
 
-            if (operandType.getOperandPattern() != null && operandType.getOperandPattern().matcher(operandString).matches()) {
+            if (operandType.getOperandPattern().matcher(operandString).matches()) {
                 return operandType;
             }
 
@@ -44,6 +46,10 @@ public enum OperandType {
     }
 
     public static OperandType[] getPatternBasedOperandTypes() {
+        return PATTERN_BASED_OPERAND_TYPES.clone();
+    }
+
+    private static OperandType[] createPatternBasedOperandTypes() {
         List<OperandType> resultList = new ArrayList<OperandType>();
 
         for (OperandType operandType : values()) {
@@ -11,8 +11,6 @@ public class UnaryOperationWrapperOperand extends Operand<Object> {
     private final Operand operand;
     private final OperationType unaryOperationType;
 
-    private Operand resultOperand = null;
-
     public UnaryOperationWrapperOperand(Operand operand, OperationType unaryOperationType) {
         super();
 
@@ -29,24 +27,22 @@ public class UnaryOperationWrapperOperand extends Operand<Object> {
     }
 
 
-    @Override
-    public Class<Object> getOperandsJavaType() {
+    public Operand getOperand() {
+        return operand;
+    }
 
-        if (resultOperand == null) {
-            calculateResultOperand();
-        }
+    public OperationType getUnaryOperationType() {
+        return unaryOperationType;
+    }
 
-        return resultOperand.getOperandsJavaType();
+    @Override
+    public Class<Object> getOperandsJavaType() {
+        return calculateResultOperand().getOperandsJavaType();
     }
 
     @Override
     public Object value() {
-
-        if (resultOperand == null) {
-            calculateResultOperand();
-        }
-
-        return resultOperand.value();
+        return calculateResultOperand().value();
     }
 
     @Override
@@ -54,10 +50,8 @@ public class UnaryOperationWrapperOperand extends Operand<Object> {
         return OperandType.OPERATION_RESULT;
     }
 
-    private void calculateResultOperand() {
-
-
-        resultOperand = unaryOperationType.doOperation(operand);
-
+    private Operand calculateResultOperand() {
+        // result isn't cached, since it depends on the model
+        return unaryOperationType.doOperation(operand);
     }
 }
@@ -1,6 +1,7 @@
 package io.toolisticon.annotationprocessortoolkit.templating.expressions.operations;
 
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.InternalOperandTypeForCalculations;
+import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.NumericOperand;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.Operand;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.OperandFactory;
 
@@ -17,7 +18,7 @@ import java.util.regex.Pattern;
  */
 public enum OperationType {
 
-    NEGATE("[ ]*[!]", 0, OperationTypeMode.UNARY, InternalOperandTypeForCalculations.BOOLEAN) {
+    NEGATE("[ ]*[!]", "!", 0, OperationTypeMode.UNARY, InternalOperandTypeForCalculations.BOOLEAN) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -27,11 +28,11 @@ public enum OperationType {
             // must be done after the base check !
             Operand operand = operands[0];
 
-            return OperandFactory.createOperationResult(Boolean.class, !((Boolean) operand.value()));
+            return OperandFactory.createOperationResult(!((Boolean) operand.value()));
 
         }
     },
-    AND("[&]{2}", 80, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.BOOLEAN) {
+    AND("[&]{2}", "&&", 80, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.BOOLEAN) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -42,11 +43,11 @@ public enum OperationType {
             Operand operand1 = operands[0];
             Operand operand2 = operands[1];
 
-            return OperandFactory.createOperationResult(Boolean.class, (Boolean) operand1.value() && (Boolean) operand2.value());
+            return OperandFactory.createOperationResult((Boolean) operand1.value() && (Boolean) operand2.value());
 
         }
     },
-    OR("[|]{2}", 85, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.BOOLEAN) {
+    OR("[|]{2}", "||", 85, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.BOOLEAN) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -57,12 +58,12 @@ public enum OperationType {
             Operand operand1 = operands[0];
             Operand operand2 = operands[1];
 
-            return OperandFactory.createOperationResult(Boolean.class, (Boolean) operand1.value() || (Boolean) operand2.value());
+            return OperandFactory.createOperationResult((Boolean) operand1.value() || (Boolean) operand2.value());
 
         }
 
     },
-    EQUAL("[=]{2}", 70, OperationTypeMode.BINARY) {
+    EQUAL("[=]{2}", "==", 70, OperationTypeMode.BINARY) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -79,51 +80,46 @@ public enum OperationType {
             InternalOperandTypeForCalculations internalOperandTypeForCalculations2 = InternalOperandTypeForCalculations.getOperationModeForOperand(operand2);
 
             // check for Decimals and floating points => make it comparable
-            if (
-                    (
-                            InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1)
-                                    && InternalOperandTypeForCalculations.DECIMAL.equals(internalOperandTypeForCalculations2)
-                    ) || (
-                            InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2)
-                                    && InternalOperandTypeForCalculations.DECIMAL.equals(internalOperandTypeForCalculations1)
-                    )
-                    ) {
-
-                operand1 = OperandFactory.createOperationResult(Double.class, convertToDouble(operand1));
-                operand2 = OperandFactory.createOperationResult(Double.class, convertToDouble(operand2));
-                internalOperandTypeForCalculations1 = InternalOperandTypeForCalculations.getOperationModeForOperand(operand1);
-                internalOperandTypeForCalculations2 = InternalOperandTypeForCalculations.getOperationModeForOperand(operand2);
-
-            }
+            boolean compareAsFloatingPoint = (
+                    InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1)
+                            && InternalOperandTypeForCalculations.DECIMAL.equals(internalOperandTypeForCalculations2)
+            ) || (
+                    InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2)
+                            && InternalOperandTypeForCalculations.DECIMAL.equals(internalOperandTypeForCalculations1)
+            );
 
 
-            if (operand1.getOperandsJavaType() != null && operand2.getOperandsJavaType() != null
+            if (!compareAsFloatingPoint
+                    && operand1.getOperandsJavaType() != null && operand2.getOperandsJavaType() != null
                     && !operand1.getOperandsJavaType().equals(operand2.getOperandsJavaType())
                     && !internalOperandTypeForCalculations1.equals(internalOperandTypeForCalculations2)) {
                 throw new IllegalArgumentException("Incompatible operand types in '==' operation");
             }
 
 
-            if (operand1.value() == null && operand2.value() == null) {
+            boolean operand1IsNull = isNullValue(operand1);
+            boolean operand2IsNull = isNullValue(operand2);
+
+            if (operand1IsNull && operand2IsNull) {
                 result = true;
-            } else if ((operand1.value() == null && operand2.value() != null) || (operand1.value() != null && operand2.value() == null)) {
+            } else if (operand1IsNull || operand2IsNull) {
                 result = false;
             } else {
 
-                if (InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1) && InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2)) {
+                if (compareAsFloatingPoint || (InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1) && InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2))) {
 
-                    Double operand1Value = convertToDouble(operand1);
-                    Double operand2Value = convertToDouble(operand2);
+                    double operand1Value = getDoubleValue(operand1);
+                    double operand2Value = getDoubleValue(operand2);
 
-                    result = operand1Value.equals(operand2Value);
+                    result = Double.doubleToLongBits(operand1Value) == Double.doubleToLongBits(operand2Value);
 
                 } else if (InternalOperandTypeForCalculations.DECIMAL.equals(internalOperandTypeForCalculations1) && InternalOperandTypeForCalculations.DECIMAL.equals(internalOperandTypeForCalculations2)) {
 
                     // do decimal based operation
-                    Long operand1Value = convertToLong(operand1);
-                    Long operand2Value = convertToLong(operand2);
+                    long operand1Value = getLongValue(operand1);
+                    long operand2Value = getLongValue(operand2);
 
-                    result = operand1Value.equals(operand2Value);
+                    result = operand1Value == operand2Value;
 
                 } else {
                     result = operand1.value().equals(operand2.value());
@@ -132,11 +128,11 @@ public enum OperationType {
             }
 
 
-            return OperandFactory.createOperationResult(Boolean.class, result);
+            return OperandFactory.createOperationResult(result);
 
         }
     },
-    NOT_EQUAL("[!][=]", 70, OperationTypeMode.BINARY) {
+    NOT_EQUAL("[!][=]", "!=", 70, OperationTypeMode.BINARY) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -145,7 +141,7 @@ public enum OperationType {
 
         }
     },
-    LESS_OR_EQUAL_THAN("[<][=]", 60, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
+    LESS_OR_EQUAL_THAN("[<][=]", "<=", 60, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -163,24 +159,24 @@ public enum OperationType {
             if (InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1) || InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2)) {
 
                 // do floating point based operation
-                Double operand1Value = convertToDouble(operand1);
-                Double operand2Value = convertToDouble(operand2);
+                double operand1Value = getDoubleValue(operand1);
+                double operand2Value = getDoubleValue(operand2);
 
-                return OperandFactory.createOperationResult(Boolean.class, operand1Value <= operand2Value);
+                return OperandFactory.createOperationResult(operand1Value <= operand2Value);
 
             } else {
 
                 // do decimal based operation
-                Long operand1Value = convertToLong(operand1);
-                Long operand2Value = convertToLong(operand2);
+                long operand1Value = getLongValue(operand1);
+                long operand2Value = getLongValue(operand2);
 
-                return OperandFactory.createOperationResult(Boolean.class, operand1Value <= operand2Value);
+                return OperandFactory.createOperationResult(operand1Value <= operand2Value);
 
             }
 
         }
     },
-    GREATER_OR_EQUAL_THAN("[>][=]", 60, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
+    GREATER_OR_EQUAL_THAN("[>][=]", ">=", 60, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -198,25 +194,25 @@ public enum OperationType {
             if (InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1) || InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2)) {
 
                 // do floating point based operation
-                Double operand1Value = convertToDouble(operand1);
-                Double operand2Value = convertToDouble(operand2);
+                double operand1Value = getDoubleValue(operand1);
+                double operand2Value = getDoubleValue(operand2);
 
-                return OperandFactory.createOperationResult(Boolean.class, operand1Value >= operand2Value);
+                return OperandFactory.createOperationResult(operand1Value >= operand2Value);
 
             } else {
 
                 // do decimal based operation
-                Long operand1Value = convertToLong(operand1);
-                Long operand2Value = convertToLong(operand2);
+                long operand1Value = getLongValue(operand1);
+                long operand2Value = getLongValue(operand2);
 
-                return OperandFactory.createOperationResult(Boolean.class, operand1Value >= operand2Value);
+                return OperandFactory.createOperationResult(operand1Value >= operand2Value);
 
             }
 
 
         }
     },
-    LESS_THAN("[<]", 60, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
+    LESS_THAN("[<]", "<", 60, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -234,24 +230,24 @@ public enum OperationType {
             if (InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1) || InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2)) {
 
                 // do floating point based operation
-                Double operand1Value = convertToDouble(operand1);
-                Double operand2Value = convertToDouble(operand2);
+                double operand1Value = getDoubleValue(operand1);
+                double operand2Value = getDoubleValue(operand2);
 
-                return OperandFactory.createOperationResult(Boolean.class, operand1Value < operand2Value);
+                return OperandFactory.createOperationResult(operand1Value < operand2Value);
 
             } else {
 
                 // do decimal based operation
-                Long operand1Value = convertToLong(operand1);
-                Long operand2Value = convertToLong(operand2);
+                long operand1Value = getLongValue(operand1);
+                long operand2Value = getLongValue(operand2);
 
-                return OperandFactory.createOperationResult(Boolean.class, operand1Value < operand2Value);
+                return OperandFactory.createOperationResult(operand1Value < operand2Value);
 
             }
 
         }
     },
-    GREATER_THAN("[>]", 60, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
+    GREATER_THAN("[>]", ">", 60, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -269,24 +265,24 @@ public enum OperationType {
             if (InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1) || InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2)) {
 
                 // do floating point based operation
-                Double operand1Value = convertToDouble(operand1);
-                Double operand2Value = convertToDouble(operand2);
+                double operand1Value = getDoubleValue(operand1);
+                double operand2Value = getDoubleValue(operand2);
 
-                return OperandFactory.createOperationResult(Boolean.class, operand1Value > operand2Value);
+                return OperandFactory.createOperationResult(operand1Value > operand2Value);
 
             } else {
 
                 // do decimal based operation
-                Long operand1Value = convertToLong(operand1);
-                Long operand2Value = convertToLong(operand2);
+                long operand1Value = getLongValue(operand1);
+                long operand2Value = getLongValue(operand2);
 
-                return OperandFactory.createOperationResult(Boolean.class, operand1Value > operand2Value);
+                return OperandFactory.createOperationResult(operand1Value > operand2Value);
 
             }
 
         }
     },
-    ADDITION("[+]", 50, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.STRING, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
+    ADDITION("[+]", "+", 50, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.STRING, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -312,24 +308,24 @@ public enum OperationType {
             } else if (InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1) || InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2)) {
 
                 // do floating point based operation
-                Double operand1Value = convertToDouble(operand1);
-                Double operand2Value = convertToDouble(operand2);
+                double operand1Value = getDoubleValue(operand1);
+                double operand2Value = getDoubleValue(operand2);
 
-                return OperandFactory.createOperationResult(Double.class, operand1Value + operand2Value);
+                return OperandFactory.createOperationResult(operand1Value + operand2Value);
 
             } else {
 
                 // do decimal based operation
-                Long operand1Value = convertToLong(operand1);
-                Long operand2Value = convertToLong(operand2);
+                long operand1Value = getLongValue(operand1);
+                long operand2Value = getLongValue(operand2);
 
-                return OperandFactory.createOperationResult(Long.class, operand1Value + operand2Value);
+                return OperandFactory.createOperationResult(operand1Value + operand2Value);
 
             }
 
         }
     },
-    SUBTRACTION("[-]", 50, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
+    SUBTRACTION("[-]", "-", 50, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -347,24 +343,24 @@ public enum OperationType {
             if (InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1) || InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2)) {
 
                 // do floating point based operation
-                Double operand1Value = convertToDouble(operand1);
-                Double operand2Value = convertToDouble(operand2);
+                double operand1Value = getDoubleValue(operand1);
+                double operand2Value = getDoubleValue(operand2);
 
-                return OperandFactory.createOperationResult(Double.class, operand1Value - operand2Value);
+                return OperandFactory.createOperationResult(operand1Value - operand2Value);
 
             } else {
 
                 // do decimal based operation
-                Long operand1Value = convertToLong(operand1);
-                Long operand2Value = convertToLong(operand2);
+                long operand1Value = getLongValue(operand1);
+                long operand2Value = getLongValue(operand2);
 
-                return OperandFactory.createOperationResult(Long.class, operand1Value - operand2Value);
+                return OperandFactory.createOperationResult(operand1Value - operand2Value);
 
             }
 
         }
     },
-    MULTIPLICATION("[*]", 40, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
+    MULTIPLICATION("[*]", "*", 40, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -382,24 +378,24 @@ public enum OperationType {
             if (InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1) || InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2)) {
 
                 // do floating point based operation
-                Double operand1Value = convertToDouble(operand1);
-                Double operand2Value = convertToDouble(operand2);
+                double operand1Value = getDoubleValue(operand1);
+                double operand2Value = getDoubleValue(operand2);
 
-                return OperandFactory.createOperationResult(Double.class, operand1Value * operand2Value);
+                return OperandFactory.createOperationResult(operand1Value * operand2Value);
 
             } else {
 
                 // do decimal based operation
-                Long operand1Value = convertToLong(operand1);
-                Long operand2Value = convertToLong(operand2);
+                long operand1Value = getLongValue(operand1);
+                long operand2Value = getLongValue(operand2);
 
-                return OperandFactory.createOperationResult(Long.class, operand1Value * operand2Value);
+                return OperandFactory.createOperationResult(operand1Value * operand2Value);
 
             }
 
         }
     },
-    DIVISION("[/]", 40, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
+    DIVISION("[/]", "/", 40, OperationTypeMode.BINARY, InternalOperandTypeForCalculations.DECIMAL, InternalOperandTypeForCalculations.FLOAT) {
         @Override
         public Operand doOperation(Operand... operands) {
 
@@ -417,25 +413,73 @@ public enum OperationType {
             if (InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations1) || InternalOperandTypeForCalculations.FLOAT.equals(internalOperandTypeForCalculations2)) {
 
                 // do floating point based operation
-                Double operand1Value = convertToDouble(operand1);
-                Double operand2Value = convertToDouble(operand2);
+                double operand1Value = getDoubleValue(operand1);
+                double operand2Value = getDoubleValue(operand2);
 
-                return OperandFactory.createOperationResult(Double.class, operand1Value / operand2Value);
+                return OperandFactory.createOperationResult(operand1Value / operand2Value);
 
             } else {
 
                 // do decimal based operation
-                Long operand1Value = convertToLong(operand1);
-                Long operand2Value = convertToLong(operand2);
+                long operand1Value = getLongValue(operand1);
+                long operand2Value = getLongValue(operand2);
 
-                return OperandFactory.createOperationResult(Long.class, operand1Value / operand2Value);
+                return OperandFactory.createOperationResult(operand1Value / operand2Value);
 
             }
 
         }
     };
 
+    /**
+     * Lookup tables of the operation types keyed by the first char of their operator.
+     */
+    private static class OperatorTables {
+
+        private static final int TABLE_SIZE = 128;
+
+        private static final OperationType[][] UNARY_OPERATORS = createOperatorTable(OperationTypeMode.UNARY);
+        private static final OperationType[][] BINARY_OPERATORS = createOperatorTable(OperationTypeMode.BINARY);
+
+        private static OperationType[][] createOperatorTable(OperationTypeMode operationTypeMode) {
+
+            List<List<OperationType>> buckets = new ArrayList<List<OperationType>>(TABLE_SIZE);
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                buckets.add(new ArrayList<OperationType>());
+            }
+
+            for (OperationType operationType : values()) {
+                if (operationType.getOperationTypeMode() == operationTypeMode) {
+                    buckets.get(operationType.getOperator().charAt(0)).add(operationType);
+                }
+            }
+
+            OperationType[][] table = new OperationType[TABLE_SIZE][];
+            for (int i = 0; i < TABLE_SIZE; i++) {
+
+                List<OperationType> bucket = buckets.get(i);
+                if (!bucket.isEmpty()) {
+
+                    // longest operator must be tried first
+                    Collections.sort(bucket, new Comparator<OperationType>() {
+                        @Override
+                        public int compare(OperationType o1, OperationType o2) {
+                            return o2.getOperator().length() - o1.getOperator().length();
+                        }
+                    });
+
+                    table[i] = bucket.toArray(new OperationType[bucket.size()]);
+                }
+
+            }
+
+            return table;
+        }
+
+    }
+
     private final Pattern operationPattern;
+    private final String operator;
     private final int operationExecutionOrder;
     private final OperationTypeMode operationTypeMode;
     private final Set<Class> supportedTypes = new HashSet<Class>();
@@ -444,17 +488,20 @@ public enum OperationType {
      * Constructor for OperationType.
      *
      * @param operationPatternString                        the operation types pattern String
+     * @param operator                                      the operator token matched by the pattern
      * @param operationOrder                                the execution order of the operation
      * @param operationTypeMode                             the operation type mode (f.e. UNARY or BINARY, defines number of parameters)
      * @param supportedInternalOperandTypeForCalculationses the supported operand modes (==java types) of this operation type
      */
     OperationType(
             String operationPatternString,
+            String operator,
             int operationOrder,
             OperationTypeMode operationTypeMode,
             InternalOperandTypeForCalculations... supportedInternalOperandTypeForCalculationses) {
 
         this.operationPattern = Pattern.compile("[ ]*" + operationPatternString + "[ ]*");
+        this.operator = operator;
         this.operationExecutionOrder = operationOrder;
         this.operationTypeMode = operationTypeMode;
         this.supportedTypes.addAll(InternalOperandTypeForCalculations.getSupportedOperandModeClasses(supportedInternalOperandTypeForCalculationses));
@@ -480,6 +527,15 @@ public enum OperationType {
     }
 
 
+    /**
+     * Gets the operator token of the operation.
+     *
+     * @return the operator token
+     */
+    public String getOperator() {
+        return operator;
+    }
+
     /**
      * Gets the operations execution order weight.
      *
@@ -533,6 +589,47 @@ public enum OperationType {
         return result.toArray(new OperationType[result.size()]);
     }
 
+    /**
+     * Gets the operation type whose operator is located at the passed index.
+     * The operator may be surrounded by spaces, which are part of the search result.
+     * Uses a lookup table keyed by the first char of the operators. If multiple operators match, the longest one is used.
+     *
+     * @param operationTypeMode the mode of the operation types to look for
+     * @param expressionString  the expressions string
+     * @param index             the current processing index
+     * @return the search result or null if there is no operator of the passed mode at the index
+     */
+    public static OperationTypeSearchResult getOperationTypeAt(OperationTypeMode operationTypeMode, String expressionString, int index) {
+
+        OperationType[][] table = operationTypeMode == OperationTypeMode.UNARY ? OperatorTables.UNARY_OPERATORS : OperatorTables.BINARY_OPERATORS;
+
+        int operatorIndex = skipSpaces(expressionString, index);
+        if (operatorIndex >= expressionString.length()) {
+            return null;
+        }
+
+        char firstChar = expressionString.charAt(operatorIndex);
+        OperationType[] candidates = firstChar < OperatorTables.TABLE_SIZE ? table[firstChar] : null;
+        if (candidates == null) {
+            return null;
+        }
+
+        for (OperationType operationType : candidates) {
+            if (expressionString.startsWith(operationType.getOperator(), operatorIndex)) {
+                return new OperationTypeSearchResult(operationType, index, skipSpaces(expressionString, operatorIndex + operationType.getOperator().length()));
+            }
+        }
+
+        return null;
+    }
+
+    private static int skipSpaces(String expressionString, int index) {
+        while (index < expressionString.length() && expressionString.charAt(index) == ' ') {
+            index++;
+        }
+        return index;
+    }
+
     /**
      * Abstract base method to execute an operation.
      *
@@ -575,7 +672,7 @@ public enum OperationType {
         // check operand values
         if (doNullCheck) {
             for (int i = 0; i < operationType.getOperationTypeMode().getNumberOfOperands(); i++) {
-                if (operands[i].value() == null) {
+                if (isNullValue(operands[i])) {
                     throw new IllegalArgumentException("passed operand values must not be null");
                 }
             }
@@ -594,6 +691,16 @@ public enum OperationType {
     }
 
 
+    /**
+     * Checks whether the value of an operand is null. Doesn't box values of numeric operands.
+     *
+     * @param operand the operand
+     * @return true if value is null, otherwise false
+     */
+    protected static boolean isNullValue(Operand operand) {
+        return !(operand instanceof NumericOperand) && operand.value() == null;
+    }
+
     /**
      * Converts an operand to a String value by using it's toString method.
      *
@@ -610,58 +717,31 @@ public enum OperationType {
     }
 
     /**
-     * Used to convert decimal and floating point numbers to a Double value.
+     * Gets the primitive double value of a decimal or floating point operand without creating intermediate wrapper instances.
+     * Must only be called for operands that passed the base checks.
      *
-     * @param operand
-     * @return
+     * @param operand the operand
+     * @return the double value
      */
-    protected Double convertToDouble(Operand operand) {
-
-        if (operand == null || operand.getOperandsJavaType() == null) {
-            return null;
-        }
-
-        // convert floating point values
-        if (Float.class.equals(operand.getOperandsJavaType()) || float.class.equals(operand.getOperandsJavaType())) {
-            return ((Float) operand.value()).doubleValue();
-        }
-        if (Double.class.equals(operand.getOperandsJavaType()) || double.class.equals(operand.getOperandsJavaType())) {
-            return (Double) operand.value();
-        }
-
-        // convert decimal
-        Long longValue = convertToLong(operand);
-        if (longValue != null) {
-            return longValue.doubleValue();
+    protected double getDoubleValue(Operand operand) {
+        if (operand instanceof NumericOperand) {
+            return ((NumericOperand) operand).doubleValue();
         }
-
-        return null;
+        return ((Number) operand.value()).doubleValue();
     }
 
     /**
-     * Used to convert decimal numbers to a Long value.
+     * Gets the primitive long value of a decimal operand without creating intermediate wrapper instances.
+     * Must only be called for operands that passed the base checks.
      *
-     * @param operand
-     * @return
+     * @param operand the operand
+     * @return the long value
      */
-    protected Long convertToLong(Operand operand) {
-
-        if (operand == null || operand.getOperandsJavaType() == null) {
-            return null;
-        }
-
-        if (Short.class.equals(operand.getOperandsJavaType()) || short.class.equals(operand.getOperandsJavaType())) {
-            return ((Short) operand.value()).longValue();
-        }
-        if (Integer.class.equals(operand.getOperandsJavaType()) || int.class.equals(operand.getOperandsJavaType())) {
-            return ((Integer) operand.value()).longValue();
+    protected long getLongValue(Operand operand) {
+        if (operand instanceof NumericOperand) {
+            return ((NumericOperand) operand).longValue();
         }
-        if (Long.class.equals(operand.getOperandsJavaType()) || long.class.equals(operand.getOperandsJavaType())) {
-            return (Long) operand.value();
-        }
-
-
-        return null;
+        return ((Number) operand.value()).longValue();
     }
 
 
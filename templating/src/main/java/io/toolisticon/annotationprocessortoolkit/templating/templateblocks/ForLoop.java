@@ -0,0 +1,109 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.ModelPath;
+import io.toolisticon.annotationprocessortoolkit.templating.VariableScope;
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidExpressionResult;
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidPathException;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The state of a running for loop.
+ * <p/>
+ * Used by {@link ForTemplateBlock} and by generated {@link io.toolisticon.annotationprocessortoolkit.templating.CompiledTemplate} classes.
+ * Instances are created per loop execution and must not be shared between threads.
+ */
+public class ForLoop {
+
+    private final Iterator<Object> iterator;
+    private final int size;
+    private final int limit;
+
+    private int index = -1;
+    private Object value;
+
+    private ForLoop(Iterator<Object> iterator, int size, int limit) {
+        this.iterator = iterator;
+        this.size = size;
+        this.limit = limit;
+    }
+
+    /**
+     * Starts a loop over the values the model path resolves to.
+     *
+     * @param modelPath the path to the values
+     * @param variables the variables to resolve the path on
+     * @param limit     the maximal number of iterations or -1 for no limit
+     * @return the loop
+     * @throws InvalidExpressionResult if values are null
+     * @throws InvalidPathException    if values can't be iterated
+     */
+    public static ForLoop start(ModelPath modelPath, Map<String, Object> variables, int limit) {
+
+        Object values = modelPath.resolve(variables).getValue();
+
+        if (values == null) {
+            throw new InvalidExpressionResult("For template accessPath '" + modelPath.getPath() + "' must not evaluate to null value!");
+        }
+
+        Iterator<Object> iterator = LoopIterators.createIterator(values);
+        if (iterator == null) {
+            throw new InvalidPathException("Unable to iterate over Type '" + values.getClass().getCanonicalName() + "' in FOR block. Just Arrays, Iterables, Iterators, Enumerations and types with an iterator() method are supported !");
+        }
+
+        // size is known upfront for arrays and collections, last iteration is detected via lookahead of iterator
+        int size = LoopIterators.getSize(values);
+        if (size >= 0 && limit >= 0) {
+            size = Math.min(size, limit);
+        }
+
+        return new ForLoop(iterator, size, limit);
+    }
+
+    /**
+     * Moves to the next iteration.
+     *
+     * @return true if there is a next iteration, otherwise false
+     */
+    public boolean next() {
+
+        if (index + 1 == limit || !iterator.hasNext()) {
+            return false;
+        }
+
+        value = iterator.next();
+        index++;
+
+        return true;
+    }
+
+    /**
+     * Binds the value and the status of the current iteration in scopes on top of the outer variables.
+     *
+     * @param outerVariables         the variables of the enclosing scope
+     * @param loopVariableName       the name of the loop variable
+     * @param loopStatusVariableName the name of the loop status variable or null if the loop status isn't bound
+     * @return the variables of the current iteration
+     */
+    public Map<String, Object> bind(Map<String, Object> outerVariables, String loopVariableName, String loopStatusVariableName) {
+
+        if (loopStatusVariableName == null) {
+            return new VariableScope(outerVariables, loopVariableName, value);
+        }
+
+        boolean last = index + 1 == limit || !iterator.hasNext();
+
+        VariableScope loopStatusScope = new VariableScope(outerVariables, loopStatusVariableName, new ForLoopStatus(index, size, last));
+        return new VariableScope(loopStatusScope, loopVariableName, value);
+    }
+
+    Iterator<Object> getIterator() {
+        return iterator;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+}
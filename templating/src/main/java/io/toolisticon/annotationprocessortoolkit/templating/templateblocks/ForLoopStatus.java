@@ -0,0 +1,64 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+/**
+ * Metadata of the current iteration of a for loop.
+ * <p/>
+ * Is bound to the variable named by the status attribute of the for block, so !{for item : items, status : 'itemLoop'} allows to use ${itemLoop.index}.
+ */
+public class ForLoopStatus {
+
+    private final int index;
+    private final int size;
+    private final boolean last;
+
+    public ForLoopStatus(int index, int size, boolean last) {
+        this.index = index;
+        this.size = size;
+        this.last = last;
+    }
+
+    /**
+     * Gets the zero based index of the current iteration.
+     *
+     * @return the index
+     */
+    public Integer getIndex() {
+        return index;
+    }
+
+    public Boolean getFirst() {
+        return index == 0;
+    }
+
+    public Boolean getLast() {
+        return last;
+    }
+
+    /**
+     * Gets the number of iterations.
+     *
+     * @return the number of iterations or null if it's not known upfront - for example for Iterators
+     */
+    public Integer getSize() {
+        return size >= 0 ? size : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ForLoopStatus)) {
+            return false;
+        }
+
+        ForLoopStatus that = (ForLoopStatus) o;
+        return index == that.index && size == that.size && last == that.last;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * index + size) + (last ? 1 : 0);
+    }
+
+}
@@ -1,27 +1,40 @@
 package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
 
-import io.toolisticon.annotationprocessortoolkit.templating.ModelPathResolver;
+import io.toolisticon.annotationprocessortoolkit.templating.ModelPath;
 import io.toolisticon.annotationprocessortoolkit.templating.ParseUtilities;
-import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidExpressionResult;
-import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidPathException;
+import io.toolisticon.annotationprocessortoolkit.templating.VariableScope;
 
-import java.util.Collection;
-import java.util.HashMap;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Used to handle for loops in templates.
+ * <p/>
+ * The optional status attribute binds the {@link ForLoopStatus} of the current iteration to a variable,
+ * for example ${itemLoop.index} in !{for item : items, status : 'itemLoop'}.
+ * The status variable is only bound if it's requested, so it never shadows variables of the model.
  */
-public class ForTemplateBlock implements TemplateBlock {
+public class ForTemplateBlock implements StreamingTemplateBlock {
 
-    private final static Pattern ATTRIBUTE_PATTERN = Pattern.compile("\\s*(\\w+?)\\s*[:]\\s*((?:\\w|[.])+?)\\s*");
+    private final static Pattern ATTRIBUTE_PATTERN = Pattern.compile("\\s*(\\w+?)\\s*[:]\\s*((?:\\w|[.])+?)\\s*(?:,(.*))?", Pattern.DOTALL);
+
+    final static String ATTRIBUTE_NAME_LIMIT = "limit";
+    final static String ATTRIBUTE_NAME_PARALLEL = "parallel";
+    final static String ATTRIBUTE_NAME_STATUS = "status";
+
+    private final static Pattern VARIABLE_NAME_PATTERN = Pattern.compile("\\w+");
 
 
     private final String loopVariableName;
+    private final String loopStatusVariableName;
     private final String accessPath;
+    private final ModelPath modelPath;
     private final String templateString;
+    private final int limit;
+    private final boolean parallel;
 
     private TemplateBlockBinder binder;
 
@@ -39,6 +52,12 @@ public class ForTemplateBlock implements TemplateBlock {
 
         this.loopVariableName = matcher.group(1);
         this.accessPath = matcher.group(2);
+        this.modelPath = new ModelPath(this.accessPath);
+
+        Map<String, String> namedAttributes = parseNamedAttributes(matcher.group(3));
+        this.limit = parseLimit(namedAttributes.get(ATTRIBUTE_NAME_LIMIT));
+        this.parallel = parseParallel(namedAttributes.get(ATTRIBUTE_NAME_PARALLEL));
+        this.loopStatusVariableName = parseLoopStatusVariableName(namedAttributes.get(ATTRIBUTE_NAME_STATUS), this.loopVariableName);
 
         this.templateString = ParseUtilities.trimContentString(templateString);
 
@@ -55,49 +74,105 @@ public class ForTemplateBlock implements TemplateBlock {
 
     @Override
     public String getContent(Map<String, Object> outerVariables) {
+        return TemplateBlockBinder.renderToString(this, outerVariables);
+    }
 
-        Map<String, Object> variables = new HashMap<>();
-        variables.putAll(outerVariables);
+    @Override
+    public void render(Appendable output, Map<String, Object> outerVariables) throws IOException {
 
-        // get array or List
-        Object values = ModelPathResolver.resolveModelPath(outerVariables, accessPath).getValue();
+        ForLoop forLoop = ForLoop.start(modelPath, outerVariables, limit);
 
-        StringBuilder stringBuilder = new StringBuilder();
-        if (values != null) {
+        if (parallel) {
+            ParallelForLoopRenderer.render(this, output, outerVariables, forLoop.getIterator(), forLoop.getSize());
+            return;
+        }
 
+        while (forLoop.next()) {
+            binder.render(output, forLoop.bind(outerVariables, loopVariableName, loopStatusVariableName));
+        }
 
-            if (values.getClass().isArray()) {
+    }
 
+    /**
+     * Renders a single iteration of the loop.
+     *
+     * @param output         the output to render to
+     * @param outerVariables the variables of the enclosing scope
+     * @param value          the value of the loop variable
+     * @param loopStatus     the metadata of the iteration
+     * @throws IOException if output can't be written
+     */
+    void renderIteration(Appendable output, Map<String, Object> outerVariables, Object value, ForLoopStatus loopStatus) throws IOException {
+
+        // bind loop variable and loop status in scopes on top of the outer variables
+        Map<String, Object> loopStatusScope = loopStatusVariableName != null ? new VariableScope(outerVariables, loopStatusVariableName, loopStatus) : outerVariables;
+        binder.render(output, new VariableScope(loopStatusScope, loopVariableName, value));
 
-                for (Object value : (Object[]) values) {
+    }
 
-                    // now update variables
-                    variables.put(loopVariableName, value);
-                    stringBuilder.append(binder.getContent(variables));
+    /**
+     * Parses the optional named attributes of the for block.
+     *
+     * @param namedAttributeString the named attributes following the loop definition, may be null
+     * @return the named attributes
+     */
+    private static Map<String, String> parseNamedAttributes(String namedAttributeString) {
 
-                }
+        if (namedAttributeString == null) {
+            return Collections.emptyMap();
+        }
 
-            } else if (values instanceof Collection) {
+        Map<String, String> attributeMap = ParseUtilities.parseNamedAttributes(namedAttributeString);
+        if (attributeMap.isEmpty()) {
+            throw new IllegalArgumentException("for command has an invalid attribute string.");
+        }
 
-                for (Object value : (Collection) values) {
+        return attributeMap;
+    }
 
-                    // now update variables
-                    variables.put(loopVariableName, value);
-                    stringBuilder.append(binder.getContent(variables));
+    private static boolean parseParallel(String parallelString) {
 
-                }
+        if (parallelString == null || "false".equals(parallelString.trim())) {
+            return false;
+        } else if ("true".equals(parallelString.trim())) {
+            return true;
+        }
 
-            } else {
-                throw new InvalidPathException("Unable to iterate over Type '" + values.getClass().getCanonicalName() + "' in FOR block. Just Arrays and Collections are supported !");
-            }
+        throw new IllegalArgumentException("parallel attribute of for command must be 'true' or 'false' : " + parallelString);
+    }
 
+    private static String parseLoopStatusVariableName(String loopStatusVariableName, String loopVariableName) {
 
-        } else {
-            throw new InvalidExpressionResult("For template accessPath '" + accessPath + "' must not evaluate to null value!");
+        if (loopStatusVariableName == null) {
+            return null;
         }
 
-        return stringBuilder.toString();
+        String trimmedLoopStatusVariableName = loopStatusVariableName.trim();
+        if (!VARIABLE_NAME_PATTERN.matcher(trimmedLoopStatusVariableName).matches() || trimmedLoopStatusVariableName.equals(loopVariableName)) {
+            throw new IllegalArgumentException("status attribute of for command must be a variable name that differs from the loop variable : " + loopStatusVariableName);
+        }
 
+        return trimmedLoopStatusVariableName;
+    }
+
+    private static int parseLimit(String limitString) {
+
+        if (limitString == null) {
+            return -1;
+        }
+
+        int limit;
+        try {
+            limit = Integer.parseInt(limitString.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("limit attribute of for command must be an integer value : " + limitString, e);
+        }
+
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit attribute of for command must not be negative : " + limitString);
+        }
+
+        return limit;
     }
 
 
@@ -113,6 +188,28 @@ public class ForTemplateBlock implements TemplateBlock {
         return loopVariableName;
     }
 
+    /**
+     * Gets the name of the variable the loop status is bound to.
+     *
+     * @return the name or null if the loop status isn't bound
+     */
+    public String getLoopStatusVariableName() {
+        return loopStatusVariableName;
+    }
+
+    /**
+     * Gets the maximal number of iterations.
+     *
+     * @return the limit or -1 if no limit is set
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
     public String getAccessPath() {
         return accessPath;
     }
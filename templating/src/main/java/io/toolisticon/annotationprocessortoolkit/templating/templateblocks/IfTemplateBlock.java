@@ -6,18 +6,21 @@ import io.toolisticon.annotationprocessortoolkit.templating.expressions.Expressi
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.ExpressionParser;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.Operand;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * If template block.
+ * The expression is parsed once at creation time, so invalid expressions are reported when the template is compiled - even if the block is never rendered.
  */
-public class IfTemplateBlock implements TemplateBlock {
+public class IfTemplateBlock implements StreamingTemplateBlock {
 
 
 
     private final String accessPath;
+    private final Expression expression;
     private final String templateString;
 
     private TemplateBlockBinder binder;
@@ -30,6 +33,7 @@ public class IfTemplateBlock implements TemplateBlock {
         }
 
         this.accessPath = attributeString.trim();
+        this.expression = ExpressionParser.parseExpression(this.accessPath);
         this.templateString = ParseUtilities.trimContentString(templateString);
 
 
@@ -45,20 +49,36 @@ public class IfTemplateBlock implements TemplateBlock {
 
     @Override
     public String getContent(Map<String, Object> outerVariables) {
+        return TemplateBlockBinder.renderToString(this, outerVariables);
+    }
 
-        Expression expression = ExpressionParser.parseExpression(accessPath, outerVariables);
-        Operand result = expression.evaluateExpression();
+    @Override
+    public void render(Appendable output, Map<String, Object> outerVariables) throws IOException {
 
-        if (!Boolean.class.equals(result.getOperandsJavaType())) {
-            throw new InvalidExpressionResult("If statements expression '" + accessPath + "' must evaluate to Boolean" + (result.getOperandsJavaType() != null ? ", but is of type " + result.getOperandsJavaType().getCanonicalName() : ""));
+        if (evaluateCondition(expression, accessPath, outerVariables)) {
+            binder.render(output, outerVariables);
         }
 
-        if ((Boolean) result.value()) {
-            return binder.getContent(outerVariables).toString();
-        } else {
-            return "";
+    }
+
+    /**
+     * Evaluates the condition of an if block.
+     *
+     * @param expression     the parsed condition
+     * @param accessPath     the condition string - used for error messages
+     * @param outerVariables the variables to evaluate the condition with
+     * @return the result of the condition
+     * @throws InvalidExpressionResult if condition doesn't evaluate to a Boolean
+     */
+    public static boolean evaluateCondition(Expression expression, String accessPath, Map<String, Object> outerVariables) {
+
+        Operand result = expression.evaluateExpression(outerVariables);
+
+        if (!Boolean.class.equals(result.getOperandsJavaType())) {
+            throw new InvalidExpressionResult("If statements expression '" + accessPath + "' must evaluate to Boolean" + (result.getOperandsJavaType() != null ? ", but is of type " + result.getOperandsJavaType().getCanonicalName() : ""));
         }
 
+        return (Boolean) result.value();
     }
 
 
@@ -75,6 +95,10 @@ public class IfTemplateBlock implements TemplateBlock {
         return accessPath;
     }
 
+    public Expression getExpression() {
+        return expression;
+    }
+
     public String getTemplateString() {
         return templateString;
     }
@@ -1,26 +1,60 @@
 package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
 
-import io.toolisticon.annotationprocessortoolkit.templating.ModelPathResolver;
+import io.toolisticon.annotationprocessortoolkit.templating.ModelPath;
 import io.toolisticon.annotationprocessortoolkit.templating.ParseUtilities;
-import io.toolisticon.annotationprocessortoolkit.templating.TemplateProcessor;
-import io.toolisticon.annotationprocessortoolkit.templating.expressions.Expression;
-import io.toolisticon.annotationprocessortoolkit.templating.expressions.ExpressionParser;
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateCache;
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.CyclicIncludeException;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-public class IncludeTemplateBlock implements TemplateBlock {
+/**
+ * Includes a template resource.
+ * <p/>
+ * The included template is compiled once when the include block is created, so it's rendered directly into the output of the including template.
+ * <p/>
+ * Templates may include themselves directly or via other templates, for example to render trees. The recursion must be ended by the model.
+ * Such includes are resolved when they are rendered for the first time, since the included template is still compiled when the include block is created.
+ * If a template resource is included again with the same model while it's rendered, the recursion can't end and a {@link CyclicIncludeException} is thrown.
+ */
+public class IncludeTemplateBlock implements StreamingTemplateBlock {
 
     final static String ATTRIBUTE_NAME_RESOURCE = "resource";
     final static String ATTRIBUTE_NAME_MODEL = "model";
 
     private final String modelAccessPath;
+    private final ModelPath modelPath;
+
+    /**
+     * The includes that are currently rendered by the current thread - used to detect cyclic includes.
+     */
+    private static final ThreadLocal<List<RenderedInclude>> INCLUDES_IN_RENDERING = new ThreadLocal<List<RenderedInclude>>() {
+        @Override
+        protected List<RenderedInclude> initialValue() {
+            return new ArrayList<RenderedInclude>();
+        }
+    };
+
+    /**
+     * An included template resource and the model it's rendered with.
+     */
+    private static class RenderedInclude {
+
+        private final String templateResource;
+        private final Object model;
+
+        private RenderedInclude(String templateResource, Object model) {
+            this.templateResource = templateResource;
+            this.model = model;
+        }
+    }
 
     private final String templateResource;
-    private final String templateString;
+    // resolved lazily for recursive includes
+    private volatile TemplateBlockBinder compiledTemplate;
 
 
     public IncludeTemplateBlock(String attributeString) {
@@ -37,13 +71,20 @@ public class IncludeTemplateBlock implements TemplateBlock {
         }
 
         modelAccessPath = attributeMap.get(ATTRIBUTE_NAME_MODEL);
+        modelPath = modelAccessPath != null ? new ModelPath(modelAccessPath) : null;
+
+        if (!TemplateCache.isInCompilation(templateResource)) {
+            compiledTemplate = compileTemplate(templateResource);
+        }
+
+    }
 
+    private static TemplateBlockBinder compileTemplate(String templateResource) {
         try {
-            templateString = ParseUtilities.readResourceToString(templateResource);
+            return TemplateCache.getDefaultInstance().getCompiledTemplateForResource(templateResource);
         } catch (IOException e) {
             throw new IllegalArgumentException("Didn't found included template resource file : " + templateResource, e);
         }
-
     }
 
 
@@ -54,29 +95,96 @@ public class IncludeTemplateBlock implements TemplateBlock {
 
     @Override
     public String getContent(Map<String, Object> variables) {
+        return TemplateBlockBinder.renderToString(this, variables);
+    }
+
+    @Override
+    public void render(Appendable output, Map<String, Object> variables) throws IOException {
 
         Map<String, Object> model;
-        if (this.modelAccessPath != null) {
-            Object values = ModelPathResolver.resolveModelPath(variables, this.modelAccessPath).getValue();
+        Object includedModel;
+        if (this.modelPath != null) {
+            Object values = this.modelPath.resolve(variables).getValue();
 
             model = new HashMap<>();
             model.put("model", values);
+            includedModel = values;
         } else {
             model = variables;
+            includedModel = variables;
+        }
+
+        List<RenderedInclude> includesInRendering = INCLUDES_IN_RENDERING.get();
+        checkForCyclicInclude(includesInRendering, includedModel);
+
+        includesInRendering.add(new RenderedInclude(templateResource, includedModel));
+        try {
+            getCompiledTemplate().render(output, model);
+        } finally {
+            includesInRendering.remove(includesInRendering.size() - 1);
+        }
+    }
+
+    private void checkForCyclicInclude(List<RenderedInclude> includesInRendering, Object includedModel) {
+
+        for (int i = 0; i < includesInRendering.size(); i++) {
+
+            RenderedInclude renderedInclude = includesInRendering.get(i);
+            if (renderedInclude.templateResource.equals(templateResource) && renderedInclude.model == includedModel) {
+
+                StringBuilder includeChain = new StringBuilder();
+                for (RenderedInclude includeInChain : includesInRendering.subList(i, includesInRendering.size())) {
+                    includeChain.append(includeInChain.templateResource).append(" -> ");
+                }
+                throw new CyclicIncludeException("Detected cyclic include of template resources : " + includeChain + templateResource);
+
+            }
+
         }
 
-        return TemplateProcessor.processTemplate(templateString, model);
     }
 
     public String getTemplateResource() {
         return templateResource;
     }
 
+    /**
+     * Gets the template string of the included resource.
+     * The resource will be read again, since just the compiled template is kept.
+     *
+     * @return the template string
+     */
     public String getTemplateString() {
-        return templateString;
+        try {
+            return ParseUtilities.readResourceToString(templateResource);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Didn't found included template resource file : " + templateResource, e);
+        }
+    }
+
+    /**
+     * Gets the compiled template of the included resource.
+     * Recursive includes are resolved on first access.
+     *
+     * @return the compiled template
+     */
+    public TemplateBlockBinder getCompiledTemplate() {
+        if (compiledTemplate == null) {
+            compiledTemplate = compileTemplate(templateResource);
+        }
+        return compiledTemplate;
     }
 
     public String getModelAccessPath() {
         return modelAccessPath;
     }
+
+    /**
+     * Gets the model path of the included model.
+     *
+     * @return the model path or null if the included template sees the variables of the including template
+     */
+    ModelPath getModelPath() {
+        return modelPath;
+    }
 }
@@ -0,0 +1,266 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Utility class to iterate over the values of for loops.
+ * <p/>
+ * Supports arrays of objects and primitives, Iterables, Iterators, Enumerations and lazy sources like streams that provide a public iterator() method.
+ * All values are consumed incrementally, primitive values are boxed one at a time when they are accessed.
+ */
+final class LoopIterators {
+
+    /**
+     * Base class for iterators over arrays.
+     */
+    private static abstract class ArrayIterator implements Iterator<Object> {
+
+        private final int length;
+        private int index = 0;
+
+        protected ArrayIterator(int length) {
+            this.length = length;
+        }
+
+        protected abstract Object get(int index);
+
+        @Override
+        public boolean hasNext() {
+            return index < length;
+        }
+
+        @Override
+        public Object next() {
+            if (index >= length) {
+                throw new NoSuchElementException();
+            }
+            return get(index++);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Iterator that wraps an Enumeration.
+     */
+    private static class EnumerationIterator implements Iterator<Object> {
+
+        private final Enumeration<?> enumeration;
+
+        private EnumerationIterator(Enumeration<?> enumeration) {
+            this.enumeration = enumeration;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return enumeration.hasMoreElements();
+        }
+
+        @Override
+        public Object next() {
+            return enumeration.nextElement();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Hidden constructor.
+     */
+    private LoopIterators() {
+
+    }
+
+    /**
+     * Creates an iterator for the passed values.
+     *
+     * @param values the values to iterate over
+     * @return the iterator or null if passed values aren't iterable
+     */
+    @SuppressWarnings("unchecked")
+    static Iterator<Object> createIterator(Object values) {
+
+        if (values == null) {
+            return null;
+        } else if (values.getClass().isArray()) {
+            return createArrayIterator(values);
+        } else if (values instanceof Iterable) {
+            return ((Iterable<Object>) values).iterator();
+        } else if (values instanceof Iterator) {
+            return (Iterator<Object>) values;
+        } else if (values instanceof Enumeration) {
+            return new EnumerationIterator((Enumeration<?>) values);
+        }
+
+        // lazy sources like java.util.stream.Stream
+        Method iteratorMethod = getIteratorMethod(values.getClass());
+        if (iteratorMethod != null) {
+            try {
+                return (Iterator<Object>) iteratorMethod.invoke(values);
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot get iterator of type '" + values.getClass().getCanonicalName() + "'", e);
+            }
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Gets the number of values without iterating over them.
+     *
+     * @param values the values
+     * @return the number of values or -1 if it can't be determined upfront
+     */
+    static int getSize(Object values) {
+
+        if (values == null) {
+            return -1;
+        } else if (values.getClass().isArray()) {
+            return Array.getLength(values);
+        } else if (values instanceof Collection) {
+            return ((Collection) values).size();
+        }
+
+        return -1;
+    }
+
+    private static Iterator<Object> createArrayIterator(Object values) {
+
+        Class<?> componentType = values.getClass().getComponentType();
+
+        if (!componentType.isPrimitive()) {
+            final Object[] array = (Object[]) values;
+            return new ArrayIterator(array.length) {
+                @Override
+                protected Object get(int index) {
+                    return array[index];
+                }
+            };
+        } else if (componentType == int.class) {
+            final int[] array = (int[]) values;
+            return new ArrayIterator(array.length) {
+                @Override
+                protected Object get(int index) {
+                    return array[index];
+                }
+            };
+        } else if (componentType == long.class) {
+            final long[] array = (long[]) values;
+            return new ArrayIterator(array.length) {
+                @Override
+                protected Object get(int index) {
+                    return array[index];
+                }
+            };
+        } else if (componentType == double.class) {
+            final double[] array = (double[]) values;
+            return new ArrayIterator(array.length) {
+                @Override
+                protected Object get(int index) {
+                    return array[index];
+                }
+            };
+        } else if (componentType == float.class) {
+            final float[] array = (float[]) values;
+            return new ArrayIterator(array.length) {
+                @Override
+                protected Object get(int index) {
+                    return array[index];
+                }
+            };
+        } else if (componentType == short.class) {
+            final short[] array = (short[]) values;
+            return new ArrayIterator(array.length) {
+                @Override
+                protected Object get(int index) {
+                    return array[index];
+                }
+            };
+        } else if (componentType == byte.class) {
+            final byte[] array = (byte[]) values;
+            return new ArrayIterator(array.length) {
+                @Override
+                protected Object get(int index) {
+                    return array[index];
+                }
+            };
+        } else if (componentType == char.class) {
+            final char[] array = (char[]) values;
+            return new ArrayIterator(array.length) {
+                @Override
+                protected Object get(int index) {
+                    return array[index];
+                }
+            };
+        } else {
+            final boolean[] array = (boolean[]) values;
+            return new ArrayIterator(array.length) {
+                @Override
+                protected Object get(int index) {
+                    return array[index];
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Gets a public no-arg iterator() method that returns an Iterator.
+     * The method must be declared by a public type, since implementations of streams are usually not public.
+     *
+     * @param type the type to check
+     * @return the method or null if type has no such method
+     */
+    static Method getIteratorMethod(Class<?> type) {
+
+        for (Class<?> currentType = type; currentType != null; currentType = currentType.getSuperclass()) {
+
+            Method method = getIteratorMethodOfPublicType(currentType);
+            if (method != null) {
+                return method;
+            }
+
+            for (Class<?> interfaceType : currentType.getInterfaces()) {
+                method = getIteratorMethod(interfaceType);
+                if (method != null) {
+                    return method;
+                }
+            }
+
+        }
+
+        return null;
+    }
+
+    private static Method getIteratorMethodOfPublicType(Class<?> type) {
+
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return null;
+        }
+
+        try {
+            Method method = type.getDeclaredMethod("iterator");
+            if (Modifier.isPublic(method.getModifiers()) && Iterator.class.isAssignableFrom(method.getReturnType())) {
+                return method;
+            }
+        } catch (NoSuchMethodException e) {
+            // ignore
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,139 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders the iterations of a for block in parallel on a fork join pool.
+ * <p/>
+ * The values are split into chunks, each chunk is rendered into its own buffer.
+ * Buffers are appended to the output in the original order afterwards.
+ */
+final class ParallelForLoopRenderer {
+
+    /**
+     * Number of chunks per available thread - more chunks than threads are used to balance the load.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Lazy holder of the shared pool.
+     */
+    private static class PoolHolder {
+        private static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    /**
+     * Renders a range of chunks.
+     */
+    private static class RenderChunksTask extends RecursiveAction {
+
+        private final ForTemplateBlock forTemplateBlock;
+        private final Map<String, Object> outerVariables;
+        private final List<Object> values;
+        private final int size;
+        private final StringBuilder[] chunkOutputs;
+        private final int chunkSize;
+        private final int fromChunk;
+        private final int toChunk;
+
+        private RenderChunksTask(ForTemplateBlock forTemplateBlock, Map<String, Object> outerVariables, List<Object> values, int size, StringBuilder[] chunkOutputs, int chunkSize, int fromChunk, int toChunk) {
+            this.forTemplateBlock = forTemplateBlock;
+            this.outerVariables = outerVariables;
+            this.values = values;
+            this.size = size;
+            this.chunkOutputs = chunkOutputs;
+            this.chunkSize = chunkSize;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (toChunk - fromChunk > 1) {
+                int middle = (fromChunk + toChunk) >>> 1;
+                invokeAll(
+                        new RenderChunksTask(forTemplateBlock, outerVariables, values, size, chunkOutputs, chunkSize, fromChunk, middle),
+                        new RenderChunksTask(forTemplateBlock, outerVariables, values, size, chunkOutputs, chunkSize, middle, toChunk)
+                );
+                return;
+            }
+
+            int numberOfValues = values.size();
+            int fromIndex = fromChunk * chunkSize;
+            int toIndex = Math.min(fromIndex + chunkSize, numberOfValues);
+
+            StringBuilder chunkOutput = new StringBuilder();
+            try {
+                for (int index = fromIndex; index < toIndex; index++) {
+                    forTemplateBlock.renderIteration(chunkOutput, outerVariables, values.get(index), new ForLoopStatus(index, size, index + 1 == numberOfValues));
+                }
+            } catch (IOException e) {
+                // can't happen when writing to a StringBuilder
+                throw new IllegalStateException(e);
+            }
+
+            chunkOutputs[fromChunk] = chunkOutput;
+
+        }
+    }
+
+    /**
+     * Hidden constructor.
+     */
+    private ParallelForLoopRenderer() {
+
+    }
+
+    /**
+     * Renders the loop in parallel.
+     *
+     * @param forTemplateBlock the for block to render
+     * @param output           the output to render to
+     * @param outerVariables   the variables of the enclosing scope
+     * @param iterator         the iterator of the values to loop over
+     * @param size             the expected number of values or -1 if unknown
+     * @throws IOException if output can't be written
+     */
+    static void render(ForTemplateBlock forTemplateBlock, Appendable output, Map<String, Object> outerVariables, Iterator<Object> iterator, int size) throws IOException {
+
+        // collect values to allow random access
+        int limit = forTemplateBlock.getLimit();
+        List<Object> values = new ArrayList<Object>(size >= 0 ? size : 16);
+        while (values.size() != limit && iterator.hasNext()) {
+            values.add(iterator.next());
+        }
+
+        if (values.isEmpty()) {
+            return;
+        }
+
+        ForkJoinPool pool = PoolHolder.POOL;
+        int numberOfChunks = Math.min(values.size(), pool.getParallelism() * CHUNKS_PER_THREAD);
+        int chunkSize = (values.size() + numberOfChunks - 1) / numberOfChunks;
+        numberOfChunks = (values.size() + chunkSize - 1) / chunkSize;
+
+        StringBuilder[] chunkOutputs = new StringBuilder[numberOfChunks];
+        RenderChunksTask task = new RenderChunksTask(forTemplateBlock, outerVariables, values, size, chunkOutputs, chunkSize, 0, numberOfChunks);
+
+        // nested parallel loops are executed in the pool of the enclosing loop
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+
+        for (StringBuilder chunkOutput : chunkOutputs) {
+            output.append(chunkOutput);
+        }
+
+    }
+
+}
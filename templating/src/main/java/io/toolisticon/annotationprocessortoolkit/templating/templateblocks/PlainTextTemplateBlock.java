@@ -1,11 +1,12 @@
 package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
  * Block for a plain text template block.
  */
-public class PlainTextTemplateBlock implements TemplateBlock {
+public class PlainTextTemplateBlock implements StreamingTemplateBlock {
 
     private final String content;
 
@@ -21,4 +22,9 @@ public class PlainTextTemplateBlock implements TemplateBlock {
     public String getContent(Map<String, Object> variables) {
         return content;
     }
+
+    @Override
+    public void render(Appendable output, Map<String, Object> variables) throws IOException {
+        output.append(content);
+    }
 }
@@ -0,0 +1,71 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import java.util.zip.CRC32;
+
+/**
+ * Fingerprint of the template resource a precompiled template has been compiled from.
+ * <p/>
+ * Consists of the number of bytes, the modification time and the CRC32 checksum of the template resource.
+ * Length and modification time allow to check template files without reading them, the length and checksum match the metadata of jar entries.
+ */
+public final class SourceFingerprint {
+
+    private final long length;
+    private final long lastModified;
+    private final long checksum;
+
+    /**
+     * Creates a new fingerprint.
+     *
+     * @param length       the number of bytes of the template resource
+     * @param lastModified the modification time of the template resource in milliseconds
+     * @param checksum     the CRC32 checksum of the template resource
+     */
+    public SourceFingerprint(long length, long lastModified, long checksum) {
+        this.length = length;
+        this.lastModified = lastModified;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Creates the fingerprint of the content of a template resource.
+     *
+     * @param content      the bytes of the template resource
+     * @param lastModified the modification time of the template resource in milliseconds
+     * @return the fingerprint
+     */
+    public static SourceFingerprint of(byte[] content, long lastModified) {
+        return new SourceFingerprint(content.length, lastModified, getChecksum(content));
+    }
+
+    /**
+     * Checks whether the passed content has the length and checksum of this fingerprint.
+     *
+     * @param content the bytes of the template resource
+     * @return true if content matches, otherwise false
+     */
+    public boolean matchesContent(byte[] content) {
+        return content.length == length && getChecksum(content) == checksum;
+    }
+
+    private static long getChecksum(byte[] content) {
+
+        CRC32 crc32 = new CRC32();
+        crc32.update(content);
+
+        return crc32.getValue();
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+}
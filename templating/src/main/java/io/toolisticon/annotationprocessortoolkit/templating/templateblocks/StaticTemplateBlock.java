@@ -1,11 +1,12 @@
 package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
  * Used to define static template blocks.
  */
-public class StaticTemplateBlock implements TemplateBlock {
+public class StaticTemplateBlock implements StreamingTemplateBlock {
 
     private final String content;
 
@@ -23,4 +24,9 @@ public class StaticTemplateBlock implements TemplateBlock {
     public String getContent(Map<String, Object> variables) {
         return content;
     }
+
+    @Override
+    public void render(Appendable output, Map<String, Object> variables) throws IOException {
+        output.append(content);
+    }
 }
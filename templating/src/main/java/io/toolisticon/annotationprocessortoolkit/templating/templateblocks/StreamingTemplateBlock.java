@@ -0,0 +1,22 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Template block that renders itself directly to an output without creating intermediate strings.
+ * <p/>
+ * Binders render all other template blocks by appending their content.
+ */
+public interface StreamingTemplateBlock extends TemplateBlock {
+
+    /**
+     * Renders this template block directly to the passed output.
+     *
+     * @param output    the output to render to
+     * @param variables the variables to use
+     * @throws IOException if output can't be written
+     */
+    void render(Appendable output, Map<String, Object> variables) throws IOException;
+
+}
@@ -4,8 +4,9 @@ import java.util.Map;
 
 /**
  * Interface to handle different kind of template blocks.
+ * <p/>
+ * Template blocks that can render themselves directly to an output should implement {@link StreamingTemplateBlock}.
  */
-
 public interface TemplateBlock {
 
     /**
@@ -1,13 +1,16 @@
 package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
 
+import io.toolisticon.annotationprocessortoolkit.templating.CompiledTemplate;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
- *
+ * Binds a sequence of template blocks - the root of a compiled template.
  */
-public class TemplateBlockBinder implements TemplateBlock {
+public class TemplateBlockBinder implements StreamingTemplateBlock, CompiledTemplate {
 
     private final List<TemplateBlock> templateBlocks = new ArrayList<TemplateBlock>();
 
@@ -22,11 +25,53 @@ public class TemplateBlockBinder implements TemplateBlock {
 
     @Override
     public String getContent(Map<String, Object> variables) {
+        return renderToString(this, variables);
+    }
 
-        StringBuilder stringBuilder = new StringBuilder();
+    @Override
+    public void render(Appendable output, Map<String, Object> variables) throws IOException {
 
         for (TemplateBlock templateBlock : templateBlocks) {
-            stringBuilder.append(templateBlock.getContent(variables));
+            renderTemplateBlock(templateBlock, output, variables);
+        }
+
+    }
+
+    /**
+     * Renders a template block to the passed output.
+     * Template blocks that aren't streaming template blocks are rendered by appending their content.
+     *
+     * @param templateBlock the template block to render
+     * @param output        the output to render to
+     * @param variables     the variables to use
+     * @throws IOException if output can't be written
+     */
+    static void renderTemplateBlock(TemplateBlock templateBlock, Appendable output, Map<String, Object> variables) throws IOException {
+
+        if (templateBlock instanceof StreamingTemplateBlock) {
+            ((StreamingTemplateBlock) templateBlock).render(output, variables);
+        } else {
+            // null content is rendered as 'null' like all other blocks do
+            output.append(templateBlock.getContent(variables));
+        }
+
+    }
+
+    /**
+     * Renders a streaming template block to a String.
+     *
+     * @param templateBlock the template block to render
+     * @param variables     the variables to use
+     * @return the rendered template block
+     */
+    static String renderToString(StreamingTemplateBlock templateBlock, Map<String, Object> variables) {
+
+        StringBuilder stringBuilder = new StringBuilder();
+        try {
+            templateBlock.render(stringBuilder, variables);
+        } catch (IOException e) {
+            // can't happen when writing to a StringBuilder
+            throw new IllegalStateException(e);
         }
 
         return stringBuilder.toString();
@@ -36,5 +81,14 @@ public class TemplateBlockBinder implements TemplateBlock {
         templateBlocks.add(templateBlock);
     }
 
+    /**
+     * Gets the template blocks of this binder.
+     *
+     * @return the mutable list of template blocks
+     */
+    List<TemplateBlock> getTemplateBlocks() {
+        return templateBlocks;
+    }
+
 
 }
@@ -25,6 +25,7 @@ public enum TemplateBlockType {
     private final String controlBlockCommand;
 
     private final Pattern blockDetectionPattern;
+    private final Pattern endControlBlockPattern;
 
     TemplateBlockType(final boolean usedForBlockSearch, final String controlBlockCommand, final Boolean hasAttributes) {
 
@@ -35,8 +36,11 @@ public enum TemplateBlockType {
 
         if (!isControlBlock) {
             blockDetectionPattern = Pattern.compile("[$][{]\\s*((?:\\w|.)*?)\\s*[}]");
+            endControlBlockPattern = null;
         } else {
 
+            endControlBlockPattern = Pattern.compile("[!][{][/]" + controlBlockCommand + "\\s*[}]");
+
             if (hasAttributes) {
                 blockDetectionPattern = Pattern.compile("[!][{]" + controlBlockCommand + "\\s+(.*?)\\s*[}]");
             } else {
@@ -240,10 +244,28 @@ public enum TemplateBlockType {
      * @return the detection pattern for a end control block tag, otherwise null
      */
     public Pattern getEndControlBlockPattern() {
-        return isControlBlock ? Pattern.compile("[!][{][/]" + controlBlockCommand + "\\s*[}]") : null;
+        return endControlBlockPattern;
     }
 
     public boolean isControlBlock() {
         return isControlBlock;
     }
+
+    /**
+     * Gets the command of a control block, like 'for' or 'if'.
+     *
+     * @return the command of the control block, or null if this type doesn't represent a control block
+     */
+    public String getControlBlockCommand() {
+        return controlBlockCommand;
+    }
+
+    /**
+     * Checks whether the start tag of the control block has attributes.
+     *
+     * @return true if start tag has attributes, otherwise false
+     */
+    public boolean hasAttributes() {
+        return hasAttributes;
+    }
 }
@@ -0,0 +1,171 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.expressions.Expression;
+import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.Operand;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optimizes compiled templates, so that rendering them does less work.
+ * <p/>
+ * The optimizer
+ * <ul>
+ * <li>folds variable text blocks with constant expressions to plain text</li>
+ * <li>removes if blocks with constant false expressions and inlines if blocks with constant true expressions</li>
+ * <li>merges adjacent plain text and static blocks</li>
+ * </ul>
+ * Expressions that fail to evaluate are kept, so that the error is raised at render time as before.
+ */
+public final class TemplateOptimizer {
+
+    private static final Map<String, Object> EMPTY_MODEL = Collections.emptyMap();
+
+    /**
+     * Hidden constructor.
+     */
+    private TemplateOptimizer() {
+
+    }
+
+    /**
+     * Optimizes the passed compiled template in place.
+     *
+     * @param binder the compiled template
+     * @return the passed compiled template
+     */
+    public static TemplateBlockBinder optimize(TemplateBlockBinder binder) {
+
+        if (binder != null) {
+            List<TemplateBlock> optimizedTemplateBlocks = optimizeTemplateBlocks(binder.getTemplateBlocks());
+
+            binder.getTemplateBlocks().clear();
+            binder.getTemplateBlocks().addAll(optimizedTemplateBlocks);
+        }
+
+        return binder;
+    }
+
+    private static List<TemplateBlock> optimizeTemplateBlocks(List<TemplateBlock> templateBlocks) {
+
+        List<TemplateBlock> result = new ArrayList<TemplateBlock>(templateBlocks.size());
+        StringBuilder pendingText = new StringBuilder();
+
+        for (TemplateBlock templateBlock : templateBlocks) {
+
+            if (templateBlock instanceof PlainTextTemplateBlock || templateBlock instanceof StaticTemplateBlock) {
+
+                pendingText.append(templateBlock.getContent(EMPTY_MODEL));
+
+            } else if (templateBlock instanceof VariableTextTemplateBlock) {
+
+                String foldedText = foldVariableText((VariableTextTemplateBlock) templateBlock);
+                if (foldedText != null) {
+                    pendingText.append(foldedText);
+                } else {
+                    addPendingText(result, pendingText);
+                    result.add(templateBlock);
+                }
+
+            } else if (templateBlock instanceof IfTemplateBlock) {
+
+                IfTemplateBlock ifTemplateBlock = (IfTemplateBlock) templateBlock;
+                Boolean constantCondition = foldCondition(ifTemplateBlock);
+
+                if (constantCondition == null) {
+                    optimize(ifTemplateBlock.getBinder());
+                    addPendingText(result, pendingText);
+                    result.add(templateBlock);
+                } else if (constantCondition) {
+                    // inline content of if block - it's rendered with the same variables
+                    for (TemplateBlock inlinedTemplateBlock : optimizeTemplateBlocks(ifTemplateBlock.getBinder().getTemplateBlocks())) {
+                        if (inlinedTemplateBlock instanceof PlainTextTemplateBlock) {
+                            pendingText.append(inlinedTemplateBlock.getContent(EMPTY_MODEL));
+                        } else {
+                            addPendingText(result, pendingText);
+                            result.add(inlinedTemplateBlock);
+                        }
+                    }
+                }
+
+            } else {
+
+                if (templateBlock instanceof ForTemplateBlock) {
+                    optimize(((ForTemplateBlock) templateBlock).getBinder());
+                } else if (templateBlock instanceof TemplateBlockBinder) {
+                    optimize((TemplateBlockBinder) templateBlock);
+                }
+
+                addPendingText(result, pendingText);
+                result.add(templateBlock);
+
+            }
+
+        }
+
+        addPendingText(result, pendingText);
+
+        return result;
+    }
+
+    private static void addPendingText(List<TemplateBlock> result, StringBuilder pendingText) {
+        if (pendingText.length() > 0) {
+            result.add(new PlainTextTemplateBlock(pendingText.toString()));
+            pendingText.setLength(0);
+        }
+    }
+
+    /**
+     * Evaluates the expression of a variable text block if it's constant.
+     *
+     * @param templateBlock the variable text block
+     * @return the text or null if expression isn't constant or can't be evaluated
+     */
+    private static String foldVariableText(VariableTextTemplateBlock templateBlock) {
+
+        if (templateBlock.getModelPath() != null) {
+            return null;
+        }
+
+        Expression expression = templateBlock.getExpression();
+        if (!expression.isConstant()) {
+            return null;
+        }
+
+        try {
+            // null values are rendered as 'null'
+            return String.valueOf(templateBlock.getContent(EMPTY_MODEL));
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+    }
+
+    /**
+     * Evaluates the expression of an if block if it's constant.
+     *
+     * @param templateBlock the if block
+     * @return the result of the expression or null if expression isn't constant or doesn't evaluate to a Boolean
+     */
+    private static Boolean foldCondition(IfTemplateBlock templateBlock) {
+
+        Expression expression = templateBlock.getExpression();
+        if (!expression.isConstant()) {
+            return null;
+        }
+
+        try {
+            Operand result = expression.evaluateExpression(EMPTY_MODEL);
+            if (Boolean.class.equals(result.getOperandsJavaType()) && result.value() != null) {
+                return (Boolean) result.value();
+            }
+        } catch (RuntimeException e) {
+            // keep if block - error will be raised at render time
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,395 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateCache;
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateTransformer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Profiles the rendering of templates.
+ * <p/>
+ * Templates are compiled by a separate {@link TemplateCache}, whose {@link TemplateTransformer} wraps every template block
+ * by a block that counts invocations, rendering time and allocated bytes.
+ * Statistics are aggregated by template, line and block type.
+ * <p/>
+ * Times and allocations are inclusive - the statistics of a for block contain the statistics of its content.
+ * Allocations are measured via the ThreadMXBean of the JVM, if it supports measuring allocated bytes of threads.
+ * Included templates are measured as a whole by their include block.
+ * <p/>
+ * Profiled templates are parsed from their template text and aren't optimized by the {@link TemplateOptimizer}, so that all blocks can be mapped to their lines.
+ * Profiling is enabled via {@link io.toolisticon.annotationprocessortoolkit.templating.TemplateProcessor#setProfiler(TemplateProfiler)}.
+ * <p/>
+ * This implementation is threadsafe.
+ */
+public class TemplateProfiler {
+
+    /**
+     * Maximal length of the template names used for template strings.
+     */
+    private static final int MAX_TEMPLATE_STRING_NAME_LENGTH = 30;
+
+    /**
+     * The statistics of all blocks of a template that are located in the same line and have the same type.
+     */
+    public static class BlockStatistics {
+
+        private final String templateName;
+        private final int line;
+        private final TemplateBlockType templateBlockType;
+
+        private final AtomicLong invocations = new AtomicLong();
+        private final AtomicLong timeNanos = new AtomicLong();
+        private final AtomicLong allocatedBytes = new AtomicLong();
+
+        private BlockStatistics(String templateName, int line, TemplateBlockType templateBlockType) {
+            this.templateName = templateName;
+            this.line = line;
+            this.templateBlockType = templateBlockType;
+        }
+
+        public String getTemplateName() {
+            return templateName;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public TemplateBlockType getTemplateBlockType() {
+            return templateBlockType;
+        }
+
+        public long getInvocations() {
+            return invocations.get();
+        }
+
+        public long getTimeNanos() {
+            return timeNanos.get();
+        }
+
+        /**
+         * Gets the allocated bytes.
+         *
+         * @return the allocated bytes or -1 if allocations can't be measured
+         */
+        public long getAllocatedBytes() {
+            return AllocationCounter.isSupported() ? allocatedBytes.get() : -1L;
+        }
+
+    }
+
+    /**
+     * Measures allocated bytes of the current thread via com.sun.management.ThreadMXBean, which isn't available on all JVMs.
+     */
+    private static class AllocationCounter {
+
+        private static final Object THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+        private static final Method GET_THREAD_ALLOCATED_BYTES = getThreadAllocatedBytesMethod();
+
+        // bytes allocated by the measurement itself
+        private static final long OVERHEAD = measureOverhead();
+
+        private static Method getThreadAllocatedBytesMethod() {
+
+            try {
+
+                Class<?> type = Class.forName("com.sun.management.ThreadMXBean");
+                if (!type.isInstance(THREAD_MX_BEAN)
+                        || !(Boolean) type.getMethod("isThreadAllocatedMemorySupported").invoke(THREAD_MX_BEAN)
+                        || !(Boolean) type.getMethod("isThreadAllocatedMemoryEnabled").invoke(THREAD_MX_BEAN)) {
+                    return null;
+                }
+
+                return type.getMethod("getThreadAllocatedBytes", long.class);
+
+            } catch (Exception e) {
+                return null;
+            } catch (LinkageError e) {
+                return null;
+            }
+
+        }
+
+        private static long measureOverhead() {
+
+            if (GET_THREAD_ALLOCATED_BYTES == null) {
+                return 0L;
+            }
+
+            long overhead = Long.MAX_VALUE;
+            for (int i = 0; i < 10; i++) {
+                long allocatedBytes = getAllocatedBytes();
+                overhead = Math.min(overhead, getAllocatedBytes() - allocatedBytes);
+            }
+
+            return overhead;
+        }
+
+        private static boolean isSupported() {
+            return GET_THREAD_ALLOCATED_BYTES != null;
+        }
+
+        /**
+         * Gets the bytes allocated by the current thread.
+         *
+         * @return the allocated bytes or 0 if allocations can't be measured
+         */
+        private static long getAllocatedBytes() {
+
+            if (GET_THREAD_ALLOCATED_BYTES == null) {
+                return 0L;
+            }
+
+            try {
+                return (Long) GET_THREAD_ALLOCATED_BYTES.invoke(THREAD_MX_BEAN, Thread.currentThread().getId());
+            } catch (Exception e) {
+                return 0L;
+            }
+
+        }
+
+    }
+
+    /**
+     * Wraps a template block and records its statistics.
+     */
+    private static class ProfilingTemplateBlock implements StreamingTemplateBlock {
+
+        private final TemplateBlock templateBlock;
+        private final BlockStatistics statistics;
+
+        private ProfilingTemplateBlock(TemplateBlock templateBlock, BlockStatistics statistics) {
+            this.templateBlock = templateBlock;
+            this.statistics = statistics;
+        }
+
+        @Override
+        public TemplateBlockType getTemplateBlockType() {
+            return templateBlock.getTemplateBlockType();
+        }
+
+        @Override
+        public String getContent(Map<String, Object> variables) {
+            return TemplateBlockBinder.renderToString(this, variables);
+        }
+
+        @Override
+        public void render(Appendable output, Map<String, Object> variables) throws IOException {
+
+            long allocatedBytes = AllocationCounter.getAllocatedBytes();
+            long startTime = System.nanoTime();
+
+            try {
+                TemplateBlockBinder.renderTemplateBlock(templateBlock, output, variables);
+            } finally {
+
+                long time = System.nanoTime() - startTime;
+                allocatedBytes = AllocationCounter.getAllocatedBytes() - allocatedBytes - AllocationCounter.OVERHEAD;
+
+                statistics.invocations.incrementAndGet();
+                statistics.timeNanos.addAndGet(time);
+                statistics.allocatedBytes.addAndGet(Math.max(0L, allocatedBytes));
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Instruments templates compiled by the cache of profiled templates.
+     */
+    private class InstrumentingTransformer implements TemplateTransformer {
+
+        @Override
+        public boolean requiresLineNumbers() {
+            return true;
+        }
+
+        @Override
+        public TemplateBlockBinder transform(String template, boolean resource, TemplateBlockBinder compiledTemplate, Map<TemplateBlock, Integer> lineNumbers) {
+
+            synchronized (TemplateProfiler.this) {
+                instrument(compiledTemplate, resource ? template : getTemplateStringName(template), lineNumbers);
+            }
+
+            return compiledTemplate;
+        }
+
+    }
+
+    private final TemplateCache profiledTemplates = new TemplateCache(TemplateCache.DEFAULT_MAX_ENTRIES, TemplateCache.DEFAULT_MAX_BYTES, new InstrumentingTransformer());
+    private final Map<String, BlockStatistics> statistics = new LinkedHashMap<String, BlockStatistics>();
+
+    /**
+     * Checks whether allocated bytes can be measured on this JVM.
+     *
+     * @return true if allocated bytes can be measured, otherwise false
+     */
+    public static boolean isAllocationMeasurementSupported() {
+        return AllocationCounter.isSupported();
+    }
+
+    /**
+     * Gets the profiled compiled template for a template string.
+     * The template is named by the beginning of its first line.
+     *
+     * @param templateString the template string
+     * @return the profiled compiled template
+     */
+    public TemplateBlockBinder getProfiledTemplate(String templateString) {
+        return profiledTemplates.getCompiledTemplate(templateString);
+    }
+
+    /**
+     * Gets the profiled compiled template for a template resource file.
+     * The template is named by its resource name.
+     *
+     * @param resourceName the name of the template resource file
+     * @return the profiled compiled template
+     * @throws IOException if resource can't be read
+     */
+    public TemplateBlockBinder getProfiledTemplateForResource(String resourceName) throws IOException {
+        return profiledTemplates.getCompiledTemplateForResource(resourceName);
+    }
+
+    private static String getTemplateStringName(String templateString) {
+
+        int endIndex = templateString.indexOf('\n');
+        if (endIndex < 0) {
+            endIndex = templateString.length();
+        }
+
+        return endIndex > MAX_TEMPLATE_STRING_NAME_LENGTH ? templateString.substring(0, MAX_TEMPLATE_STRING_NAME_LENGTH) + "..." : templateString.substring(0, endIndex);
+    }
+
+    /**
+     * Wraps all template blocks of a binder and of its nested blocks.
+     */
+    private void instrument(TemplateBlockBinder binder, String templateName, Map<TemplateBlock, Integer> lineNumbers) {
+
+        List<TemplateBlock> templateBlocks = binder.getTemplateBlocks();
+        for (int i = 0; i < templateBlocks.size(); i++) {
+
+            TemplateBlock templateBlock = templateBlocks.get(i);
+
+            if (templateBlock instanceof ForTemplateBlock) {
+                instrument(((ForTemplateBlock) templateBlock).getBinder(), templateName, lineNumbers);
+            } else if (templateBlock instanceof IfTemplateBlock) {
+                instrument(((IfTemplateBlock) templateBlock).getBinder(), templateName, lineNumbers);
+            } else if (templateBlock instanceof TemplateBlockBinder) {
+                instrument((TemplateBlockBinder) templateBlock, templateName, lineNumbers);
+            }
+
+            Integer line = lineNumbers.get(templateBlock);
+            templateBlocks.set(i, new ProfilingTemplateBlock(templateBlock, getStatistics(templateName, line != null ? line : 0, templateBlock.getTemplateBlockType())));
+
+        }
+
+    }
+
+    private BlockStatistics getStatistics(String templateName, int line, TemplateBlockType templateBlockType) {
+
+        String key = templateName + ":" + line + ":" + templateBlockType;
+
+        BlockStatistics blockStatistics = statistics.get(key);
+        if (blockStatistics == null) {
+            blockStatistics = new BlockStatistics(templateName, line, templateBlockType);
+            statistics.put(key, blockStatistics);
+        }
+
+        return blockStatistics;
+    }
+
+    /**
+     * Gets the statistics of all profiled blocks that have been rendered.
+     *
+     * @return the statistics ordered by descending time
+     */
+    public List<BlockStatistics> getStatistics() {
+
+        List<BlockStatistics> result = new ArrayList<BlockStatistics>();
+
+        synchronized (this) {
+            for (BlockStatistics blockStatistics : statistics.values()) {
+                if (blockStatistics.getInvocations() > 0) {
+                    result.add(blockStatistics);
+                }
+            }
+        }
+
+        Collections.sort(result, new Comparator<BlockStatistics>() {
+            @Override
+            public int compare(BlockStatistics o1, BlockStatistics o2) {
+                long time1 = o1.getTimeNanos();
+                long time2 = o2.getTimeNanos();
+                return time1 < time2 ? 1 : (time1 == time2 ? 0 : -1);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Writes a report of the statistics ordered by descending time.
+     *
+     * @param output the output to write to
+     * @throws IOException if output can't be written
+     */
+    public void writeReport(Appendable output) throws IOException {
+
+        output.append(String.format("%-40s %6s %-12s %12s %12s %14s%n", "Template", "Line", "Block", "Invocations", "Time [ms]", "Allocated [KB]"));
+
+        for (BlockStatistics blockStatistics : getStatistics()) {
+            output.append(String.format("%-40s %6d %-12s %12d %12.3f %14s%n",
+                    blockStatistics.getTemplateName(),
+                    blockStatistics.getLine(),
+                    blockStatistics.getTemplateBlockType(),
+                    blockStatistics.getInvocations(),
+                    blockStatistics.getTimeNanos() / 1000000.0,
+                    blockStatistics.getAllocatedBytes() >= 0 ? String.valueOf(blockStatistics.getAllocatedBytes() / 1024) : "n/a"));
+        }
+
+    }
+
+    /**
+     * Gets a report of the statistics ordered by descending time.
+     *
+     * @return the report
+     */
+    public String getReport() {
+
+        StringBuilder report = new StringBuilder();
+        try {
+            writeReport(report);
+        } catch (IOException e) {
+            // can't happen when writing to a StringBuilder
+            throw new IllegalStateException(e);
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * Removes all profiled templates and their statistics.
+     */
+    public void reset() {
+
+        profiledTemplates.clear();
+
+        synchronized (this) {
+            statistics.clear();
+        }
+
+    }
+
+}
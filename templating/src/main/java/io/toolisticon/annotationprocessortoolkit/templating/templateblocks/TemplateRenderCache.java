@@ -0,0 +1,463 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateCache;
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateTransformer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache for rendered sub trees of templates.
+ * <p/>
+ * Templates compiled by this cache memoize the rendered output of for block bodies, if block bodies and include blocks.
+ * The input of a sub tree are the values it evaluates while it's rendered, for example the value of 'item.name' - the input is evaluated in the
+ * same order as the sub tree would be rendered: if conditions are evaluated first and the bodies of if blocks just contribute to the input if
+ * their condition is true, so model paths of branches that aren't taken are never resolved.
+ * If a sub tree is rendered again with equal inputs, the previously rendered output is reused - for example in the next round of an incremental build.
+ * <p/>
+ * Only immutable values - strings, boxed primitives, big numbers, enums and loop statuses - are used as inputs, so the cache never keeps
+ * model objects alive and changes of mutable model objects are detected. Sub trees that evaluate other values are rendered without the cache.
+ * If an input can't be evaluated, the exception is thrown like it's thrown while rendering the sub tree and nothing is cached.
+ * Sub trees containing for blocks or recursive includes aren't memoized as a whole - just the bodies of their for blocks.
+ * <p/>
+ * The cache is bounded by the number of entries and by the estimated number of bytes of the rendered outputs.
+ * If one of the bounds is exceeded, the least recently used entries will be evicted.
+ * Compiled templates are kept in a separate bounded {@link TemplateCache}.
+ * Rendering via the cache is enabled by {@link io.toolisticon.annotationprocessortoolkit.templating.TemplateProcessor#setRenderCache(TemplateRenderCache)}.
+ * <p/>
+ * This implementation is threadsafe.
+ */
+public class TemplateRenderCache {
+
+    /**
+     * The default maximal number of cached outputs.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    /**
+     * The default maximal number of bytes of cached outputs.
+     */
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024L * 1024L;
+
+    /**
+     * The types of values that are immutable and compared by value.
+     */
+    private static final Set<Class<?>> IMMUTABLE_VALUE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigInteger.class, BigDecimal.class, ForLoopStatus.class));
+
+    /**
+     * Variable name of the model passed to included templates.
+     */
+    private static final String INCLUDE_MODEL_VARIABLE_NAME = "model";
+
+    /**
+     * Key of a cached output - the sub tree and its input.
+     */
+    private static class RenderKey {
+
+        private final MemoizingTemplateBlockBinder subTree;
+        private final Object[] values;
+        private final int hashCode;
+
+        private RenderKey(MemoizingTemplateBlockBinder subTree, Object[] values) {
+            this.subTree = subTree;
+            this.values = values;
+            this.hashCode = 31 * System.identityHashCode(subTree) + Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RenderKey)) {
+                return false;
+            }
+
+            RenderKey renderKey = (RenderKey) o;
+            return subTree == renderKey.subTree && hashCode == renderKey.hashCode && Arrays.equals(values, renderKey.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Binder that renders its template blocks via the cache.
+     */
+    private static class MemoizingTemplateBlockBinder extends TemplateBlockBinder {
+
+        private final TemplateRenderCache renderCache;
+
+        private MemoizingTemplateBlockBinder(TemplateRenderCache renderCache) {
+            super(null);
+            this.renderCache = renderCache;
+        }
+
+        @Override
+        public void render(Appendable output, Map<String, Object> variables) throws IOException {
+
+            List<Object> values = new ArrayList<Object>();
+
+            // other values can't be compared safely and mustn't be kept alive
+            if (!addInput(values, this, variables)) {
+                super.render(output, variables);
+                return;
+            }
+
+            RenderKey key = new RenderKey(this, values.toArray());
+
+            String renderedOutput = renderCache.lookup(key);
+            if (renderedOutput == null) {
+
+                StringBuilder stringBuilder = new StringBuilder();
+                super.render(stringBuilder, variables);
+
+                renderedOutput = stringBuilder.toString();
+                renderCache.store(key, renderedOutput);
+
+            }
+
+            output.append(renderedOutput);
+
+        }
+
+    }
+
+    /**
+     * Memoizes templates compiled by the cache of compiled templates.
+     */
+    private class MemoizingTransformer implements TemplateTransformer {
+
+        @Override
+        public boolean requiresLineNumbers() {
+            return false;
+        }
+
+        @Override
+        public TemplateBlockBinder transform(String template, boolean resource, TemplateBlockBinder compiledTemplate, Map<TemplateBlock, Integer> lineNumbers) {
+            memoize(compiledTemplate);
+            return compiledTemplate;
+        }
+
+    }
+
+    private final TemplateCache compiledTemplates = new TemplateCache(TemplateCache.DEFAULT_MAX_ENTRIES, TemplateCache.DEFAULT_MAX_BYTES, new MemoizingTransformer());
+    private final LinkedHashMap<RenderKey, String> entries = new LinkedHashMap<RenderKey, String>(16, 0.75f, true);
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private long currentBytes = 0L;
+
+    /**
+     * Creates a new cache with default bounds.
+     */
+    public TemplateRenderCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxEntries the maximal number of cached outputs
+     * @param maxBytes   the maximal number of bytes of cached outputs
+     * @throws IllegalArgumentException if one of the passed bounds is negative
+     */
+    public TemplateRenderCache(int maxEntries, long maxBytes) {
+
+        if (maxEntries < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("maxEntries and maxBytes must not be negative");
+        }
+
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the memoizing compiled template for a template string.
+     *
+     * @param templateString the template string
+     * @return the compiled template
+     */
+    public TemplateBlockBinder getCompiledTemplate(String templateString) {
+        return compiledTemplates.getCompiledTemplate(templateString);
+    }
+
+    /**
+     * Gets the memoizing compiled template for a template resource file.
+     *
+     * @param resourceName the name of the template resource file
+     * @return the compiled template
+     * @throws IOException if resource can't be read
+     */
+    public TemplateBlockBinder getCompiledTemplateForResource(String resourceName) throws IOException {
+        return compiledTemplates.getCompiledTemplateForResource(resourceName);
+    }
+
+    /**
+     * Replaces the bodies of for blocks and if blocks and the include blocks by memoizing binders.
+     */
+    private void memoize(TemplateBlockBinder binder) {
+
+        List<TemplateBlock> templateBlocks = binder.getTemplateBlocks();
+        for (int i = 0; i < templateBlocks.size(); i++) {
+
+            TemplateBlock templateBlock = templateBlocks.get(i);
+
+            if (templateBlock instanceof ForTemplateBlock) {
+
+                ForTemplateBlock forTemplateBlock = (ForTemplateBlock) templateBlock;
+                memoize(forTemplateBlock.getBinder());
+
+                if (isMemoizable(forTemplateBlock.getBinder())) {
+                    forTemplateBlock.setBinder(createMemoizingBinder(forTemplateBlock.getBinder().getTemplateBlocks()));
+                }
+
+            } else if (templateBlock instanceof IfTemplateBlock) {
+
+                IfTemplateBlock ifTemplateBlock = (IfTemplateBlock) templateBlock;
+                memoize(ifTemplateBlock.getBinder());
+
+                if (isMemoizable(ifTemplateBlock.getBinder())) {
+                    ifTemplateBlock.setBinder(createMemoizingBinder(ifTemplateBlock.getBinder().getTemplateBlocks()));
+                }
+
+            } else if (templateBlock instanceof IncludeTemplateBlock) {
+
+                if (isMemoizable(templateBlock)) {
+                    templateBlocks.set(i, createMemoizingBinder(Collections.singletonList(templateBlock)));
+                }
+
+            } else if (templateBlock instanceof TemplateBlockBinder) {
+                memoize((TemplateBlockBinder) templateBlock);
+            }
+
+        }
+
+    }
+
+    private MemoizingTemplateBlockBinder createMemoizingBinder(List<TemplateBlock> templateBlocks) {
+        MemoizingTemplateBlockBinder memoizingBinder = new MemoizingTemplateBlockBinder(this);
+        memoizingBinder.getTemplateBlocks().addAll(templateBlocks);
+        return memoizingBinder;
+    }
+
+    /**
+     * Checks whether the input of a template block can be evaluated without rendering it.
+     * That's not the case for for blocks, since their bodies are evaluated for each element, and for recursive includes.
+     *
+     * @param templateBlock the template block
+     * @return true if the template block can be memoized, otherwise false
+     */
+    static boolean isMemoizable(TemplateBlock templateBlock) {
+        return isMemoizable(templateBlock, Collections.newSetFromMap(new IdentityHashMap<TemplateBlockBinder, Boolean>()));
+    }
+
+    private static boolean isMemoizable(TemplateBlock templateBlock, Set<TemplateBlockBinder> includedTemplates) {
+
+        if (templateBlock instanceof PlainTextTemplateBlock || templateBlock instanceof StaticTemplateBlock || templateBlock instanceof VariableTextTemplateBlock) {
+
+            return true;
+
+        } else if (templateBlock instanceof IfTemplateBlock) {
+
+            return isMemoizable(((IfTemplateBlock) templateBlock).getBinder(), includedTemplates);
+
+        } else if (templateBlock instanceof IncludeTemplateBlock) {
+
+            TemplateBlockBinder includedTemplate = ((IncludeTemplateBlock) templateBlock).getCompiledTemplate();
+
+            // recursive includes can't be expanded
+            if (!includedTemplates.add(includedTemplate)) {
+                return false;
+            }
+
+            boolean memoizable = isMemoizable(includedTemplate, includedTemplates);
+            includedTemplates.remove(includedTemplate);
+
+            return memoizable;
+
+        } else if (templateBlock instanceof TemplateBlockBinder) {
+
+            for (TemplateBlock childTemplateBlock : ((TemplateBlockBinder) templateBlock).getTemplateBlocks()) {
+                if (!isMemoizable(childTemplateBlock, includedTemplates)) {
+                    return false;
+                }
+            }
+
+            return true;
+
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds the input of a memoizable template block - the values it evaluates while it's rendered, in the same order.
+     *
+     * @param values        the values to add the input to
+     * @param templateBlock the template block
+     * @param variables     the variables the template block is rendered with
+     * @return true if the input just consists of immutable values, otherwise false
+     */
+    private static boolean addInput(List<Object> values, TemplateBlock templateBlock, Map<String, Object> variables) {
+
+        if (templateBlock instanceof VariableTextTemplateBlock) {
+
+            VariableTextTemplateBlock variableTextTemplateBlock = (VariableTextTemplateBlock) templateBlock;
+            Object value = variableTextTemplateBlock.getModelPath() != null
+                    ? variableTextTemplateBlock.getModelPath().resolve(variables).getValue()
+                    : variableTextTemplateBlock.getExpression().evaluateExpression(variables).value();
+
+            return addValue(values, value);
+
+        } else if (templateBlock instanceof IfTemplateBlock) {
+
+            IfTemplateBlock ifTemplateBlock = (IfTemplateBlock) templateBlock;
+            boolean condition = IfTemplateBlock.evaluateCondition(ifTemplateBlock.getExpression(), ifTemplateBlock.getAccessPath(), variables);
+            values.add(condition);
+
+            // bodies of branches that aren't taken aren't evaluated
+            return !condition || addInput(values, ifTemplateBlock.getBinder(), variables);
+
+        } else if (templateBlock instanceof IncludeTemplateBlock) {
+
+            IncludeTemplateBlock includeTemplateBlock = (IncludeTemplateBlock) templateBlock;
+            if (includeTemplateBlock.getModelPath() == null) {
+                return addInput(values, includeTemplateBlock.getCompiledTemplate(), variables);
+            }
+
+            // included templates just see the included model
+            Map<String, Object> includedVariables = new HashMap<String, Object>();
+            includedVariables.put(INCLUDE_MODEL_VARIABLE_NAME, includeTemplateBlock.getModelPath().resolve(variables).getValue());
+
+            return addInput(values, includeTemplateBlock.getCompiledTemplate(), includedVariables);
+
+        } else if (templateBlock instanceof TemplateBlockBinder) {
+
+            for (TemplateBlock childTemplateBlock : ((TemplateBlockBinder) templateBlock).getTemplateBlocks()) {
+                if (!addInput(values, childTemplateBlock, variables)) {
+                    return false;
+                }
+            }
+
+        }
+
+        // plain texts don't have an input
+        return true;
+    }
+
+    private static boolean addValue(List<Object> values, Object value) {
+
+        if (!isImmutableValue(value)) {
+            return false;
+        }
+
+        values.add(value);
+        return true;
+    }
+
+    private static boolean isImmutableValue(Object value) {
+        return value == null || value instanceof Enum || IMMUTABLE_VALUE_TYPES.contains(value.getClass());
+    }
+
+    private synchronized String lookup(RenderKey key) {
+
+        String renderedOutput = entries.get(key);
+        if (renderedOutput != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+
+        return renderedOutput;
+    }
+
+    private synchronized void store(RenderKey key, String renderedOutput) {
+
+        long weight = 2L * renderedOutput.length();
+
+        // outputs that exceed the bounds on their own won't be cached
+        if (maxEntries == 0 || weight > maxBytes) {
+            return;
+        }
+
+        String previousOutput = entries.put(key, renderedOutput);
+        if (previousOutput != null) {
+            currentBytes -= 2L * previousOutput.length();
+        }
+        currentBytes += weight;
+
+        Iterator<String> iterator = entries.values().iterator();
+        while (iterator.hasNext() && (entries.size() > maxEntries || currentBytes > maxBytes)) {
+
+            String evictedOutput = iterator.next();
+            iterator.remove();
+
+            currentBytes -= 2L * evictedOutput.length();
+            evictionCount.incrementAndGet();
+
+        }
+
+    }
+
+    /**
+     * Removes all cached outputs.
+     * Compiled templates and counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0L;
+    }
+
+    /**
+     * Gets the number of cached outputs.
+     *
+     * @return the number of cached outputs
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the estimated number of bytes of all cached outputs.
+     *
+     * @return the estimated number of bytes
+     */
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+}
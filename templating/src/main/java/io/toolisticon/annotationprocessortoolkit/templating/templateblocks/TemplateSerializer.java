@@ -0,0 +1,315 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidPrecompiledTemplateException;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Serializes compiled templates into a compact binary format and reads them back.
+ * <p/>
+ * The format starts with a magic number, a version and the {@link SourceFingerprint} of the template resource followed by the template block tree.
+ * The fingerprint allows to detect precompiled templates that are stale because their template resource has changed.
+ * Each block is written as a tag byte followed by its attributes, strings are written as length prefixed UTF-8 bytes.
+ * <p/>
+ * Expressions and model paths are stored as strings and are parsed again while reading, the costly tokenizing of the template text is skipped.
+ * Included templates are stored by their resource name and are compiled via the {@link io.toolisticon.annotationprocessortoolkit.templating.TemplateCache} while reading.
+ * The template strings of for and if blocks aren't stored.
+ */
+public final class TemplateSerializer {
+
+    /**
+     * Magic number of serialized templates - the bytes of 'TPLC'.
+     */
+    static final int MAGIC = 0x54504C43;
+
+    /**
+     * Version of the format - must be increased on incompatible changes.
+     */
+    static final int VERSION = 4;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte TAG_PLAIN_TEXT = 1;
+    private static final byte TAG_STATIC = 2;
+    private static final byte TAG_DYNAMIC_TEXT = 3;
+    private static final byte TAG_IF = 4;
+    private static final byte TAG_FOR = 5;
+    private static final byte TAG_INCLUDE = 6;
+    private static final byte TAG_BINDER = 7;
+
+    /**
+     * Hidden constructor.
+     */
+    private TemplateSerializer() {
+
+    }
+
+    /**
+     * Size of the header - magic number, version and fingerprint.
+     */
+    private static final int HEADER_SIZE = 32;
+
+    /**
+     * Writes a compiled template to an output stream.
+     * The stream won't be closed.
+     *
+     * @param binder            the compiled template
+     * @param sourceFingerprint the fingerprint of the template resource the template has been compiled from
+     * @param outputStream      the stream to write to
+     * @throws IOException if stream can't be written
+     */
+    public static void serialize(TemplateBlockBinder binder, SourceFingerprint sourceFingerprint, OutputStream outputStream) throws IOException {
+
+        if (binder == null || sourceFingerprint == null) {
+            throw new IllegalArgumentException("binder and sourceFingerprint must not be null");
+        }
+
+        DataOutputStream output = new DataOutputStream(outputStream);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(sourceFingerprint.getLength());
+        output.writeLong(sourceFingerprint.getLastModified());
+        output.writeLong(sourceFingerprint.getChecksum());
+        writeTemplateBlocks(output, binder.getTemplateBlocks());
+        output.flush();
+
+    }
+
+    /**
+     * Reads the fingerprint of the template resource a serialized template has been compiled from.
+     * The position of the buffer isn't changed.
+     *
+     * @param buffer the buffer to read from, will be read from its current position
+     * @return the fingerprint
+     * @throws InvalidPrecompiledTemplateException if buffer doesn't contain a serialized template of the current version
+     */
+    public static SourceFingerprint readSourceFingerprint(ByteBuffer buffer) {
+
+        int position = buffer.position();
+        checkHeader(buffer, position);
+
+        return new SourceFingerprint(buffer.getLong(position + 8), buffer.getLong(position + 16), buffer.getLong(position + 24));
+    }
+
+    /**
+     * Reads a compiled template from a buffer.
+     * The fingerprint of the template resource isn't checked.
+     *
+     * @param buffer the buffer to read from, will be read from its current position
+     * @return the compiled template
+     * @throws InvalidPrecompiledTemplateException if buffer doesn't contain a serialized template of the current version
+     */
+    public static TemplateBlockBinder deserialize(ByteBuffer buffer) {
+
+        checkHeader(buffer, buffer.position());
+        buffer.position(buffer.position() + HEADER_SIZE);
+
+        try {
+
+            TemplateBlockBinder binder = readTemplateBlocks(buffer);
+
+            if (buffer.hasRemaining()) {
+                throw new InvalidPrecompiledTemplateException("Precompiled template has unexpected trailing data");
+            }
+
+            return binder;
+
+        } catch (BufferUnderflowException e) {
+            throw new InvalidPrecompiledTemplateException("Precompiled template is truncated", e);
+        }
+
+    }
+
+    private static void checkHeader(ByteBuffer buffer, int position) {
+
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(position) != MAGIC) {
+            throw new InvalidPrecompiledTemplateException("Data isn't a precompiled template");
+        }
+
+        int version = buffer.getInt(position + 4);
+        if (version != VERSION) {
+            throw new InvalidPrecompiledTemplateException("Unsupported version of precompiled template : " + version);
+        }
+
+    }
+
+    private static void writeTemplateBlocks(DataOutputStream output, List<TemplateBlock> templateBlocks) throws IOException {
+
+        output.writeInt(templateBlocks.size());
+        for (TemplateBlock templateBlock : templateBlocks) {
+            writeTemplateBlock(output, templateBlock);
+        }
+
+    }
+
+    private static void writeTemplateBlock(DataOutputStream output, TemplateBlock templateBlock) throws IOException {
+
+        if (templateBlock instanceof PlainTextTemplateBlock) {
+
+            output.writeByte(TAG_PLAIN_TEXT);
+            writeString(output, templateBlock.getContent(null));
+
+        } else if (templateBlock instanceof StaticTemplateBlock) {
+
+            output.writeByte(TAG_STATIC);
+            writeString(output, templateBlock.getContent(null));
+
+        } else if (templateBlock instanceof VariableTextTemplateBlock) {
+
+            output.writeByte(TAG_DYNAMIC_TEXT);
+            writeString(output, ((VariableTextTemplateBlock) templateBlock).getAccessPath());
+
+        } else if (templateBlock instanceof IfTemplateBlock) {
+
+            IfTemplateBlock ifTemplateBlock = (IfTemplateBlock) templateBlock;
+            output.writeByte(TAG_IF);
+            writeString(output, ifTemplateBlock.getAccessPath());
+            writeTemplateBlocks(output, ifTemplateBlock.getBinder().getTemplateBlocks());
+
+        } else if (templateBlock instanceof ForTemplateBlock) {
+
+            ForTemplateBlock forTemplateBlock = (ForTemplateBlock) templateBlock;
+            output.writeByte(TAG_FOR);
+            writeString(output, forTemplateBlock.getLoopVariableName());
+            writeString(output, forTemplateBlock.getAccessPath());
+            output.writeInt(forTemplateBlock.getLimit());
+            output.writeBoolean(forTemplateBlock.isParallel());
+            output.writeBoolean(forTemplateBlock.getLoopStatusVariableName() != null);
+            if (forTemplateBlock.getLoopStatusVariableName() != null) {
+                writeString(output, forTemplateBlock.getLoopStatusVariableName());
+            }
+            writeTemplateBlocks(output, forTemplateBlock.getBinder().getTemplateBlocks());
+
+        } else if (templateBlock instanceof IncludeTemplateBlock) {
+
+            IncludeTemplateBlock includeTemplateBlock = (IncludeTemplateBlock) templateBlock;
+            output.writeByte(TAG_INCLUDE);
+            writeString(output, includeTemplateBlock.getTemplateResource());
+            output.writeBoolean(includeTemplateBlock.getModelAccessPath() != null);
+            if (includeTemplateBlock.getModelAccessPath() != null) {
+                writeString(output, includeTemplateBlock.getModelAccessPath());
+            }
+
+        } else if (templateBlock instanceof TemplateBlockBinder) {
+
+            output.writeByte(TAG_BINDER);
+            writeTemplateBlocks(output, ((TemplateBlockBinder) templateBlock).getTemplateBlocks());
+
+        } else {
+            throw new IllegalArgumentException("Unsupported template block type : " + templateBlock.getClass().getCanonicalName());
+        }
+
+    }
+
+    private static TemplateBlockBinder readTemplateBlocks(ByteBuffer buffer) {
+
+        int numberOfTemplateBlocks = buffer.getInt();
+        if (numberOfTemplateBlocks < 0) {
+            throw new InvalidPrecompiledTemplateException("Precompiled template contains invalid number of blocks : " + numberOfTemplateBlocks);
+        }
+
+        TemplateBlockBinder binder = new TemplateBlockBinder("");
+        for (int i = 0; i < numberOfTemplateBlocks; i++) {
+            binder.addTemplateBlock(readTemplateBlock(buffer));
+        }
+
+        return binder;
+    }
+
+    private static TemplateBlock readTemplateBlock(ByteBuffer buffer) {
+
+        byte tag = buffer.get();
+        switch (tag) {
+
+            case TAG_PLAIN_TEXT:
+                return new PlainTextTemplateBlock(readString(buffer));
+
+            case TAG_STATIC:
+                return new StaticTemplateBlock(readString(buffer));
+
+            case TAG_DYNAMIC_TEXT:
+                return new VariableTextTemplateBlock(readString(buffer));
+
+            case TAG_IF: {
+                IfTemplateBlock ifTemplateBlock = new IfTemplateBlock(readString(buffer), "");
+                ifTemplateBlock.setBinder(readTemplateBlocks(buffer));
+                return ifTemplateBlock;
+            }
+
+            case TAG_FOR: {
+                String loopVariableName = readString(buffer);
+                String accessPath = readString(buffer);
+                int limit = buffer.getInt();
+                boolean parallel = buffer.get() != 0;
+                String loopStatusVariableName = buffer.get() != 0 ? readString(buffer) : null;
+
+                StringBuilder attributeString = new StringBuilder();
+                attributeString.append(loopVariableName).append(" : ").append(accessPath);
+                if (limit >= 0) {
+                    attributeString.append(", ").append(ForTemplateBlock.ATTRIBUTE_NAME_LIMIT).append(" : '").append(limit).append("'");
+                }
+                if (parallel) {
+                    attributeString.append(", ").append(ForTemplateBlock.ATTRIBUTE_NAME_PARALLEL).append(" : 'true'");
+                }
+                if (loopStatusVariableName != null) {
+                    attributeString.append(", ").append(ForTemplateBlock.ATTRIBUTE_NAME_STATUS).append(" : '").append(loopStatusVariableName).append("'");
+                }
+
+                ForTemplateBlock forTemplateBlock = new ForTemplateBlock(attributeString.toString(), "");
+                forTemplateBlock.setBinder(readTemplateBlocks(buffer));
+                return forTemplateBlock;
+            }
+
+            case TAG_INCLUDE: {
+                String attributeString = IncludeTemplateBlock.ATTRIBUTE_NAME_RESOURCE + " : '" + readString(buffer) + "'";
+                if (buffer.get() != 0) {
+                    attributeString += ", " + IncludeTemplateBlock.ATTRIBUTE_NAME_MODEL + " : '" + readString(buffer) + "'";
+                }
+                return new IncludeTemplateBlock(attributeString);
+            }
+
+            case TAG_BINDER:
+                return readTemplateBlocks(buffer);
+
+            default:
+                throw new InvalidPrecompiledTemplateException("Precompiled template contains unknown block tag : " + tag);
+        }
+
+    }
+
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+
+        byte[] bytes = string.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+
+    }
+
+    private static String readString(ByteBuffer buffer) {
+
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new InvalidPrecompiledTemplateException("Precompiled template contains invalid string length : " + length);
+        }
+
+        String string;
+        if (buffer.hasArray()) {
+            // decode heap buffers without copying
+            string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            string = new String(bytes, UTF_8);
+        }
+
+        return string;
+    }
+
+}
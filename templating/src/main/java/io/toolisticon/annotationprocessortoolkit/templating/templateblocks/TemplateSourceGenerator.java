@@ -0,0 +1,325 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.ParseUtilities;
+
+import java.util.List;
+
+/**
+ * Generates the java source of a class implementing {@link io.toolisticon.annotationprocessortoolkit.templating.CompiledTemplate} from a compiled template.
+ * <p/>
+ * The generated class renders the template without interpreting the template block tree:
+ * <ul>
+ * <li>text becomes string constants</li>
+ * <li>expressions and model paths are parsed once in static fields</li>
+ * <li>if blocks become if statements and for blocks become plain java loops</li>
+ * </ul>
+ * The source can be written by annotation processors or build tools to compile hot templates at build time.
+ * For blocks with the parallel attribute are rendered sequentially, included templates are rendered by their compiled template.
+ * <p/>
+ * Large block lists - on top level as well as in the bodies of if and for blocks - are rendered by separate methods
+ * and the static fields are grouped in nested holder classes, so generated methods and static initializers stay below the code size limits of the class file format.
+ */
+public final class TemplateSourceGenerator {
+
+    /**
+     * Maximal number of chars of a generated string constant - the class file format limits constants to 65535 bytes.
+     */
+    private static final int MAX_TEXT_CONSTANT_LENGTH = 16 * 1024;
+
+    /**
+     * Maximal number of blocks, including nested blocks, rendered by one generated method - the class file format limits the code size of methods.
+     */
+    static final int BLOCKS_PER_METHOD = 128;
+
+    /**
+     * Number of static fields per nested holder class - the class file format limits the code size of static initializers.
+     */
+    static final int FIELDS_PER_CLASS = 1024;
+
+    private static final String INDENT = "    ";
+
+    private final StringBuilder fields = new StringBuilder();
+    private final StringBuilder methods = new StringBuilder();
+    private int fieldCount = 0;
+    private int counter = 0;
+
+    /**
+     * Hidden constructor.
+     */
+    private TemplateSourceGenerator() {
+
+    }
+
+    /**
+     * Parses and optimizes the template string and generates the source of a compiled template class.
+     *
+     * @param packageName    the package of the class, may be empty or null for the default package
+     * @param className      the simple name of the class
+     * @param templateString the template string
+     * @return the java source of the class
+     */
+    public static String generate(String packageName, String className, String templateString) {
+        return generate(packageName, className, TemplateOptimizer.optimize(ParseUtilities.parseString(templateString)));
+    }
+
+    /**
+     * Generates the source of a compiled template class.
+     *
+     * @param packageName the package of the class, may be empty or null for the default package
+     * @param className   the simple name of the class
+     * @param binder      the compiled template
+     * @return the java source of the class
+     */
+    public static String generate(String packageName, String className, TemplateBlockBinder binder) {
+
+        if (className == null || className.isEmpty()) {
+            throw new IllegalArgumentException("className must not be null or empty");
+        }
+        if (binder == null) {
+            throw new IllegalArgumentException("binder must not be null");
+        }
+
+        TemplateSourceGenerator generator = new TemplateSourceGenerator();
+        String renderMethod = generator.generateRenderMethod(binder.getTemplateBlocks());
+        if (generator.fieldCount > 0) {
+            generator.fields.append(INDENT).append("}\n");
+        }
+
+        StringBuilder source = new StringBuilder();
+
+        if (packageName != null && !packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("import io.toolisticon.annotationprocessortoolkit.templating.CompiledTemplate;\n")
+                .append("import io.toolisticon.annotationprocessortoolkit.templating.ModelPath;\n")
+                .append("import io.toolisticon.annotationprocessortoolkit.templating.expressions.Expression;\n")
+                .append("import io.toolisticon.annotationprocessortoolkit.templating.expressions.ExpressionParser;\n")
+                .append("import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.ForLoop;\n")
+                .append("import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.IfTemplateBlock;\n")
+                .append("import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.IncludeTemplateBlock;\n")
+                .append("import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.VariableTextTemplateBlock;\n")
+                .append("\n")
+                .append("import java.io.IOException;\n")
+                .append("import java.util.Map;\n")
+                .append("\n")
+                .append("/**\n")
+                .append(" * Compiled template generated by the TemplateSourceGenerator.\n")
+                .append(" */\n")
+                .append("public final class ").append(className).append(" implements CompiledTemplate {\n\n")
+                .append(generator.fields)
+                .append("\n")
+                .append(renderMethod)
+                .append(generator.methods)
+                .append("}\n");
+
+        return source.toString();
+    }
+
+    private String generateRenderMethod(List<TemplateBlock> templateBlocks) {
+
+        StringBuilder renderMethod = new StringBuilder();
+        renderMethod.append(INDENT).append("@Override\n")
+                .append(INDENT).append("public void render(Appendable output, Map<String, Object> variables) throws IOException {\n");
+        generateTemplateBlocks(renderMethod, templateBlocks, "variables", 2);
+        renderMethod.append(INDENT).append("}\n");
+
+        return renderMethod.toString();
+    }
+
+    private void generateTemplateBlocks(StringBuilder code, List<TemplateBlock> templateBlocks, String variables, int indentation) {
+
+        if (countTemplateBlocks(templateBlocks) <= BLOCKS_PER_METHOD) {
+            for (TemplateBlock templateBlock : templateBlocks) {
+                generateTemplateBlock(code, templateBlock, variables, indentation);
+            }
+            return;
+        }
+
+        // split rendering of large block lists into multiple methods, large bodies of nested blocks are split again
+        int fromIndex = 0;
+        while (fromIndex < templateBlocks.size()) {
+
+            int toIndex = fromIndex;
+            int count = 0;
+            do {
+                count += countTemplateBlock(templateBlocks.get(toIndex++));
+            } while (toIndex < templateBlocks.size() && count + countTemplateBlock(templateBlocks.get(toIndex)) <= BLOCKS_PER_METHOD);
+
+            String methodName = "render" + (counter++);
+            indent(code, indentation).append(methodName).append("(output, ").append(variables).append(");\n");
+
+            StringBuilder method = new StringBuilder();
+            method.append("\n")
+                    .append(INDENT).append("private static void ").append(methodName).append("(Appendable output, Map<String, Object> ").append(variables).append(") throws IOException {\n");
+            for (TemplateBlock templateBlock : templateBlocks.subList(fromIndex, toIndex)) {
+                generateTemplateBlock(method, templateBlock, variables, 2);
+            }
+            method.append(INDENT).append("}\n");
+
+            methods.append(method);
+            fromIndex = toIndex;
+        }
+
+    }
+
+    private static int countTemplateBlocks(List<TemplateBlock> templateBlocks) {
+        int count = 0;
+        for (TemplateBlock templateBlock : templateBlocks) {
+            count += countTemplateBlock(templateBlock);
+        }
+        return count;
+    }
+
+    private static int countTemplateBlock(TemplateBlock templateBlock) {
+
+        if (templateBlock instanceof IfTemplateBlock) {
+            return 1 + countTemplateBlocks(((IfTemplateBlock) templateBlock).getBinder().getTemplateBlocks());
+        } else if (templateBlock instanceof ForTemplateBlock) {
+            return 1 + countTemplateBlocks(((ForTemplateBlock) templateBlock).getBinder().getTemplateBlocks());
+        } else if (templateBlock instanceof TemplateBlockBinder) {
+            return countTemplateBlocks(((TemplateBlockBinder) templateBlock).getTemplateBlocks());
+        }
+
+        return 1;
+    }
+
+    private void generateTemplateBlock(StringBuilder code, TemplateBlock templateBlock, String variables, int indentation) {
+
+        if (templateBlock instanceof PlainTextTemplateBlock || templateBlock instanceof StaticTemplateBlock) {
+
+            String text = templateBlock.getContent(null);
+            for (int beginIndex = 0; beginIndex < text.length(); beginIndex += MAX_TEXT_CONSTANT_LENGTH) {
+                String constant = addField("String", "TEXT", toStringLiteral(text.substring(beginIndex, Math.min(beginIndex + MAX_TEXT_CONSTANT_LENGTH, text.length()))));
+                indent(code, indentation).append("output.append(").append(constant).append(");\n");
+            }
+
+        } else if (templateBlock instanceof VariableTextTemplateBlock) {
+
+            VariableTextTemplateBlock variableTextTemplateBlock = (VariableTextTemplateBlock) templateBlock;
+            if (variableTextTemplateBlock.getModelPath() != null) {
+                String modelPath = addField("ModelPath", "MODEL_PATH", "new ModelPath(" + toStringLiteral(variableTextTemplateBlock.getModelPath().getPath()) + ")");
+                indent(code, indentation).append("output.append(VariableTextTemplateBlock.evaluatePath(").append(modelPath).append(", ").append(variables).append("));\n");
+            } else {
+                String expression = addExpressionField(variableTextTemplateBlock.getAccessPath());
+                indent(code, indentation).append("output.append(VariableTextTemplateBlock.evaluateText(").append(expression).append(", ").append(variables).append("));\n");
+            }
+
+        } else if (templateBlock instanceof IfTemplateBlock) {
+
+            IfTemplateBlock ifTemplateBlock = (IfTemplateBlock) templateBlock;
+            String expression = addExpressionField(ifTemplateBlock.getAccessPath());
+
+            indent(code, indentation).append("if (IfTemplateBlock.evaluateCondition(").append(expression).append(", ").append(toStringLiteral(ifTemplateBlock.getAccessPath())).append(", ").append(variables).append(")) {\n");
+            generateTemplateBlocks(code, ifTemplateBlock.getBinder().getTemplateBlocks(), variables, indentation + 1);
+            indent(code, indentation).append("}\n");
+
+        } else if (templateBlock instanceof ForTemplateBlock) {
+
+            ForTemplateBlock forTemplateBlock = (ForTemplateBlock) templateBlock;
+            String modelPath = addField("ModelPath", "MODEL_PATH", "new ModelPath(" + toStringLiteral(forTemplateBlock.getAccessPath()) + ")");
+
+            int loopNumber = counter++;
+            String loop = "loop" + loopNumber;
+            String loopVariables = "variables" + loopNumber;
+
+            indent(code, indentation).append("ForLoop ").append(loop).append(" = ForLoop.start(").append(modelPath).append(", ").append(variables).append(", ").append(forTemplateBlock.getLimit()).append(");\n");
+            indent(code, indentation).append("while (").append(loop).append(".next()) {\n");
+            indent(code, indentation + 1).append("Map<String, Object> ").append(loopVariables).append(" = ").append(loop).append(".bind(").append(variables).append(", ")
+                    .append(toStringLiteral(forTemplateBlock.getLoopVariableName())).append(", ").append(forTemplateBlock.getLoopStatusVariableName() != null ? toStringLiteral(forTemplateBlock.getLoopStatusVariableName()) : "null").append(");\n");
+            generateTemplateBlocks(code, forTemplateBlock.getBinder().getTemplateBlocks(), loopVariables, indentation + 1);
+            indent(code, indentation).append("}\n");
+
+        } else if (templateBlock instanceof IncludeTemplateBlock) {
+
+            IncludeTemplateBlock includeTemplateBlock = (IncludeTemplateBlock) templateBlock;
+            String attributeString = IncludeTemplateBlock.ATTRIBUTE_NAME_RESOURCE + " : '" + includeTemplateBlock.getTemplateResource() + "'"
+                    + (includeTemplateBlock.getModelAccessPath() != null ? ", " + IncludeTemplateBlock.ATTRIBUTE_NAME_MODEL + " : '" + includeTemplateBlock.getModelAccessPath() + "'" : "");
+            String include = addField("IncludeTemplateBlock", "INCLUDE", "new IncludeTemplateBlock(" + toStringLiteral(attributeString) + ")");
+
+            indent(code, indentation).append(include).append(".render(output, ").append(variables).append(");\n");
+
+        } else if (templateBlock instanceof TemplateBlockBinder) {
+
+            generateTemplateBlocks(code, ((TemplateBlockBinder) templateBlock).getTemplateBlocks(), variables, indentation);
+
+        } else {
+            throw new IllegalArgumentException("Unsupported template block type : " + templateBlock.getClass().getCanonicalName());
+        }
+
+    }
+
+    private String addExpressionField(String expressionString) {
+        return addField("Expression", "EXPRESSION", "ExpressionParser.parseExpression(" + toStringLiteral(expressionString) + ")");
+    }
+
+    private String addField(String type, String namePrefix, String initializer) {
+
+        // each holder class is initialized by its own static initializer
+        String holder = "Fields" + (fieldCount / FIELDS_PER_CLASS);
+        if (fieldCount % FIELDS_PER_CLASS == 0) {
+            if (fieldCount > 0) {
+                fields.append(INDENT).append("}\n\n");
+            }
+            fields.append(INDENT).append("private static final class ").append(holder).append(" {\n");
+        }
+        fieldCount++;
+
+        String name = namePrefix + "_" + (counter++);
+        indent(fields, 2).append("static final ").append(type).append(" ").append(name).append(" = ").append(initializer).append(";\n");
+
+        return holder + "." + name;
+    }
+
+    private static StringBuilder indent(StringBuilder code, int indentation) {
+        for (int i = 0; i < indentation; i++) {
+            code.append(INDENT);
+        }
+        return code;
+    }
+
+    /**
+     * Creates a java string literal.
+     *
+     * @param string the string
+     * @return the java string literal including quotes
+     */
+    static String toStringLiteral(String string) {
+
+        StringBuilder literal = new StringBuilder(string.length() + 2);
+        literal.append('"');
+
+        for (int i = 0; i < string.length(); i++) {
+
+            char c = string.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+
+        }
+
+        literal.append('"');
+        return literal.toString();
+    }
+
+}
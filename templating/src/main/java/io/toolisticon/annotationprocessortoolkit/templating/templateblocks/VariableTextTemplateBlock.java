@@ -1,24 +1,86 @@
 package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
 
+import io.toolisticon.annotationprocessortoolkit.templating.ModelPath;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.Expression;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.ExpressionParser;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.Operand;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
- *
+ * Variable text template block.
+ * The expression is parsed once at creation time, so invalid expressions are reported when the template is compiled - even if the block is never rendered.
+ * <p/>
+ * Plain model paths like ${model.name} are the most common variable texts. They are resolved directly via their {@link ModelPath}
+ * without using the expression engine.
  */
-public class VariableTextTemplateBlock implements TemplateBlock {
+public class VariableTextTemplateBlock implements StreamingTemplateBlock {
 
 
     private final String accessPath;
+    private final ModelPath modelPath;
+
+    // parsed lazily for plain model paths
+    private volatile Expression expression;
 
     public VariableTextTemplateBlock(String accessPath) {
         if (accessPath == null || accessPath.trim().isEmpty()) {
             throw new IllegalArgumentException("Passed accessPath must not be null or empty");
         }
         this.accessPath = accessPath;
+
+        String trimmedAccessPath = accessPath.trim();
+        if (isModelPath(trimmedAccessPath)) {
+            this.modelPath = new ModelPath(trimmedAccessPath);
+        } else {
+            this.modelPath = null;
+            this.expression = ExpressionParser.parseExpression(accessPath);
+        }
+    }
+
+    /**
+     * Checks whether the passed string is a plain model path like 'model.name'.
+     * Literals like 'true', 'null' or numbers aren't model paths.
+     *
+     * @param accessPath the trimmed access path
+     * @return true if access path is a plain model path, otherwise false
+     */
+    static boolean isModelPath(String accessPath) {
+
+        boolean digitsOnly = true;
+        int dots = 0;
+        char previousChar = '.';
+
+        for (int i = 0; i < accessPath.length(); i++) {
+
+            char c = accessPath.charAt(i);
+            if (c == '.') {
+                if (previousChar == '.') {
+                    return false;
+                }
+                dots++;
+            } else if (c >= '0' && c <= '9') {
+                // digits are part of a word
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_') {
+                digitsOnly = false;
+            } else {
+                return false;
+            }
+            previousChar = c;
+
+        }
+
+        if (previousChar == '.') {
+            return false;
+        }
+
+        // exclude long and double literals
+        if (digitsOnly && dots <= 1) {
+            return false;
+        }
+
+        return !"true".equals(accessPath) && !"false".equals(accessPath) && !"null".equals(accessPath);
     }
 
 
@@ -29,17 +91,62 @@ public class VariableTextTemplateBlock implements TemplateBlock {
 
     @Override
     public String getContent(Map<String, Object> variables) {
+        return modelPath != null ? evaluatePath(modelPath, variables) : evaluateText(expression, variables);
+    }
+
+    @Override
+    public void render(Appendable output, Map<String, Object> variables) throws IOException {
+        output.append(modelPath != null ? evaluatePath(modelPath, variables) : evaluateText(expression, variables));
+    }
 
+    /**
+     * Evaluates the expression of a variable text block.
+     *
+     * @param expression the parsed expression
+     * @param variables  the variables to evaluate the expression with
+     * @return the text or null if expression evaluates to null
+     */
+    public static String evaluateText(Expression expression, Map<String, Object> variables) {
 
-        Expression expression = ExpressionParser.parseExpression(accessPath, variables);
-        Operand result = expression.evaluateExpression();
+        Operand result = expression.evaluateExpression(variables);
 
         return result.value() != null ? result.value().toString() : null;
 
     }
 
+    /**
+     * Evaluates a plain model path of a variable text block.
+     *
+     * @param modelPath the model path
+     * @param variables the variables to resolve the model path with
+     * @return the text or null if model path resolves to null
+     */
+    public static String evaluatePath(ModelPath modelPath, Map<String, Object> variables) {
+
+        Object value = modelPath.resolve(variables).getValue();
+
+        return value != null ? value.toString() : null;
+
+    }
+
     protected String getAccessPath() {
         return this.accessPath;
     }
+
+    /**
+     * Gets the model path of plain model path blocks.
+     *
+     * @return the model path or null if block uses an expression
+     */
+    public ModelPath getModelPath() {
+        return modelPath;
+    }
+
+    public Expression getExpression() {
+        if (expression == null) {
+            expression = ExpressionParser.parseExpression(accessPath);
+        }
+        return expression;
+    }
 }
 
@@ -1,9 +1,14 @@
 package io.toolisticon.annotationprocessortoolkit.templating;
 
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidPathException;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Unit test for {@link ModelPathResolver}.
  */
@@ -88,4 +93,57 @@ public class ModelPathResolverTest {
 
     }
 
+    public static class BaseClass {
+
+        public Object getValue() {
+            return "BASE";
+        }
+
+    }
+
+    public static class CovariantReturnTypeTestClass extends BaseClass {
+
+        @Override
+        public String getValue() {
+            return "COVARIANT";
+        }
+
+    }
+
+    @Test
+    public void resolveModelPath_shouldUseMostSpecificReturnType() {
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("test", new CovariantReturnTypeTestClass());
+
+        ModelPathResolver.ResolvedModelPathResult result = ModelPathResolver.resolveModelPath(model, "test.value");
+
+        MatcherAssert.assertThat((Class) result.getType(), Matchers.equalTo((Class) String.class));
+        MatcherAssert.assertThat((String) result.getValue(), Matchers.is("COVARIANT"));
+
+    }
+
+    @Test
+    public void getGetterMethod_shouldCacheLookups() {
+
+        Method method = ModelPathResolver.getGetterMethod(GetGetterTestClass.class, "getter");
+
+        MatcherAssert.assertThat(method, Matchers.nullValue());
+        MatcherAssert.assertThat(ModelPathResolver.getGetterMethod(GetGetterTestClass.class, "getter"), Matchers.nullValue());
+
+        method = ModelPathResolver.getGetterMethod(GetGetterTestClass.class, "getGetter");
+        MatcherAssert.assertThat(ModelPathResolver.getGetterMethod(GetGetterTestClass.class, "getGetter"), Matchers.sameInstance(method));
+
+    }
+
+    @Test(expected = InvalidPathException.class)
+    public void resolveModelPath_nonResolvablePathToken() {
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("test", new GetGetterTestClass());
+
+        ModelPathResolver.resolveModelPath(model, "test.xxx");
+
+    }
+
 }
@@ -0,0 +1,65 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit test for {@link ModelPath}.
+ */
+public class ModelPathTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_nullValuedPath() {
+        new ModelPath(null);
+    }
+
+    @Test
+    public void getPathTokens_shouldSplitLikeRegexSplit() {
+
+        String[] paths = {"abc", "abc.def.ghi", "", ".", "abc..def", ".abc", "abc.", "abc.def..", " abc . def "};
+
+        for (String path : paths) {
+            MatcherAssert.assertThat(path, new ModelPath(path).getPathTokens(), Matchers.is(path.split("[.]")));
+        }
+
+    }
+
+    @Test
+    public void resolve_shouldResolveTypeAndValue() {
+
+        Map<String, Object> nested = new HashMap<String, Object>();
+        nested.put("value", "ABC");
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("nested", nested);
+
+        ModelPath unit = new ModelPath("nested.value");
+
+        ModelPathResolver.ResolvedModelPathResult result = unit.resolve(model);
+        MatcherAssert.assertThat((String) result.getValue(), Matchers.is("ABC"));
+        MatcherAssert.assertThat((Class) result.getType(), Matchers.equalTo((Class) String.class));
+
+        // can be resolved multiple times
+        nested.put("value", 5L);
+
+        result = unit.resolve(model);
+        MatcherAssert.assertThat((Long) result.getValue(), Matchers.is(5L));
+        MatcherAssert.assertThat((Class) result.getType(), Matchers.equalTo((Class) Long.class));
+
+    }
+
+    @Test
+    public void resolve_nullValuedModel() {
+        MatcherAssert.assertThat(new ModelPath("abc").resolve(null), Matchers.nullValue());
+    }
+
+    @Test
+    public void toString_shouldReturnPath() {
+        MatcherAssert.assertThat(new ModelPath("abc.def").toString(), Matchers.is("abc.def"));
+    }
+
+}
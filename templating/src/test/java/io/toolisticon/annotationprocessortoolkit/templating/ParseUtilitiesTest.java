@@ -1,12 +1,19 @@
 package io.toolisticon.annotationprocessortoolkit.templating;
 
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlock;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockType;
 import io.toolisticon.annotationprocessortoolkit.templating.testclasses.TestClass2;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -158,6 +165,60 @@ public class ParseUtilitiesTest {
 
     }
 
+    @Test
+    public void parseReader_shouldCreateSameBlocksAsParseString() throws Exception {
+
+        final String TEMPLATE_STRING = ParseUtilities.readResourceToString("/TestTemplateWithDifferentIfStatments.tpl");
+
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("xyz", true);
+
+        MatcherAssert.assertThat(ParseUtilities.parseReader(new StringReader(TEMPLATE_STRING)).getContent(values), Matchers.is(ParseUtilities.parseString(TEMPLATE_STRING).getContent(values)));
+
+    }
+
+    @Test
+    public void parseReader_withTemplateExceedingReadBuffer() throws Exception {
+
+        StringBuilder templateString = new StringBuilder();
+        StringBuilder expectedResult = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            templateString.append("!{if xyz}\n  line ").append(i).append(" : ${value}\n!{/if}!{static}${static}!{/static}");
+            expectedResult.append("  line ").append(i).append(" : äöü\n${static}");
+        }
+
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("xyz", true);
+        values.put("value", "äöü");
+
+        MatcherAssert.assertThat(ParseUtilities.parseReader(new StringReader(templateString.toString())).getContent(values), Matchers.is(expectedResult.toString()));
+
+    }
+
+    @Test(expected = IOException.class)
+    public void parseReader_shouldPassIOExceptionOfReader() throws Exception {
+
+        ParseUtilities.parseReader(new Reader() {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("failed");
+            }
+
+            @Override
+            public void close() {
+
+            }
+        });
+
+    }
+
+    @Test
+    public void readFromInputStream_shouldDecodeUtf8() throws Exception {
+
+        MatcherAssert.assertThat(ParseUtilities.readFromInputStream(new ByteArrayInputStream("äöü€".getBytes("UTF-8"))), Matchers.is("äöü€"));
+
+    }
+
     @Test
     public void trimContentString_trimContentString_Test() {
         MatcherAssert.assertThat(ParseUtilities.trimContentString("    \nabc"), Matchers.is("abc"));
@@ -181,4 +242,45 @@ public class ParseUtilitiesTest {
 
     }
 
+    @Test
+    public void parseNamedAttributes_invalidAttributeString() {
+
+        MatcherAssert.assertThat(ParseUtilities.parseNamedAttributes("abc").size(), Matchers.is(0));
+
+    }
+
+    @Test
+    public void parseString_withLineNumbers() {
+
+        String templateString = "A\n${a}\n!{for x : xs}\n  ${x}\n!{/for}\nB";
+
+        Map<TemplateBlock, Integer> lineNumbers = new IdentityHashMap<TemplateBlock, Integer>();
+        ParseUtilities.parseString(templateString, lineNumbers);
+
+        List<String> blocks = new ArrayList<String>();
+        for (Map.Entry<TemplateBlock, Integer> entry : lineNumbers.entrySet()) {
+            if (entry.getKey().getTemplateBlockType() != TemplateBlockType.PLAIN_TEXT) {
+                blocks.add(entry.getKey().getTemplateBlockType() + ":" + entry.getValue());
+            } else if (entry.getKey().getContent(null).trim().length() > 0) {
+                blocks.add(entry.getKey().getContent(null).trim() + ":" + entry.getValue());
+            }
+        }
+
+        MatcherAssert.assertThat(blocks, Matchers.containsInAnyOrder("A:1", "DYNAMIC_TEXT:2", "FOR:3", "DYNAMIC_TEXT:4", "B:5"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseString_withNullLineNumbers() {
+        ParseUtilities.parseString("A", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseString_invalidExpressionInUnusedBranch_shouldFailAtCompileTime() {
+
+        // expressions are parsed when the template is compiled, so the error is raised even if the branch is never rendered
+        ParseUtilities.parseString("!{if false}${ a + }!{/if}");
+
+    }
+
 }
@@ -0,0 +1,193 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlock;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockBinder;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit test for {@link TemplateCache}.
+ */
+public class TemplateCacheTest {
+
+    @Test
+    public void getCompiledTemplate_shouldParseTemplateOnlyOnce() {
+
+        TemplateCache unit = new TemplateCache(10, 1000L);
+
+        TemplateBlockBinder binder1 = unit.getCompiledTemplate("${test}");
+        TemplateBlockBinder binder2 = unit.getCompiledTemplate("${test}");
+
+        MatcherAssert.assertThat(binder2, Matchers.sameInstance(binder1));
+        MatcherAssert.assertThat(unit.getMissCount(), Matchers.is(1L));
+        MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(1L));
+        MatcherAssert.assertThat(unit.size(), Matchers.is(1));
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("test", "YEP");
+        MatcherAssert.assertThat(binder2.getContent(model), Matchers.is("YEP"));
+
+    }
+
+    @Test
+    public void getCompiledTemplateForResource_shouldLoadResourceOnlyOnce() throws Exception {
+
+        TemplateCache unit = new TemplateCache(10, 1000L);
+
+        TemplateBlockBinder binder1 = unit.getCompiledTemplateForResource("/TestTemplateProcessorTemplateFile.tpl");
+        TemplateBlockBinder binder2 = unit.getCompiledTemplateForResource("/TestTemplateProcessorTemplateFile.tpl");
+
+        MatcherAssert.assertThat(binder2, Matchers.sameInstance(binder1));
+        MatcherAssert.assertThat(unit.getMissCount(), Matchers.is(1L));
+        MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(1L));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getCompiledTemplateForResource_withNonExistingResource() throws Exception {
+
+        new TemplateCache(10, 1000L).getCompiledTemplateForResource("/XXX.tpl");
+
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedEntry_whenMaxEntriesIsExceeded() {
+
+        TemplateCache unit = new TemplateCache(2, 1000L);
+
+        TemplateBlockBinder binderA = unit.getCompiledTemplate("A");
+        unit.getCompiledTemplate("B");
+
+        // touch A, so B is the least recently used entry
+        unit.getCompiledTemplate("A");
+        unit.getCompiledTemplate("C");
+
+        MatcherAssert.assertThat(unit.size(), Matchers.is(2));
+        MatcherAssert.assertThat(unit.getEvictionCount(), Matchers.is(1L));
+        MatcherAssert.assertThat(unit.getCompiledTemplate("A"), Matchers.sameInstance(binderA));
+
+        long missCount = unit.getMissCount();
+        unit.getCompiledTemplate("B");
+        MatcherAssert.assertThat(unit.getMissCount(), Matchers.is(missCount + 1));
+
+    }
+
+    @Test
+    public void evictEntries_whenMaxBytesIsExceeded() {
+
+        // each template string is counted twice with two bytes per char
+        TemplateCache unit = new TemplateCache(10, 20L);
+
+        unit.getCompiledTemplate("AAAA");
+        unit.getCompiledTemplate("BBBB");
+        MatcherAssert.assertThat(unit.getCurrentBytes(), Matchers.is(16L));
+        MatcherAssert.assertThat(unit.size(), Matchers.is(1));
+        MatcherAssert.assertThat(unit.getEvictionCount(), Matchers.is(1L));
+
+    }
+
+    @Test
+    public void doNotCacheEntriesThatExceedBounds() {
+
+        TemplateCache unit = new TemplateCache(10, 4L);
+
+        unit.getCompiledTemplate("AAAA");
+        MatcherAssert.assertThat(unit.size(), Matchers.is(0));
+        MatcherAssert.assertThat(unit.getCurrentBytes(), Matchers.is(0L));
+
+    }
+
+    @Test
+    public void setBounds_shouldEvictEntries() {
+
+        TemplateCache unit = new TemplateCache(10, 1000L);
+
+        unit.getCompiledTemplate("A");
+        unit.getCompiledTemplate("B");
+        unit.getCompiledTemplate("C");
+
+        unit.setBounds(1, 1000L);
+
+        MatcherAssert.assertThat(unit.size(), Matchers.is(1));
+        MatcherAssert.assertThat(unit.getEvictionCount(), Matchers.is(2L));
+
+    }
+
+    @Test
+    public void clear_shouldRemoveAllEntries() {
+
+        TemplateCache unit = new TemplateCache(10, 1000L);
+
+        unit.getCompiledTemplate("A");
+        unit.clear();
+
+        MatcherAssert.assertThat(unit.size(), Matchers.is(0));
+        MatcherAssert.assertThat(unit.getCurrentBytes(), Matchers.is(0L));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_negativeBounds() {
+        new TemplateCache(-1, 10L);
+    }
+
+    /**
+     * Transformer that records its invocations.
+     */
+    private static class RecordingTransformer implements TemplateTransformer {
+
+        private final boolean requiresLineNumbers;
+        private final List<String> transformedTemplates = new ArrayList<String>();
+        private Map<TemplateBlock, Integer> lineNumbers;
+
+        private RecordingTransformer(boolean requiresLineNumbers) {
+            this.requiresLineNumbers = requiresLineNumbers;
+        }
+
+        @Override
+        public boolean requiresLineNumbers() {
+            return requiresLineNumbers;
+        }
+
+        @Override
+        public TemplateBlockBinder transform(String template, boolean resource, TemplateBlockBinder compiledTemplate, Map<TemplateBlock, Integer> lineNumbers) {
+            transformedTemplates.add((resource ? "resource:" : "string:") + template);
+            this.lineNumbers = lineNumbers;
+            return compiledTemplate;
+        }
+    }
+
+    @Test
+    public void transformer_shouldTransformCompiledTemplatesOnceBeforeTheyAreCached() throws Exception {
+
+        RecordingTransformer transformer = new RecordingTransformer(false);
+        TemplateCache unit = new TemplateCache(10, 1000L, transformer);
+
+        unit.getCompiledTemplate("${test}");
+        unit.getCompiledTemplate("${test}");
+        unit.getCompiledTemplateForResource("/TestTemplateProcessorTemplateFile.tpl");
+        unit.getCompiledTemplateForResource("/TestTemplateProcessorTemplateFile.tpl");
+
+        MatcherAssert.assertThat(transformer.transformedTemplates, Matchers.contains("string:${test}", "resource:/TestTemplateProcessorTemplateFile.tpl"));
+        MatcherAssert.assertThat(transformer.lineNumbers, Matchers.nullValue());
+
+    }
+
+    @Test
+    public void transformer_shouldGetLineNumbersOfUnoptimizedTemplatesIfRequired() {
+
+        RecordingTransformer transformer = new RecordingTransformer(true);
+        new TemplateCache(10, 1000L, transformer).getCompiledTemplate("A\n${test}!{if true}B!{/if}");
+
+        // constant if block isn't inlined by the optimizer
+        MatcherAssert.assertThat(transformer.lineNumbers.values(), Matchers.containsInAnyOrder(1, 2, 2, 2));
+
+    }
+
+}
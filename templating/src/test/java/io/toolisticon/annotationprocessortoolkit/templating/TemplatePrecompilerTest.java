@@ -0,0 +1,249 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.SourceFingerprint;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateSerializer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Unit test for {@link TemplatePrecompiler}.
+ */
+public class TemplatePrecompilerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File writeFile(File file, String content) throws Exception {
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(content.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+        return file;
+    }
+
+    private static Map<String, Object> createModel() {
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("name", "World");
+        return model;
+    }
+
+    @Test
+    public void getPrecompiledTemplateName() {
+
+        MatcherAssert.assertThat(TemplatePrecompiler.getPrecompiledTemplateName("/a/Test.tpl"), Matchers.is("/a/Test.tplc"));
+        MatcherAssert.assertThat(TemplatePrecompiler.getPrecompiledTemplateName("/a/Test.txt"), Matchers.is("/a/Test.txt.tplc"));
+
+    }
+
+    @Test
+    public void precompile_shouldWritePrecompiledTemplateThatIsMemoryMapped() throws Exception {
+
+        File templateFile = writeFile(temporaryFolder.newFile("Test.tpl"), "Hello ${name}!{if true}!!{/if}");
+
+        File precompiledTemplateFile = TemplatePrecompiler.precompile(templateFile);
+        MatcherAssert.assertThat(precompiledTemplateFile, Matchers.is(new File(temporaryFolder.getRoot(), "Test.tplc")));
+
+        ByteBuffer buffer = TemplatePrecompiler.readPrecompiledTemplate(precompiledTemplateFile.toURI().toURL());
+        MatcherAssert.assertThat(buffer.isDirect(), Matchers.is(true));
+        MatcherAssert.assertThat(TemplateSerializer.deserialize(buffer).getContent(createModel()), Matchers.is("Hello World!"));
+
+    }
+
+    @Test
+    public void readPrecompiledTemplate_shouldReadPrecompiledTemplateFromJar() throws Exception {
+
+        File precompiledTemplateFile = TemplatePrecompiler.precompile(writeFile(temporaryFolder.newFile("Test.tpl"), "Hello ${name}"));
+
+        File jarFile = temporaryFolder.newFile("templates.jar");
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jarFile));
+        try {
+            jarOutputStream.putNextEntry(new JarEntry("Test.tplc"));
+            jarOutputStream.write(Files.readAllBytes(precompiledTemplateFile.toPath()));
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+
+        ByteBuffer buffer = TemplatePrecompiler.readPrecompiledTemplate(new URL("jar:" + jarFile.toURI().toURL() + "!/Test.tplc"));
+        MatcherAssert.assertThat(TemplateSerializer.deserialize(buffer).getContent(createModel()), Matchers.is("Hello World"));
+
+    }
+
+    @Test
+    public void precompileDirectory_shouldPrecompileAllTemplatesRecursively() throws Exception {
+
+        File subFolder = temporaryFolder.newFolder("sub");
+        writeFile(temporaryFolder.newFile("A.tpl"), "A");
+        writeFile(new File(subFolder, "B.tpl"), "B");
+        writeFile(temporaryFolder.newFile("C.txt"), "C");
+
+        MatcherAssert.assertThat(TemplatePrecompiler.precompileDirectory(temporaryFolder.getRoot()), Matchers.is(2));
+        MatcherAssert.assertThat(new File(temporaryFolder.getRoot(), "A.tplc").isFile(), Matchers.is(true));
+        MatcherAssert.assertThat(new File(subFolder, "B.tplc").isFile(), Matchers.is(true));
+        MatcherAssert.assertThat(new File(temporaryFolder.getRoot(), "C.txt.tplc").exists(), Matchers.is(false));
+
+    }
+
+    @Test
+    public void getCompiledTemplateForResource_shouldPreferPrecompiledTemplate() throws Exception {
+
+        // there is no template resource for the precompiled template
+        File templateFile = writeFile(temporaryFolder.newFile("PrecompiledOnly.tpl"), "PRECOMPILED ${name}");
+        TemplatePrecompiler.precompile(templateFile);
+        MatcherAssert.assertThat(templateFile.delete(), Matchers.is(true));
+
+        MatcherAssert.assertThat(renderResourceInClasspathRoot(temporaryFolder.getRoot(), "/PrecompiledOnly.tpl", createModel()), Matchers.is("PRECOMPILED World"));
+
+    }
+
+    @Test
+    public void getCompiledTemplateForResource_shouldFallBackToParsingForInvalidPrecompiledTemplate() throws Exception {
+
+        writeFile(temporaryFolder.newFile("Test.tpl"), "PARSED ${name}");
+        writeFile(temporaryFolder.newFile("Test.tplc"), "INVALID");
+
+        MatcherAssert.assertThat(renderResourceInClasspathRoot(temporaryFolder.getRoot(), "/Test.tpl", createModel()), Matchers.is("PARSED World"));
+
+    }
+
+    @Test
+    public void getCompiledTemplateForResource_shouldFallBackToParsingForCorruptBlockOfPrecompiledTemplate() throws Exception {
+
+        File templateFile = writeFile(temporaryFolder.newFile("Test.tpl"), "PARSED ${name}");
+        File precompiledTemplateFile = TemplatePrecompiler.precompile(templateFile);
+
+        // replaces expression by an invalid expression of the same length, the fingerprint still matches the template resource
+        byte[] bytes = Files.readAllBytes(precompiledTemplateFile.toPath());
+        String corruptedBytes = new String(bytes, "ISO-8859-1").replace("name", "a + ");
+        Files.write(precompiledTemplateFile.toPath(), corruptedBytes.getBytes("ISO-8859-1"));
+
+        MatcherAssert.assertThat(renderResourceInClasspathRoot(temporaryFolder.getRoot(), "/Test.tpl", createModel()), Matchers.is("PARSED World"));
+
+    }
+
+    @Test
+    public void getCompiledTemplateForResource_shouldFallBackToParsingForStalePrecompiledTemplate() throws Exception {
+
+        File templateFile = writeFile(temporaryFolder.newFile("Test.tpl"), "OLD ${name}");
+        long lastModified = templateFile.lastModified();
+        TemplatePrecompiler.precompile(templateFile);
+
+        // modification times may have a granularity of seconds
+        writeFile(templateFile, "NEW ${name}");
+        MatcherAssert.assertThat(templateFile.setLastModified(lastModified + 2000L), Matchers.is(true));
+
+        MatcherAssert.assertThat(renderResourceInClasspathRoot(temporaryFolder.getRoot(), "/Test.tpl", createModel()), Matchers.is("NEW World"));
+
+    }
+
+    @Test
+    public void getCompiledTemplateForResource_shouldFallBackToParsingForTemplateResourceWithChangedLength() throws Exception {
+
+        File templateFile = writeFile(temporaryFolder.newFile("Test.tpl"), "OLD ${name}");
+        long lastModified = templateFile.lastModified();
+        TemplatePrecompiler.precompile(templateFile);
+
+        writeFile(templateFile, "CHANGED ${name}");
+        MatcherAssert.assertThat(templateFile.setLastModified(lastModified), Matchers.is(true));
+
+        MatcherAssert.assertThat(renderResourceInClasspathRoot(temporaryFolder.getRoot(), "/Test.tpl", createModel()), Matchers.is("CHANGED World"));
+
+    }
+
+    @Test
+    public void getCompiledTemplateForResource_shouldNotReadTemplateFileWithUnchangedLengthAndModificationTime() throws Exception {
+
+        File templateFile = writeFile(temporaryFolder.newFile("Test.tpl"), "OLD ${name}");
+        long lastModified = templateFile.lastModified();
+        TemplatePrecompiler.precompile(templateFile);
+
+        // the content isn't compared, so the precompiled template is used
+        writeFile(templateFile, "NEW ${name}");
+        MatcherAssert.assertThat(templateFile.setLastModified(lastModified), Matchers.is(true));
+
+        MatcherAssert.assertThat(renderResourceInClasspathRoot(temporaryFolder.getRoot(), "/Test.tpl", createModel()), Matchers.is("OLD World"));
+
+    }
+
+    @Test
+    public void isUpToDate_shouldCompareContentOfTemplateFileWithChangedModificationTime() throws Exception {
+
+        File templateFile = writeFile(temporaryFolder.newFile("Test.tpl"), "Hello ${name}");
+        SourceFingerprint sourceFingerprint = SourceFingerprint.of(Files.readAllBytes(templateFile.toPath()), templateFile.lastModified() + 2000L);
+
+        MatcherAssert.assertThat(TemplatePrecompiler.isUpToDate(sourceFingerprint, templateFile.toURI().toURL()), Matchers.is(true));
+        MatcherAssert.assertThat(TemplatePrecompiler.isUpToDate(SourceFingerprint.of("Hallo ${name}".getBytes("UTF-8"), 0L), templateFile.toURI().toURL()), Matchers.is(false));
+
+    }
+
+    @Test
+    public void isUpToDate_shouldCheckEntriesOfJarFiles() throws Exception {
+
+        byte[] content = "Hello ${name}".getBytes("UTF-8");
+
+        File jarFile = temporaryFolder.newFile("templates.jar");
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jarFile));
+        try {
+            jarOutputStream.putNextEntry(new JarEntry("Test.tpl"));
+            jarOutputStream.write(content);
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+
+        URL templateUrl = new URL("jar:" + jarFile.toURI().toURL() + "!/Test.tpl");
+        MatcherAssert.assertThat(TemplatePrecompiler.isUpToDate(SourceFingerprint.of(content, 0L), templateUrl), Matchers.is(true));
+        MatcherAssert.assertThat(TemplatePrecompiler.isUpToDate(SourceFingerprint.of("Hallo ${name}".getBytes("UTF-8"), 0L), templateUrl), Matchers.is(false));
+
+    }
+
+    @Test
+    public void getCompiledTemplateForResource_shouldUsePrecompiledTemplateOfUnchangedTemplateResource() throws Exception {
+
+        File templateFile = writeFile(temporaryFolder.newFile("Test.tpl"), "UNCHANGED ${name}");
+        TemplatePrecompiler.precompile(templateFile);
+
+        MatcherAssert.assertThat(renderResourceInClasspathRoot(temporaryFolder.getRoot(), "/Test.tpl", createModel()), Matchers.is("UNCHANGED World"));
+
+    }
+
+    /**
+     * Renders a template resource by a {@link TemplateCache} whose classes are loaded by a separate class loader.
+     * The class loader only sees the templating classes and the passed classpath root, so the test classpath isn't modified.
+     */
+    private static String renderResourceInClasspathRoot(File classpathRoot, String resourceName, Map<String, Object> model) throws Exception {
+
+        URL templatingClasses = TemplateCache.class.getProtectionDomain().getCodeSource().getLocation();
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{classpathRoot.toURI().toURL(), templatingClasses}, null);
+
+        try {
+            Class<?> templateCacheClass = classLoader.loadClass(TemplateCache.class.getName());
+            MatcherAssert.assertThat(templateCacheClass, Matchers.not(Matchers.<Class<?>>sameInstance(TemplateCache.class)));
+
+            Object templateCache = templateCacheClass.getConstructor(int.class, long.class).newInstance(10, 1000L);
+            Object binder = templateCacheClass.getMethod("getCompiledTemplateForResource", String.class).invoke(templateCache, resourceName);
+            return (String) binder.getClass().getMethod("getContent", Map.class).invoke(binder, model);
+        } finally {
+            classLoader.close();
+        }
+
+    }
+
+}
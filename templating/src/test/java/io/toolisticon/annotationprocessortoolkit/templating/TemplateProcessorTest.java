@@ -4,6 +4,9 @@ import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -32,6 +35,48 @@ public class TemplateProcessorTest {
         MatcherAssert.assertThat(TemplateProcessor.processTemplateResourceFile("/TestTemplateProcessorTemplateFile.tpl", map), Matchers.is("YEP"));
 
 
+    }
+
+    @Test
+    public void testTemplateString_renderToAppendable() throws IOException {
+
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("test", "YEP");
+        map.put("values", new String[]{"A", "B"});
+
+        StringWriter writer = new StringWriter();
+        writer.append("PREFIX:");
+        TemplateProcessor.processTemplate("${test}!{for value : values}-${value}!{/for}!{if test == 'YEP'}!{/if}", map, writer);
+
+        MatcherAssert.assertThat(writer.toString(), Matchers.is("PREFIX:YEP-A-B"));
+
+
+    }
+
+    @Test
+    public void testTemplateFile_renderToAppendable() throws IOException {
+
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("test", "YEP");
+
+        StringBuilder stringBuilder = new StringBuilder();
+        TemplateProcessor.processTemplateResourceFile("/TestTemplateProcessorTemplateFile.tpl", map, stringBuilder);
+
+        MatcherAssert.assertThat(stringBuilder.toString(), Matchers.is("YEP"));
+
+
+    }
+
+    @Test
+    public void testTemplateString_forLoopStatusAndLimit() {
+
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("params", Arrays.asList("a", "b", "c", "d"));
+
+        MatcherAssert.assertThat(TemplateProcessor.processTemplate("(!{for param : params, status : 'paramLoop'}${param}!{if !paramLoop.last},!{/if}!{/for})", map), Matchers.is("(a,b,c,d)"));
+        MatcherAssert.assertThat(TemplateProcessor.processTemplate("(!{for param : params, limit : '2', status : 'paramLoop'}${param}!{if !paramLoop.last},!{/if}!{/for})", map), Matchers.is("(a,b)"));
+
+
     }
 
     @Test(expected = IllegalArgumentException.class)
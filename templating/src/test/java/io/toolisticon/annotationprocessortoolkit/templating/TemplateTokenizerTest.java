@@ -0,0 +1,171 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.MissingClosingTagException;
+import io.toolisticon.annotationprocessortoolkit.templating.templateblocks.TemplateBlockType;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+/**
+ * Unit test for {@link TemplateTokenizer}.
+ */
+public class TemplateTokenizerTest {
+
+    @Test
+    public void tokenize_plainTextOnly() {
+
+        List<TemplateToken> tokens = TemplateTokenizer.tokenize("abc $ ! { }");
+
+        MatcherAssert.assertThat(tokens.size(), Matchers.is(1));
+        assertToken(tokens.get(0), TemplateToken.Kind.PLAIN_TEXT, TemplateBlockType.PLAIN_TEXT, 0, 11, null);
+
+    }
+
+    @Test
+    public void tokenize_emptyString() {
+
+        MatcherAssert.assertThat(TemplateTokenizer.tokenize("").size(), Matchers.is(0));
+
+    }
+
+    @Test
+    public void tokenize_dynamicText() {
+
+        List<TemplateToken> tokens = TemplateTokenizer.tokenize("a${  abc.def }b");
+
+        MatcherAssert.assertThat(tokens.size(), Matchers.is(3));
+        assertToken(tokens.get(0), TemplateToken.Kind.PLAIN_TEXT, TemplateBlockType.PLAIN_TEXT, 0, 1, null);
+        assertToken(tokens.get(1), TemplateToken.Kind.DYNAMIC_TEXT, TemplateBlockType.DYNAMIC_TEXT, 1, 14, "abc.def");
+        assertToken(tokens.get(2), TemplateToken.Kind.PLAIN_TEXT, TemplateBlockType.PLAIN_TEXT, 14, 15, null);
+
+    }
+
+    @Test
+    public void tokenize_dynamicTextWithLineBreakInContent_shouldBePlainText() {
+
+        List<TemplateToken> tokens = TemplateTokenizer.tokenize("${abc\ndef}");
+
+        MatcherAssert.assertThat(tokens.size(), Matchers.is(1));
+        MatcherAssert.assertThat(tokens.get(0).getKind(), Matchers.is(TemplateToken.Kind.PLAIN_TEXT));
+
+    }
+
+    @Test
+    public void tokenize_controlBlockTags() {
+
+        List<TemplateToken> tokens = TemplateTokenizer.tokenize("!{for item : items}${item}!{/for }");
+
+        MatcherAssert.assertThat(tokens.size(), Matchers.is(3));
+        assertToken(tokens.get(0), TemplateToken.Kind.START_TAG, TemplateBlockType.FOR, 0, 19, "item : items");
+        assertToken(tokens.get(1), TemplateToken.Kind.DYNAMIC_TEXT, TemplateBlockType.DYNAMIC_TEXT, 19, 26, "item");
+        assertToken(tokens.get(2), TemplateToken.Kind.END_TAG, TemplateBlockType.FOR, 26, 34, null);
+
+    }
+
+    @Test
+    public void tokenize_controlBlockWithoutAttributes_shouldBePlainText() {
+
+        List<TemplateToken> tokens = TemplateTokenizer.tokenize("!{for}!{unknown}");
+
+        MatcherAssert.assertThat(tokens.size(), Matchers.is(1));
+        MatcherAssert.assertThat(tokens.get(0).getKind(), Matchers.is(TemplateToken.Kind.PLAIN_TEXT));
+
+    }
+
+    @Test
+    public void tokenize_staticBlock() {
+
+        List<TemplateToken> tokens = TemplateTokenizer.tokenize("!{static}${abc}!{if true}!{/static}");
+
+        MatcherAssert.assertThat(tokens.size(), Matchers.is(1));
+        assertToken(tokens.get(0), TemplateToken.Kind.STATIC, TemplateBlockType.STATIC, 0, 35, "${abc}!{if true}");
+
+    }
+
+    @Test(expected = MissingClosingTagException.class)
+    public void tokenize_unclosedStaticBlock() {
+
+        TemplateTokenizer.tokenize("!{static}${abc}");
+
+    }
+
+    @Test
+    public void nextToken_tagContentMustNotExceedEndTagOfOpenControlBlock() {
+
+        TemplateTokenizer unit = new TemplateTokenizer("${!{/if}");
+        unit.openControlBlock(TemplateBlockType.IF);
+
+        assertToken(unit.nextToken(), TemplateToken.Kind.PLAIN_TEXT, TemplateBlockType.PLAIN_TEXT, 0, 2, null);
+        assertToken(unit.nextToken(), TemplateToken.Kind.END_TAG, TemplateBlockType.IF, 2, 8, null);
+        MatcherAssert.assertThat(unit.nextToken(), Matchers.nullValue());
+
+    }
+
+    @Test
+    public void nextToken_fromReaderReadingSingleChars_shouldEmitSameTokensAsForString() {
+
+        String templateString = "a${ b }!{for x : y}!{static}${c}!{/static}${x}\n!{/for}!{if}d";
+
+        TemplateTokenizer unit = new TemplateTokenizer(new Reader() {
+
+            private final StringReader delegate = new StringReader("a${ b }!{for x : y}!{static}${c}!{/static}${x}\n!{/for}!{if}d");
+
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return delegate.read(cbuf, off, Math.min(len, 1));
+            }
+
+            @Override
+            public void close() {
+                delegate.close();
+            }
+        });
+
+        for (TemplateToken expectedToken : TemplateTokenizer.tokenize(templateString)) {
+            assertToken(unit.nextToken(), expectedToken.getKind(), expectedToken.getTemplateBlockType(), expectedToken.getBeginIndex(), expectedToken.getEndIndex(), expectedToken.getContent());
+        }
+        MatcherAssert.assertThat(unit.nextToken(), Matchers.nullValue());
+
+    }
+
+    @Test
+    public void nextToken_fromReader_withReleasedChars() {
+
+        StringBuilder templateString = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            templateString.append("line ${value").append(i).append("}\n");
+        }
+
+        TemplateTokenizer unit = new TemplateTokenizer(new StringReader(templateString.toString()));
+
+        TemplateToken token;
+        TemplateToken lastToken = null;
+        while ((token = unit.nextToken()) != null) {
+            if (token.getKind() == TemplateToken.Kind.PLAIN_TEXT) {
+                MatcherAssert.assertThat(unit.getText(token.getBeginIndex(), token.getEndIndex()), Matchers.is(templateString.substring(token.getBeginIndex(), token.getEndIndex())));
+            }
+            unit.release(token.getEndIndex());
+            lastToken = token;
+        }
+
+        MatcherAssert.assertThat(lastToken.getEndIndex(), Matchers.is(templateString.length()));
+        MatcherAssert.assertThat(unit.getPosition(), Matchers.is(templateString.length()));
+
+    }
+
+    private static void assertToken(TemplateToken token, TemplateToken.Kind kind, TemplateBlockType templateBlockType, int beginIndex, int endIndex, String content) {
+
+        MatcherAssert.assertThat(token.getKind(), Matchers.is(kind));
+        MatcherAssert.assertThat(token.getTemplateBlockType(), Matchers.is(templateBlockType));
+        MatcherAssert.assertThat(token.getBeginIndex(), Matchers.is(beginIndex));
+        MatcherAssert.assertThat(token.getEndIndex(), Matchers.is(endIndex));
+        MatcherAssert.assertThat(token.getContent(), Matchers.is(content));
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package io.toolisticon.annotationprocessortoolkit.templating;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit test for {@link VariableScope}.
+ */
+public class VariableScopeTest {
+
+    @Test
+    public void get_shouldResolveOwnVariableAndFallBackToParent() {
+
+        Map<String, Object> parent = new HashMap<String, Object>();
+        parent.put("a", "A");
+        parent.put("b", "B");
+
+        VariableScope unit = new VariableScope(new VariableScope(parent, "b", "B2"), "c", "C");
+
+        MatcherAssert.assertThat(unit.get("a"), Matchers.is((Object) "A"));
+        MatcherAssert.assertThat(unit.get("b"), Matchers.is((Object) "B2"));
+        MatcherAssert.assertThat(unit.get("c"), Matchers.is((Object) "C"));
+        MatcherAssert.assertThat(unit.get("d"), Matchers.nullValue());
+
+        MatcherAssert.assertThat(unit.containsKey("a"), Matchers.is(true));
+        MatcherAssert.assertThat(unit.containsKey("c"), Matchers.is(true));
+        MatcherAssert.assertThat(unit.containsKey("d"), Matchers.is(false));
+
+    }
+
+    @Test
+    public void containsKey_shouldDetectNullValues() {
+
+        VariableScope unit = new VariableScope(null, "a", null);
+
+        MatcherAssert.assertThat(unit.containsKey("a"), Matchers.is(true));
+        MatcherAssert.assertThat(unit.get("a"), Matchers.nullValue());
+
+    }
+
+    @Test
+    public void put_shouldNotModifyParent() {
+
+        Map<String, Object> parent = new HashMap<String, Object>();
+        parent.put("a", "A");
+
+        VariableScope unit = new VariableScope(parent, "b", "B");
+
+        MatcherAssert.assertThat(unit.put("a", "A2"), Matchers.is((Object) "A"));
+
+        MatcherAssert.assertThat(unit.get("a"), Matchers.is((Object) "A2"));
+        MatcherAssert.assertThat(parent.get("a"), Matchers.is((Object) "A"));
+
+    }
+
+    @Test
+    public void entrySet_shouldContainAllVisibleVariables() {
+
+        Map<String, Object> parent = new HashMap<String, Object>();
+        parent.put("a", "A");
+        parent.put("b", "B");
+
+        VariableScope unit = new VariableScope(parent, "b", "B2");
+
+        MatcherAssert.assertThat(unit.size(), Matchers.is(2));
+        MatcherAssert.assertThat(new HashMap<String, Object>(unit).get("b"), Matchers.is((Object) "B2"));
+
+    }
+
+    @Test
+    public void resolveModelPath_shouldResolveAgainstScopeChain() {
+
+        Map<String, Object> inner = new HashMap<String, Object>();
+        inner.put("name", "NAME");
+
+        Map<String, Object> parent = new HashMap<String, Object>();
+        parent.put("outer", inner);
+
+        VariableScope unit = new VariableScope(parent, "item", inner);
+
+        MatcherAssert.assertThat(ModelPathResolver.resolveModelPath(unit, "outer.name").getValue(), Matchers.is((Object) "NAME"));
+        MatcherAssert.assertThat(ModelPathResolver.resolveModelPath(unit, "item.name").getValue(), Matchers.is((Object) "NAME"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_nullName() {
+
+        new VariableScope(null, null, "A");
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package io.toolisticon.annotationprocessortoolkit.templating.expressions;
 
+import io.toolisticon.annotationprocessortoolkit.templating.ModelPathResolver;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.ExpressionOperand;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.Operand;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.OperandType;
@@ -358,5 +359,73 @@ public class ExpressionParserTest {
 
     }
 
+    @Test
+    public void evaluateExpression_sameExpressionWithDifferentModels() {
+
+        Expression expression = ExpressionParser.parseExpression("!(value1 * 2 == value2) && (value1 + 1) > 0");
+
+        Map<String, Object> model1 = new HashMap<String, Object>();
+        model1.put("value1", 5L);
+        model1.put("value2", 10L);
+
+        Map<String, Object> model2 = new HashMap<String, Object>();
+        model2.put("value1", 5L);
+        model2.put("value2", 11L);
+
+        MatcherAssert.assertThat((Boolean) expression.evaluateExpression(model1).value(), Matchers.is(false));
+        MatcherAssert.assertThat((Boolean) expression.evaluateExpression(model2).value(), Matchers.is(true));
+        MatcherAssert.assertThat((Boolean) expression.evaluateExpression(model1).value(), Matchers.is(false));
+
+    }
+
+    @Test
+    public void evaluateExpression_mustNotChangeExpression() {
+
+        Expression expression = ExpressionParser.parseExpression("value1 + 2 * 3");
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("value1", 5L);
+
+        MatcherAssert.assertThat((Long) expression.evaluateExpression(model).value(), Matchers.is(11L));
+
+        MatcherAssert.assertThat(expression.getOperands().length, Matchers.is(3));
+        MatcherAssert.assertThat(expression.getOperationTypes().length, Matchers.is(2));
+        MatcherAssert.assertThat(expression.getOperands()[0].getOperandType(), Matchers.is(OperandType.DYNAMIC_VALUE));
+
+    }
+
+    @Test
+    public void evaluateExpression_operationsWithSameExecutionOrder_mustBeEvaluatedFromLeftToRight() {
+
+        MatcherAssert.assertThat((Long) ExpressionParser.parseExpression("10 - 2 + 3").evaluateExpression().value(), Matchers.is(11L));
+        MatcherAssert.assertThat((Long) ExpressionParser.parseExpression("8 / 2 * 2").evaluateExpression().value(), Matchers.is(8L));
+        MatcherAssert.assertThat((Long) ExpressionParser.parseExpression("1 + 8 / 2 * 2 - 3 * 2").evaluateExpression().value(), Matchers.is(3L));
+        MatcherAssert.assertThat((Boolean) ExpressionParser.parseExpression("1 + 2 * 3 == 7 && 10 - 4 - 3 == 3 || false").evaluateExpression().value(), Matchers.is(true));
+
+    }
+
+    @Test
+    public void parseExpression_withModel_shouldBindModelToExpressionButNotToThread() {
+
+        Map<String, Object> threadBoundModel = new HashMap<String, Object>();
+        threadBoundModel.put("value", "THREAD");
+        ModelPathResolver.modelMapThreadLocal.set(threadBoundModel);
+
+        try {
+
+            Map<String, Object> model = new HashMap<String, Object>();
+            model.put("value", "MODEL");
+
+            Expression expression = ExpressionParser.parseExpression("value + '!'", model);
+
+            MatcherAssert.assertThat(ModelPathResolver.modelMapThreadLocal.get(), Matchers.sameInstance(threadBoundModel));
+            MatcherAssert.assertThat((String) expression.evaluateExpression().value(), Matchers.is("MODEL!"));
+            MatcherAssert.assertThat((String) expression.evaluateExpression(threadBoundModel).value(), Matchers.is("THREAD!"));
+
+        } finally {
+            ModelPathResolver.modelMapThreadLocal.remove();
+        }
+
+    }
 
 }
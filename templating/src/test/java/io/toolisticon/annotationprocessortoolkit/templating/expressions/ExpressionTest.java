@@ -1,5 +1,6 @@
 package io.toolisticon.annotationprocessortoolkit.templating.expressions;
 
+import io.toolisticon.annotationprocessortoolkit.templating.ModelPathResolver;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.Operand;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.OperandFactory;
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands.OperandType;
@@ -8,6 +9,15 @@ import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Unit Test for {@link Expression}.
  */
@@ -28,6 +38,112 @@ public class ExpressionTest {
     }
 
 
+    @Test
+    public void isConstant() {
+
+        MatcherAssert.assertThat(ExpressionParser.parseExpression("'a' + 'b'").isConstant(), Matchers.is(true));
+        MatcherAssert.assertThat(ExpressionParser.parseExpression("!(1 + (2 * 3) > 5) || null == null").isConstant(), Matchers.is(true));
+        MatcherAssert.assertThat(ExpressionParser.parseExpression("a").isConstant(), Matchers.is(false));
+        MatcherAssert.assertThat(ExpressionParser.parseExpression("1 + (2 * !a.b)").isConstant(), Matchers.is(false));
+
+    }
+
+    /**
+     * Model value that evaluates another expression while it's resolved.
+     */
+    public static class NestedEvaluation {
+
+        private final Expression expression;
+        private final Map<String, Object> model;
+
+        public NestedEvaluation(Expression expression, Map<String, Object> model) {
+            this.expression = expression;
+            this.model = model;
+        }
+
+        public String getValue() {
+            return (String) expression.evaluateExpression(model).value();
+        }
+    }
+
+    @Test
+    public void evaluateExpression_withModel_shouldNotUseThreadBoundModel() {
+
+        Map<String, Object> threadBoundModel = new HashMap<String, Object>();
+        threadBoundModel.put("a", "THREAD");
+        ModelPathResolver.modelMapThreadLocal.set(threadBoundModel);
+
+        try {
+
+            Map<String, Object> model = new HashMap<String, Object>();
+            model.put("a", "MODEL");
+
+            MatcherAssert.assertThat(ExpressionParser.parseExpression("a + (a + '!')").evaluateExpression(model).value(), Matchers.is((Object) "MODELMODEL!"));
+            MatcherAssert.assertThat(ModelPathResolver.modelMapThreadLocal.get(), Matchers.sameInstance(threadBoundModel));
+
+        } finally {
+            ModelPathResolver.modelMapThreadLocal.remove();
+        }
+
+    }
+
+    @Test
+    public void evaluateExpression_nestedEvaluationWithOtherModel_shouldNotAffectOuterEvaluation() {
+
+        Map<String, Object> innerModel = new HashMap<String, Object>();
+        innerModel.put("a", "INNER");
+
+        Map<String, Object> outerModel = new HashMap<String, Object>();
+        outerModel.put("a", "OUTER");
+        outerModel.put("nested", new NestedEvaluation(ExpressionParser.parseExpression("a"), innerModel));
+
+        MatcherAssert.assertThat(ExpressionParser.parseExpression("nested.value + a").evaluateExpression(outerModel).value(), Matchers.is((Object) "INNEROUTER"));
+
+    }
+
+    @Test
+    public void evaluateExpression_concurrentlyWithDifferentModels() throws Exception {
+
+        final Expression expression = ExpressionParser.parseExpression("a * 2");
+        final AtomicInteger failures = new AtomicInteger();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int thread = 0; thread < 4; thread++) {
+
+                final long value = thread;
+                futures.add(executorService.submit(new Runnable() {
+                    @Override
+                    public void run() {
+
+                        Map<String, Object> model = new HashMap<String, Object>();
+                        model.put("a", value);
+
+                        for (int i = 0; i < 10000; i++) {
+                            if (!Long.valueOf(value * 2).equals(expression.evaluateExpression(model).value())) {
+                                failures.incrementAndGet();
+                            }
+                        }
+
+                    }
+                }));
+
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+        } finally {
+            executorService.shutdown();
+        }
+
+        MatcherAssert.assertThat(failures.get(), Matchers.is(0));
+
+    }
+
     private <T> void doTestSingleOperand(Class<T> type, T value) {
 
         Operand[] operands = getArray(OperandFactory.createOperationResult(type, value));
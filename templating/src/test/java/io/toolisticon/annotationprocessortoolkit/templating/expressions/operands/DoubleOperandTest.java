@@ -31,4 +31,13 @@ public class DoubleOperandTest {
 
     }
 
+    @Test
+    public void test_primitiveValues() {
+
+        DoubleOperand operand = new DoubleOperand("2.5");
+        MatcherAssert.assertThat(operand.longValue(), Matchers.is(2L));
+        MatcherAssert.assertThat(operand.doubleValue(), Matchers.is(2.5));
+
+    }
+
 }
@@ -29,4 +29,14 @@ public class LongOperandTest {
         MatcherAssert.assertThat((Long) new LongOperand("-6").value(), Matchers.is(-6L));
 
     }
+
+    @Test
+    public void test_primitiveValues() {
+
+        LongOperand operand = new LongOperand("-6");
+        MatcherAssert.assertThat(operand.longValue(), Matchers.is(-6L));
+        MatcherAssert.assertThat(operand.doubleValue(), Matchers.is(-6.0));
+
+    }
+
 }
@@ -1,6 +1,8 @@
 package io.toolisticon.annotationprocessortoolkit.templating.expressions.operands;
 
 import io.toolisticon.annotationprocessortoolkit.templating.expressions.operations.OperationType;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
 
 /**
@@ -18,5 +20,33 @@ public class OperandFactoryTest {
         OperandFactory.createOperand(OperandType.BOOLEAN, null, new OperationType[0], null);
     }
 
+    @Test
+    public void createOperand_shouldShareBooleanAndNullLiterals() {
+
+        MatcherAssert.assertThat(OperandFactory.createOperand(OperandType.BOOLEAN, "true", null, null), Matchers.sameInstance(OperandFactory.createOperand(OperandType.BOOLEAN, " true ", null, null)));
+        MatcherAssert.assertThat(OperandFactory.createOperand(OperandType.BOOLEAN, "false", null, null), Matchers.sameInstance(OperandFactory.createOperand(OperandType.BOOLEAN, "false", null, null)));
+        MatcherAssert.assertThat((Boolean) OperandFactory.createOperand(OperandType.BOOLEAN, "false", null, null).value(), Matchers.is(false));
+        MatcherAssert.assertThat(OperandFactory.createOperand(OperandType.NULL_VALUE, "null", null, null), Matchers.sameInstance(OperandFactory.createOperand(OperandType.NULL_VALUE, "null", null, null)));
+
+    }
+
+    @Test
+    public void createOperationResult_withPrimitives() {
+
+        MatcherAssert.assertThat(OperandFactory.createOperationResult(true), Matchers.sameInstance(OperandFactory.createOperationResult(Boolean.class, Boolean.TRUE)));
+        MatcherAssert.assertThat(OperandFactory.createOperationResult(false).value(), Matchers.is((Object) false));
+
+        LongOperationResultOperand longResult = OperandFactory.createOperationResult(5L);
+        MatcherAssert.assertThat(longResult.longValue(), Matchers.is(5L));
+        MatcherAssert.assertThat(longResult.value(), Matchers.is(5L));
+        MatcherAssert.assertThat(longResult.getOperandsJavaType(), Matchers.equalTo((Class) Long.class));
+        MatcherAssert.assertThat(longResult.getOperandType(), Matchers.is(OperandType.OPERATION_RESULT));
+
+        DoubleOperationResultOperand doubleResult = OperandFactory.createOperationResult(2.5);
+        MatcherAssert.assertThat(doubleResult.doubleValue(), Matchers.is(2.5));
+        MatcherAssert.assertThat(doubleResult.value(), Matchers.is(2.5));
+        MatcherAssert.assertThat(doubleResult.getOperandsJavaType(), Matchers.equalTo((Class) Double.class));
+
+    }
 
 }
@@ -6,7 +6,6 @@ import io.toolisticon.annotationprocessortoolkit.templating.expressions.operands
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
-import org.mockito.Mockito;
 
 /**
  * Unit tests for {@link OperationType}.
@@ -2221,98 +2220,44 @@ public class OperationTypeTest {
     }
 
     // --------------------------------------------------------
-    // -- COMMON UTILITY FUNCTIONS TESTS
+    // -- getOperationTypeAt
     // --------------------------------------------------------
 
-
-    @Test
-    public void convertToLong_nullSafety() {
-
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(null), Matchers.nullValue());
-
-        Operand operand = Mockito.mock(Operand.class);
-        Mockito.when(operand.getOperandsJavaType()).thenReturn(null);
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(operand), Matchers.nullValue());
-
-    }
-
-    @Test
-    public void convertToLong_incompatibleJavaType_shouldReturnNull() {
-
-        // Non numeric type
-        Operand operand = Mockito.mock(Operand.class);
-        Mockito.when(operand.getOperandsJavaType()).thenReturn(String.class);
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(operand), Matchers.nullValue());
-
-        // floating point type
-        Mockito.when(operand.getOperandsJavaType()).thenReturn(Double.class);
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(operand), Matchers.nullValue());
-
-    }
-
     @Test
-    public void convertToLong_usingShortValue() {
-
-        // short
-        Operand operand = Mockito.mock(Operand.class);
-        Mockito.when(operand.getOperandsJavaType()).thenReturn(short.class);
-        Mockito.when(operand.value()).thenReturn(Short.parseShort("1"));
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(operand), Matchers.is(1L));
-
-
-        // Short
-        Mockito.when(operand.getOperandsJavaType()).thenReturn(Short.class);
-        Mockito.when(operand.value()).thenReturn(Short.valueOf(Short.parseShort("1")));
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(operand), Matchers.is(1L));
+    public void getOperationTypeAt_shouldUseLongestOperator() {
 
+        MatcherAssert.assertThat(OperationType.getOperationTypeAt(OperationTypeMode.BINARY, "a <= b", 1).getValue(), Matchers.is(OperationType.LESS_OR_EQUAL_THAN));
+        MatcherAssert.assertThat(OperationType.getOperationTypeAt(OperationTypeMode.BINARY, "a < b", 1).getValue(), Matchers.is(OperationType.LESS_THAN));
+        MatcherAssert.assertThat(OperationType.getOperationTypeAt(OperationTypeMode.BINARY, "a != b", 1).getValue(), Matchers.is(OperationType.NOT_EQUAL));
+        MatcherAssert.assertThat(OperationType.getOperationTypeAt(OperationTypeMode.BINARY, "a==b", 1).getValue(), Matchers.is(OperationType.EQUAL));
 
     }
 
     @Test
-    public void convertToLong_usingIntegerValue() {
-
-        // short
-        Operand operand = Mockito.mock(Operand.class);
-        Mockito.when(operand.getOperandsJavaType()).thenReturn(int.class);
-        Mockito.when(operand.value()).thenReturn(Integer.parseInt("1"));
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(operand), Matchers.is(1L));
-
-
-        // Short
-        Mockito.when(operand.getOperandsJavaType()).thenReturn(int.class);
-        Mockito.when(operand.value()).thenReturn(Integer.valueOf(Integer.parseInt("1")));
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(operand), Matchers.is(1L));
+    public void getOperationTypeAt_shouldIncludeSurroundingSpaces() {
 
+        OperationTypeSearchResult result = OperationType.getOperationTypeAt(OperationTypeMode.BINARY, "a  &&  b", 1);
+        MatcherAssert.assertThat(result.getValue(), Matchers.is(OperationType.AND));
+        MatcherAssert.assertThat(result.getStartIndex(), Matchers.is(1));
+        MatcherAssert.assertThat(result.getEndIndex(), Matchers.is(7));
 
     }
 
     @Test
-    public void convertToLong_usingLongValue() {
-
-        // short
-        Operand operand = Mockito.mock(Operand.class);
-        Mockito.when(operand.getOperandsJavaType()).thenReturn(long.class);
-        Mockito.when(operand.value()).thenReturn(Long.parseLong("1"));
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(operand), Matchers.is(1L));
-
-
-        // Short
-        Mockito.when(operand.getOperandsJavaType()).thenReturn(Long.class);
-        Mockito.when(operand.value()).thenReturn(Long.valueOf(Long.parseLong("1")));
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(operand), Matchers.is(1L));
+    public void getOperationTypeAt_shouldDistinguishOperationTypeModes() {
 
+        MatcherAssert.assertThat(OperationType.getOperationTypeAt(OperationTypeMode.UNARY, " !a", 0).getValue(), Matchers.is(OperationType.NEGATE));
+        MatcherAssert.assertThat(OperationType.getOperationTypeAt(OperationTypeMode.BINARY, " !a", 0), Matchers.nullValue());
+        MatcherAssert.assertThat(OperationType.getOperationTypeAt(OperationTypeMode.UNARY, "a && b", 1), Matchers.nullValue());
 
     }
 
-
     @Test
-    public void convertToDouble_nullSafety() {
-
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(null), Matchers.nullValue());
+    public void getOperationTypeAt_withoutOperator() {
 
-        Operand operand = Mockito.mock(Operand.class);
-        Mockito.when(operand.getOperandsJavaType()).thenReturn(null);
-        MatcherAssert.assertThat(OperationType.SUBTRACTION.convertToLong(operand), Matchers.nullValue());
+        MatcherAssert.assertThat(OperationType.getOperationTypeAt(OperationTypeMode.BINARY, "a b", 1), Matchers.nullValue());
+        MatcherAssert.assertThat(OperationType.getOperationTypeAt(OperationTypeMode.BINARY, "a \u00e4", 1), Matchers.nullValue());
+        MatcherAssert.assertThat(OperationType.getOperationTypeAt(OperationTypeMode.BINARY, "a  ", 1), Matchers.nullValue());
 
     }
 
@@ -7,8 +7,10 @@ import org.hamcrest.Matchers;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -18,6 +20,22 @@ import java.util.Set;
  */
 public class ForTemplateBlockTest {
 
+    /**
+     * Lazy source that isn't an Iterable but provides an iterator() method - like java.util.stream.Stream.
+     */
+    public static class LazySource {
+
+        private final List<String> values;
+
+        public LazySource(String... values) {
+            this.values = Arrays.asList(values);
+        }
+
+        public Iterator<String> iterator() {
+            return values.iterator();
+        }
+    }
+
     @Test
     public void test_getTemplateBlockType() {
         MatcherAssert.assertThat(new ForTemplateBlock("test:abc.def", "DEF").getTemplateBlockType(), Matchers.is(TemplateBlockType.FOR));
@@ -140,4 +158,304 @@ public class ForTemplateBlockTest {
 
     }
 
+    @Test
+    public void test_getContent_primitiveArrayValuesInModel() {
+
+        MatcherAssert.assertThat(renderLoop(new int[]{1, 2, 3}), Matchers.equalTo("123"));
+        MatcherAssert.assertThat(renderLoop(new long[]{4L, 5L}), Matchers.equalTo("45"));
+        MatcherAssert.assertThat(renderLoop(new double[]{1.5}), Matchers.equalTo("1.5"));
+        MatcherAssert.assertThat(renderLoop(new float[]{2.5f}), Matchers.equalTo("2.5"));
+        MatcherAssert.assertThat(renderLoop(new short[]{6}), Matchers.equalTo("6"));
+        MatcherAssert.assertThat(renderLoop(new byte[]{7}), Matchers.equalTo("7"));
+        MatcherAssert.assertThat(renderLoop(new char[]{'a', 'b'}), Matchers.equalTo("ab"));
+        MatcherAssert.assertThat(renderLoop(new boolean[]{true, false}), Matchers.equalTo("truefalse"));
+        MatcherAssert.assertThat(renderLoop(new int[0]), Matchers.equalTo(""));
+
+    }
+
+    @Test
+    public void test_getContent_iteratorValueInModel() {
+
+        MatcherAssert.assertThat(renderLoop(Arrays.asList("A", "B").iterator()), Matchers.equalTo("AB"));
+
+    }
+
+    @Test
+    public void test_getContent_enumerationValueInModel() {
+
+        MatcherAssert.assertThat(renderLoop(Collections.enumeration(Arrays.asList("A", "B"))), Matchers.equalTo("AB"));
+
+    }
+
+    @Test
+    public void test_getContent_iterableValueInModel() {
+
+        final List<String> values = Arrays.asList("A", "B");
+        Iterable<String> iterable = new Iterable<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return values.iterator();
+            }
+        };
+
+        MatcherAssert.assertThat(renderLoop(iterable), Matchers.equalTo("AB"));
+
+    }
+
+    @Test
+    public void test_getContent_lazySourceWithIteratorMethodInModel() {
+
+        MatcherAssert.assertThat(renderLoop(new LazySource("A", "B")), Matchers.equalTo("AB"));
+
+    }
+
+    @Test
+    public void testConstructor_attributeString_withLimit() {
+        ForTemplateBlock unit = new ForTemplateBlock(" abc : def.hij , limit : '5' ", "templateString");
+
+        MatcherAssert.assertThat(unit.getLoopVariableName(), Matchers.equalTo("abc"));
+        MatcherAssert.assertThat(unit.getLoopStatusVariableName(), Matchers.nullValue());
+        MatcherAssert.assertThat(unit.getAccessPath(), Matchers.equalTo("def.hij"));
+        MatcherAssert.assertThat(unit.getLimit(), Matchers.is(5));
+
+    }
+
+    @Test
+    public void testConstructor_attributeString_withoutLimit() {
+
+        MatcherAssert.assertThat(new ForTemplateBlock("abc:def", "templateString").getLimit(), Matchers.is(-1));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_attributeString_invalidLimit() {
+        new ForTemplateBlock("abc : def, limit : 'x'", "templateString");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_attributeString_negativeLimit() {
+        new ForTemplateBlock("abc : def, limit : '-1'", "templateString");
+    }
+
+    @Test
+    public void testConstructor_attributeString_withStatus() {
+
+        MatcherAssert.assertThat(new ForTemplateBlock("abc : def, status : ' abcLoop '", "templateString").getLoopStatusVariableName(), Matchers.equalTo("abcLoop"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_attributeString_invalidStatus() {
+        new ForTemplateBlock("abc : def, status : 'abc.loop'", "templateString");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_attributeString_statusEqualToLoopVariable() {
+        new ForTemplateBlock("abc : def, status : 'abc'", "templateString");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_attributeString_invalidNamedAttributes() {
+        new ForTemplateBlock("abc : def, limit", "templateString");
+    }
+
+    @Test
+    public void test_getContent_withLimit() {
+
+        MatcherAssert.assertThat(renderLoop("abc : def, limit : '2'", new int[]{1, 2, 3}), Matchers.equalTo("12"));
+        MatcherAssert.assertThat(renderLoop("abc : def, limit : '5'", new int[]{1, 2, 3}), Matchers.equalTo("123"));
+        MatcherAssert.assertThat(renderLoop("abc : def, limit : '0'", new int[]{1, 2, 3}), Matchers.equalTo(""));
+
+    }
+
+    @Test
+    public void test_getContent_withLimit_shouldStopConsumingIterator() {
+
+        Iterator<String> iterator = Arrays.asList("A", "B", "C").iterator();
+
+        MatcherAssert.assertThat(renderLoop("abc : def, limit : '2'", iterator), Matchers.equalTo("AB"));
+        MatcherAssert.assertThat(iterator.next(), Matchers.is("C"));
+
+    }
+
+    @Test
+    public void test_getContent_loopStatus() {
+
+        ForTemplateBlock unit = new ForTemplateBlock(" abc : def, status : 'abcLoop' ", "");
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.index"));
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.first"));
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.last"));
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.size"));
+        unit.getBinder().addTemplateBlock(new PlainTextTemplateBlock(";"));
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("def", Arrays.asList("A", "B", "C"));
+
+        MatcherAssert.assertThat(unit.getContent(model), Matchers.equalTo("0truefalse3;1falsefalse3;2falsetrue3;"));
+
+        model.put("def", Arrays.asList("A", "B", "C").iterator());
+        MatcherAssert.assertThat(unit.getContent(model), Matchers.equalTo("0truefalsenull;1falsefalsenull;2falsetruenull;"));
+
+    }
+
+    @Test
+    public void test_getContent_withoutStatus_shouldNotShadowModelVariable() {
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("def", Arrays.asList("A", "B"));
+        model.put("abcLoop", "SHADOW");
+
+        for (String parallel : new String[]{"false", "true"}) {
+
+            ForTemplateBlock unit = new ForTemplateBlock("abc : def, parallel : '" + parallel + "'", "");
+            unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abc"));
+            unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop"));
+            unit.getBinder().addTemplateBlock(new PlainTextTemplateBlock(";"));
+
+            MatcherAssert.assertThat(unit.getContent(model), Matchers.equalTo("ASHADOW;BSHADOW;"));
+
+        }
+
+    }
+
+    @Test
+    public void test_getContent_loopStatusWithLimit() {
+
+        ForTemplateBlock unit = new ForTemplateBlock(" abc : def, limit : '2', status : 'abcLoop' ", "");
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.last"));
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.size"));
+        unit.getBinder().addTemplateBlock(new PlainTextTemplateBlock(";"));
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("def", Arrays.asList("A", "B", "C"));
+
+        MatcherAssert.assertThat(unit.getContent(model), Matchers.equalTo("false2;true2;"));
+
+    }
+
+    @Test
+    public void testConstructor_attributeString_withParallel() {
+
+        MatcherAssert.assertThat(new ForTemplateBlock("abc : def, parallel : 'true', limit : '3'", "templateString").isParallel(), Matchers.is(true));
+        MatcherAssert.assertThat(new ForTemplateBlock("abc : def, parallel : 'false'", "templateString").isParallel(), Matchers.is(false));
+        MatcherAssert.assertThat(new ForTemplateBlock("abc : def", "templateString").isParallel(), Matchers.is(false));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_attributeString_invalidParallel() {
+        new ForTemplateBlock("abc : def, parallel : 'yes'", "templateString");
+    }
+
+    @Test
+    public void test_getContent_parallel_shouldKeepOrder() {
+
+        int[] values = new int[10000];
+        StringBuilder expectedResult = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+            expectedResult.append(i).append(';');
+        }
+
+        ForTemplateBlock unit = new ForTemplateBlock("abc : def, parallel : 'true'", "");
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abc"));
+        unit.getBinder().addTemplateBlock(new PlainTextTemplateBlock(";"));
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("def", values);
+
+        MatcherAssert.assertThat(unit.getContent(model), Matchers.equalTo(expectedResult.toString()));
+
+    }
+
+    @Test
+    public void test_getContent_parallel_loopStatusAndLimit() {
+
+        ForTemplateBlock unit = new ForTemplateBlock("abc : def, parallel : 'true', limit : '3', status : 'abcLoop'", "");
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abc"));
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.index"));
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.last"));
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.size"));
+        unit.getBinder().addTemplateBlock(new PlainTextTemplateBlock(";"));
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("def", Arrays.asList("A", "B", "C", "D").iterator());
+
+        // size of Iterators isn't known upfront - like in sequential loops
+        MatcherAssert.assertThat(unit.getContent(model), Matchers.equalTo("A0falsenull;B1falsenull;C2truenull;"));
+
+    }
+
+    @Test
+    public void test_getContent_parallel_shouldRenderSameLoopStatusAsSequential() {
+
+        for (Object values : new Object[]{Arrays.asList("A", "B", "C"), Arrays.asList("A", "B", "C").iterator()}) {
+
+            String[] results = new String[2];
+            for (int i = 0; i < 2; i++) {
+
+                ForTemplateBlock unit = new ForTemplateBlock("abc : def, parallel : '" + (i == 1) + "', status : 'abcLoop'", "");
+                unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.index"));
+                unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.first"));
+                unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.last"));
+                unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abcLoop.size"));
+                unit.getBinder().addTemplateBlock(new PlainTextTemplateBlock(";"));
+
+                Map<String, Object> model = new HashMap<String, Object>();
+                model.put("def", values instanceof List ? values : Arrays.asList("A", "B", "C").iterator());
+
+                results[i] = unit.getContent(model);
+            }
+
+            MatcherAssert.assertThat(results[1], Matchers.equalTo(results[0]));
+
+        }
+
+    }
+
+    @Test
+    public void test_getContent_parallel_nestedLoops() {
+
+        ForTemplateBlock innerLoop = new ForTemplateBlock("inner : outer, parallel : 'true'", "");
+        innerLoop.getBinder().addTemplateBlock(new VariableTextTemplateBlock("inner"));
+
+        ForTemplateBlock unit = new ForTemplateBlock("outer : def, parallel : 'true'", "");
+        unit.getBinder().addTemplateBlock(innerLoop);
+        unit.getBinder().addTemplateBlock(new PlainTextTemplateBlock(";"));
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("def", new int[][]{{1, 2}, {3}, {}, {4, 5, 6}});
+
+        MatcherAssert.assertThat(unit.getContent(model), Matchers.equalTo("12;3;;456;"));
+
+    }
+
+    @Test(expected = InvalidPathException.class)
+    public void test_getContent_parallel_shouldPropagateExceptions() {
+
+        ForTemplateBlock unit = new ForTemplateBlock("abc : def, parallel : 'true'", "");
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abc.unknown"));
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("def", Arrays.asList("A", "B"));
+
+        unit.getContent(model);
+
+    }
+
+    private static String renderLoop(Object values) {
+        return renderLoop(" abc : def ", values);
+    }
+
+    private static String renderLoop(String attributeString, Object values) {
+
+        ForTemplateBlock unit = new ForTemplateBlock(attributeString, "${abc}");
+        unit.getBinder().addTemplateBlock(new VariableTextTemplateBlock("abc"));
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("def", values);
+
+        return unit.getContent(model);
+    }
+
 }
@@ -142,5 +142,12 @@ public class IfTemplateBlockTest {
 
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidExpression_shouldFailAtCreationTime() {
+
+        // expressions are parsed when the template is compiled, not when the block is rendered
+        new IfTemplateBlock("a +", "abc");
+
+    }
 
 }
@@ -1,10 +1,14 @@
 package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
 
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateCache;
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateProcessor;
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.CyclicIncludeException;
 import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidPathException;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -89,4 +93,108 @@ public class IncludeTemplateBlockTest {
 
     }
 
+    @Test
+    public void testConstructor_shouldCompileIncludedTemplateOnce() {
+
+        IncludeTemplateBlock unit1 = new IncludeTemplateBlock("resource : '/IncludeTemplateBlockTest.tpl'");
+        IncludeTemplateBlock unit2 = new IncludeTemplateBlock("resource : '/IncludeTemplateBlockTest.tpl'");
+
+        MatcherAssert.assertThat(unit1.getCompiledTemplate(), Matchers.notNullValue());
+        MatcherAssert.assertThat(unit2.getCompiledTemplate(), Matchers.sameInstance(unit1.getCompiledTemplate()));
+
+    }
+
+    @Test
+    public void test_getContent_shouldNotParseIncludedTemplateWhileRendering() {
+
+        IncludeTemplateBlock unit = new IncludeTemplateBlock("resource : '/IncludeTemplateBlockTest.tpl'");
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        Map<String, Object> subModel = new HashMap<String, Object>();
+        subModel.put("value", "test");
+        model.put("model", subModel);
+
+        // compiled template must be kept even if cache is cleared
+        TemplateCache.getDefaultInstance().clear();
+        long missCount = TemplateCache.getDefaultInstance().getMissCount();
+
+        MatcherAssert.assertThat(unit.getContent(model), Matchers.equalTo("test : test"));
+        MatcherAssert.assertThat(TemplateCache.getDefaultInstance().getMissCount(), Matchers.is(missCount));
+
+    }
+
+    private static Map<String, Object> createTreeNode(String name, Map<String, Object>... children) {
+        Map<String, Object> node = new HashMap<String, Object>();
+        node.put("name", name);
+        node.put("children", Arrays.asList(children));
+        return node;
+    }
+
+    @Test
+    public void testRender_recursiveIncludeEndedByModel() {
+
+        // Tree.tpl includes itself for each child node
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("tree", createTreeNode("root", createTreeNode("a"), createTreeNode("b", createTreeNode("c"))));
+
+        IncludeTemplateBlock unit = new IncludeTemplateBlock("resource : '/Tree.tpl', model : 'tree'");
+
+        MatcherAssert.assertThat(unit.getContent(model), Matchers.equalTo("root(a)(b(c))"));
+        MatcherAssert.assertThat(TemplateProcessor.processTemplate("!{include resource : '/Tree.tpl', model : 'tree'}!{/include}", model), Matchers.equalTo("root(a)(b(c))"));
+
+    }
+
+    @Test
+    public void testConstructor_cyclicInclude_shouldBeResolvedLazily() throws Exception {
+
+        TemplateBlockBinder compiledTemplate = new IncludeTemplateBlock("resource : '/CyclicIncludeA.tpl'").getCompiledTemplate();
+        MatcherAssert.assertThat(compiledTemplate, Matchers.sameInstance(TemplateCache.getDefaultInstance().getCompiledTemplateForResource("/CyclicIncludeA.tpl")));
+
+        MatcherAssert.assertThat(new IncludeTemplateBlock("resource : '/CyclicIncludeSelf.tpl'").getCompiledTemplate(), Matchers.notNullValue());
+
+    }
+
+    @Test
+    public void testConstructor_cyclicInclude_shouldKeepValidIncludesWorking() {
+
+        new IncludeTemplateBlock("resource : '/CyclicIncludeA.tpl'");
+
+        // valid includes must still work
+        MatcherAssert.assertThat(new IncludeTemplateBlock("resource : '/IncludeTemplateBlockTest.tpl'").getCompiledTemplate(), Matchers.notNullValue());
+        MatcherAssert.assertThat(TemplateCache.isInCompilation("/CyclicIncludeA.tpl"), Matchers.is(false));
+
+    }
+
+    private static String renderCyclicInclude(String resourceName) {
+
+        try {
+            TemplateProcessor.processTemplateResourceFile(resourceName, new HashMap<String, Object>());
+        } catch (CyclicIncludeException e) {
+            return e.getMessage();
+        }
+
+        throw new AssertionError("Expected CyclicIncludeException for " + resourceName);
+    }
+
+    @Test
+    public void testRender_cyclicInclude_shouldFailWithIncludeChain() {
+
+        MatcherAssert.assertThat(renderCyclicInclude("/CyclicIncludeSelf.tpl"), Matchers.endsWith(": /CyclicIncludeSelf.tpl -> /CyclicIncludeSelf.tpl"));
+        MatcherAssert.assertThat(renderCyclicInclude("/CyclicIncludeA.tpl"), Matchers.endsWith(": /CyclicIncludeB.tpl -> /CyclicIncludeA.tpl -> /CyclicIncludeB.tpl"));
+        MatcherAssert.assertThat(renderCyclicInclude("/CyclicIncludeB.tpl"), Matchers.endsWith(": /CyclicIncludeA.tpl -> /CyclicIncludeB.tpl -> /CyclicIncludeA.tpl"));
+
+    }
+
+    @Test
+    public void testRender_cyclicInclude_shouldNotAffectLaterRendering() {
+
+        renderCyclicInclude("/CyclicIncludeSelf.tpl");
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("tree", createTreeNode("root", createTreeNode("a")));
+
+        MatcherAssert.assertThat(new IncludeTemplateBlock("resource : '/Tree.tpl', model : 'tree'").getContent(model), Matchers.equalTo("root(a)"));
+
+    }
+
 }
@@ -0,0 +1,36 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link SourceFingerprint}.
+ */
+public class SourceFingerprintTest {
+
+    private static final byte[] CONTENT = "Hello ${name}".getBytes();
+
+    @Test
+    public void of_shouldCreateFingerprintOfContent() {
+
+        SourceFingerprint unit = SourceFingerprint.of(CONTENT, 42L);
+
+        MatcherAssert.assertThat(unit.getLength(), Matchers.is((long) CONTENT.length));
+        MatcherAssert.assertThat(unit.getLastModified(), Matchers.is(42L));
+        MatcherAssert.assertThat(unit.getChecksum(), Matchers.is(SourceFingerprint.of(CONTENT.clone(), 0L).getChecksum()));
+
+    }
+
+    @Test
+    public void matchesContent_shouldDetectChangedContent() {
+
+        SourceFingerprint unit = SourceFingerprint.of(CONTENT, 42L);
+
+        MatcherAssert.assertThat(unit.matchesContent(CONTENT.clone()), Matchers.is(true));
+        MatcherAssert.assertThat(unit.matchesContent("Hallo ${name}".getBytes()), Matchers.is(false));
+        MatcherAssert.assertThat(unit.matchesContent("Hello ${name} ".getBytes()), Matchers.is(false));
+
+    }
+
+}
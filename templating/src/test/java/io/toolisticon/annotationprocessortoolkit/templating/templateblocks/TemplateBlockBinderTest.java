@@ -4,14 +4,61 @@ import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Unit Test for {@link TemplateBlockBinder}.
  */
 public class TemplateBlockBinderTest {
 
+    /**
+     * Template block that just implements {@link TemplateBlock} - like custom blocks written before template blocks could be streamed.
+     */
+    private static class ContentOnlyTemplateBlock implements TemplateBlock {
+
+        @Override
+        public TemplateBlockType getTemplateBlockType() {
+            return TemplateBlockType.DYNAMIC_TEXT;
+        }
+
+        @Override
+        public String getContent(Map<String, Object> variables) {
+            return variables.containsKey("value") ? variables.get("value").toString() : null;
+        }
+    }
+
     @Test
     public void test_getTemplateBlockType() {
         MatcherAssert.assertThat(new TemplateBlockBinder("").getTemplateBlockType(), Matchers.is(TemplateBlockType.BINDER));
     }
 
+    @Test
+    public void render_shouldAppendContentOfTemplateBlocksThatArentStreamingTemplateBlocks() throws Exception {
+
+        Map<String, Object> variables = new HashMap<String, Object>();
+        variables.put("value", "ABC");
+
+        TemplateBlockBinder binder = new TemplateBlockBinder(null);
+        binder.addTemplateBlock(new PlainTextTemplateBlock("x"));
+        binder.addTemplateBlock(new ContentOnlyTemplateBlock());
+
+        StringBuilder output = new StringBuilder("_");
+        binder.render(output, variables);
+
+        MatcherAssert.assertThat(output.toString(), Matchers.is("_xABC"));
+        MatcherAssert.assertThat(binder.getContent(variables), Matchers.is("xABC"));
+
+    }
+
+    @Test
+    public void render_shouldAppendNullForNullContent() throws Exception {
+
+        TemplateBlockBinder binder = new TemplateBlockBinder(null);
+        binder.addTemplateBlock(new ContentOnlyTemplateBlock());
+
+        MatcherAssert.assertThat(binder.getContent(new HashMap<String, Object>()), Matchers.is("null"));
+
+    }
+
 }
@@ -0,0 +1,99 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.ParseUtilities;
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidExpressionResult;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit test for {@link TemplateOptimizer}.
+ */
+public class TemplateOptimizerTest {
+
+    @Test
+    public void optimize_shouldMergeAdjacentTextBlocks() {
+
+        TemplateBlockBinder binder = new TemplateBlockBinder("");
+        binder.addTemplateBlock(new PlainTextTemplateBlock("A"));
+        binder.addTemplateBlock(new StaticTemplateBlock("${B}"));
+        binder.addTemplateBlock(new PlainTextTemplateBlock("C"));
+
+        List<TemplateBlock> templateBlocks = TemplateOptimizer.optimize(binder).getTemplateBlocks();
+
+        MatcherAssert.assertThat(templateBlocks.size(), Matchers.is(1));
+        MatcherAssert.assertThat(templateBlocks.get(0).getContent(null), Matchers.is("A${B}C"));
+
+    }
+
+    @Test
+    public void optimize_shouldFoldConstantExpressions() {
+
+        TemplateBlockBinder binder = TemplateOptimizer.optimize(ParseUtilities.parseString("A${'b' + 'c'}D${1 + 2 * 3}${null}${x}E"));
+
+        List<TemplateBlock> templateBlocks = binder.getTemplateBlocks();
+        MatcherAssert.assertThat(templateBlocks.size(), Matchers.is(3));
+        MatcherAssert.assertThat(templateBlocks.get(0).getContent(null), Matchers.is("AbcD7null"));
+        MatcherAssert.assertThat(templateBlocks.get(1), Matchers.instanceOf(VariableTextTemplateBlock.class));
+        MatcherAssert.assertThat(templateBlocks.get(2).getContent(null), Matchers.is("E"));
+
+    }
+
+    @Test
+    public void optimize_shouldRemoveDeadIfBlocks() {
+
+        TemplateBlockBinder binder = TemplateOptimizer.optimize(ParseUtilities.parseString("A!{if false}B${x}!{/if}!{if 1 > 0}C${'D'}!{/if}E"));
+
+        List<TemplateBlock> templateBlocks = binder.getTemplateBlocks();
+        MatcherAssert.assertThat(templateBlocks.size(), Matchers.is(1));
+        MatcherAssert.assertThat(templateBlocks.get(0).getContent(null), Matchers.is("ACDE"));
+
+    }
+
+    @Test
+    public void optimize_shouldOptimizeNestedBlocks() {
+
+        TemplateBlockBinder binder = TemplateOptimizer.optimize(ParseUtilities.parseString("!{for item : items}A!{if true}${'B'}!{/if}${item}!{/for}"));
+
+        List<TemplateBlock> templateBlocks = binder.getTemplateBlocks();
+        MatcherAssert.assertThat(templateBlocks.size(), Matchers.is(1));
+
+        List<TemplateBlock> loopTemplateBlocks = ((ForTemplateBlock) templateBlocks.get(0)).getBinder().getTemplateBlocks();
+        MatcherAssert.assertThat(loopTemplateBlocks.size(), Matchers.is(2));
+        MatcherAssert.assertThat(loopTemplateBlocks.get(0).getContent(null), Matchers.is("AB"));
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("items", new String[]{"1", "2"});
+        MatcherAssert.assertThat(binder.getContent(model), Matchers.is("AB1AB2"));
+
+    }
+
+    @Test(expected = InvalidExpressionResult.class)
+    public void optimize_shouldKeepIfBlocksWithNonBooleanConstantExpressions() {
+
+        TemplateBlockBinder binder = TemplateOptimizer.optimize(ParseUtilities.parseString("!{if 'abc'}A!{/if}"));
+
+        MatcherAssert.assertThat(binder.getTemplateBlocks().size(), Matchers.is(1));
+
+        binder.getContent(new HashMap<String, Object>());
+
+    }
+
+    @Test
+    public void optimize_shouldNotChangeResult() {
+
+        String template = "A${a}!{if a == 'x' && true}B!{/if}!{if !false}C!{for item : items}${item + 1}!{/for}!{/if}${'D'}";
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("a", "x");
+        model.put("items", new long[]{1L, 2L});
+
+        MatcherAssert.assertThat(TemplateOptimizer.optimize(ParseUtilities.parseString(template)).getContent(model), Matchers.is(ParseUtilities.parseString(template).getContent(model)));
+
+    }
+
+}
@@ -0,0 +1,132 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateProcessor;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit test for {@link TemplateProfiler}.
+ */
+public class TemplateProfilerTest {
+
+    private static final String TEMPLATE = "Values:\n!{for x : xs}\n${x} \n!{/for}\n!{if show}SHOWN!{/if}";
+
+    private static Map<String, Object> createModel() {
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("xs", Arrays.asList("a", "b", "c"));
+        model.put("show", true);
+        return model;
+    }
+
+    private static TemplateProfiler.BlockStatistics getStatistics(TemplateProfiler profiler, int line, TemplateBlockType templateBlockType) {
+
+        for (TemplateProfiler.BlockStatistics blockStatistics : profiler.getStatistics()) {
+            if (blockStatistics.getLine() == line && blockStatistics.getTemplateBlockType() == templateBlockType) {
+                return blockStatistics;
+            }
+        }
+
+        return null;
+    }
+
+    @Test
+    public void getProfiledTemplate_shouldRenderSameContent() {
+
+        TemplateProfiler profiler = new TemplateProfiler();
+
+        MatcherAssert.assertThat(profiler.getProfiledTemplate(TEMPLATE).getContent(createModel()), Matchers.is(TemplateProcessor.processTemplate(TEMPLATE, createModel())));
+        MatcherAssert.assertThat(profiler.getProfiledTemplate(TEMPLATE), Matchers.sameInstance(profiler.getProfiledTemplate(TEMPLATE)));
+
+    }
+
+    @Test
+    public void getStatistics_shouldCountInvocationsByLineAndType() {
+
+        TemplateProfiler profiler = new TemplateProfiler();
+        profiler.getProfiledTemplate(TEMPLATE).getContent(createModel());
+        profiler.getProfiledTemplate(TEMPLATE).getContent(createModel());
+
+        TemplateProfiler.BlockStatistics forStatistics = getStatistics(profiler, 2, TemplateBlockType.FOR);
+        MatcherAssert.assertThat(forStatistics.getInvocations(), Matchers.is(2L));
+        MatcherAssert.assertThat(forStatistics.getTemplateName(), Matchers.is("Values:"));
+
+        TemplateProfiler.BlockStatistics loopVariableStatistics = getStatistics(profiler, 3, TemplateBlockType.DYNAMIC_TEXT);
+        MatcherAssert.assertThat(loopVariableStatistics.getInvocations(), Matchers.is(6L));
+        MatcherAssert.assertThat(loopVariableStatistics.getTimeNanos() <= forStatistics.getTimeNanos(), Matchers.is(true));
+
+        MatcherAssert.assertThat(getStatistics(profiler, 5, TemplateBlockType.IF).getInvocations(), Matchers.is(2L));
+
+        if (TemplateProfiler.isAllocationMeasurementSupported()) {
+            MatcherAssert.assertThat(forStatistics.getAllocatedBytes() >= 0, Matchers.is(true));
+        } else {
+            MatcherAssert.assertThat(forStatistics.getAllocatedBytes(), Matchers.is(-1L));
+        }
+
+    }
+
+    @Test
+    public void getStatistics_shouldBeOrderedByTime() {
+
+        TemplateProfiler profiler = new TemplateProfiler();
+        profiler.getProfiledTemplate(TEMPLATE).getContent(createModel());
+
+        List<TemplateProfiler.BlockStatistics> statistics = profiler.getStatistics();
+        for (int i = 1; i < statistics.size(); i++) {
+            MatcherAssert.assertThat(statistics.get(i - 1).getTimeNanos() >= statistics.get(i).getTimeNanos(), Matchers.is(true));
+        }
+
+    }
+
+    @Test
+    public void getReport_shouldContainTemplateLinesAndTypes() {
+
+        TemplateProfiler profiler = new TemplateProfiler();
+        profiler.getProfiledTemplate(TEMPLATE).getContent(createModel());
+
+        String report = profiler.getReport();
+        MatcherAssert.assertThat(report, Matchers.containsString("Invocations"));
+        MatcherAssert.assertThat(report, Matchers.containsString("Values:"));
+        MatcherAssert.assertThat(report, Matchers.containsString("FOR"));
+        MatcherAssert.assertThat(report, Matchers.containsString("DYNAMIC_TEXT"));
+
+    }
+
+    @Test
+    public void reset_shouldRemoveStatistics() {
+
+        TemplateProfiler profiler = new TemplateProfiler();
+        profiler.getProfiledTemplate(TEMPLATE).getContent(createModel());
+        profiler.reset();
+
+        MatcherAssert.assertThat(profiler.getStatistics().size(), Matchers.is(0));
+
+    }
+
+    @Test
+    public void processTemplate_withProfiler() {
+
+        TemplateProfiler profiler = new TemplateProfiler();
+        TemplateProcessor.setProfiler(profiler);
+        try {
+            MatcherAssert.assertThat(TemplateProcessor.processTemplate("${x}", createModelWithX()), Matchers.is("X"));
+        } finally {
+            TemplateProcessor.setProfiler(null);
+        }
+
+        MatcherAssert.assertThat(getStatistics(profiler, 1, TemplateBlockType.DYNAMIC_TEXT).getInvocations(), Matchers.is(1L));
+
+    }
+
+    private static Map<String, Object> createModelWithX() {
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("x", "X");
+        return model;
+    }
+
+}
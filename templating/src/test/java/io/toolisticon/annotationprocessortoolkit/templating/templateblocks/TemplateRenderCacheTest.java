@@ -0,0 +1,299 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.ParseUtilities;
+import io.toolisticon.annotationprocessortoolkit.templating.TemplateProcessor;
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidPathException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit test for {@link TemplateRenderCache}.
+ */
+public class TemplateRenderCacheTest {
+
+    private static final String FOR_TEMPLATE = "!{for x : xs}[${prefix}${x}]!{/for}";
+
+    private static Map<String, Object> createModel(String prefix, String... xs) {
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("prefix", prefix);
+        model.put("xs", Arrays.asList(xs));
+        return model;
+    }
+
+    @Test
+    public void getCompiledTemplate_shouldRenderSameContent() {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+        Map<String, Object> model = createModel("-", "a", "b", "a");
+
+        MatcherAssert.assertThat(unit.getCompiledTemplate(FOR_TEMPLATE).getContent(model), Matchers.is(TemplateProcessor.processTemplate(FOR_TEMPLATE, model)));
+        MatcherAssert.assertThat(unit.getCompiledTemplate(FOR_TEMPLATE).getContent(model), Matchers.is("[-a][-b][-a]"));
+        MatcherAssert.assertThat(unit.getCompiledTemplate(FOR_TEMPLATE), Matchers.sameInstance(unit.getCompiledTemplate(FOR_TEMPLATE)));
+
+    }
+
+    @Test
+    public void render_shouldReuseOutputOfForBodiesWithEqualInputs() {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+
+        unit.getCompiledTemplate(FOR_TEMPLATE).getContent(createModel("-", "a", "b", "a"));
+        MatcherAssert.assertThat(unit.getMissCount(), Matchers.is(2L));
+        MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(1L));
+
+        // next round with an equal model
+        MatcherAssert.assertThat(unit.getCompiledTemplate(FOR_TEMPLATE).getContent(createModel("-", "a", "b", "c")), Matchers.is("[-a][-b][-c]"));
+        MatcherAssert.assertThat(unit.getMissCount(), Matchers.is(3L));
+        MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(3L));
+        MatcherAssert.assertThat(unit.size(), Matchers.is(3));
+
+    }
+
+    @Test
+    public void render_shouldRenderAgainIfReferencedOuterVariableChanges() {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+
+        unit.getCompiledTemplate(FOR_TEMPLATE).getContent(createModel("-", "a"));
+        MatcherAssert.assertThat(unit.getCompiledTemplate(FOR_TEMPLATE).getContent(createModel("+", "a")), Matchers.is("[+a]"));
+        MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(0L));
+
+    }
+
+    @Test
+    public void render_shouldUseLoopStatusAsInput() {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+        String template = "!{for x : xs, status : 'xLoop'}${xLoop.index}${x}!{/for}";
+
+        MatcherAssert.assertThat(unit.getCompiledTemplate(template).getContent(createModel("-", "a", "a")), Matchers.is("0a1a"));
+        MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(0L));
+
+        MatcherAssert.assertThat(unit.getCompiledTemplate(template).getContent(createModel("-", "a", "a")), Matchers.is("0a1a"));
+        MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(2L));
+
+    }
+
+    @Test
+    public void render_shouldReuseOutputOfIncludes() {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+        String template = "!{include resource:'/IncludeTemplateBlockTest.tpl', model:'m'}!{/include}";
+
+        Map<String, Object> includeModel = new HashMap<String, Object>();
+        includeModel.put("value", "V");
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("m", includeModel);
+
+        MatcherAssert.assertThat(unit.getCompiledTemplate(template).getContent(model), Matchers.is("test : V"));
+        MatcherAssert.assertThat(unit.getCompiledTemplate(template).getContent(model), Matchers.is("test : V"));
+        MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(1L));
+
+        includeModel.put("value", "W");
+        MatcherAssert.assertThat(unit.getCompiledTemplate(template).getContent(model), Matchers.is("test : W"));
+
+    }
+
+    @Test
+    public void render_shouldEvictLeastRecentlyUsedOutputs() {
+
+        TemplateRenderCache unit = new TemplateRenderCache(2, TemplateRenderCache.DEFAULT_MAX_BYTES);
+
+        unit.getCompiledTemplate(FOR_TEMPLATE).getContent(createModel("-", "a", "b", "c"));
+        MatcherAssert.assertThat(unit.size(), Matchers.is(2));
+        MatcherAssert.assertThat(unit.getEvictionCount(), Matchers.is(1L));
+
+        unit.clear();
+        MatcherAssert.assertThat(unit.size(), Matchers.is(0));
+        MatcherAssert.assertThat(unit.getCurrentBytes(), Matchers.is(0L));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_withNegativeBounds() {
+        new TemplateRenderCache(-1, 0L);
+    }
+
+    @Test
+    public void isMemoizable_shouldSupportSubTreesWithoutForBlocks() {
+
+        TemplateBlockBinder binder = ParseUtilities.parseString("${a.b} !{if c == 1}${d + 'x'}!{/if}!{include resource:'/IncludeTemplateBlockTest.tpl', model:'a.b'}!{/include}");
+
+        MatcherAssert.assertThat(TemplateRenderCache.isMemoizable(binder), Matchers.is(true));
+
+    }
+
+    @Test
+    public void isMemoizable_shouldNotSupportForBlocks() {
+
+        TemplateBlockBinder binder = ParseUtilities.parseString("${a.b} !{if c == 1}!{for x : xs}${x}!{/for}!{/if}");
+
+        MatcherAssert.assertThat(TemplateRenderCache.isMemoizable(binder), Matchers.is(false));
+
+    }
+
+    @Test
+    public void isMemoizable_shouldNotSupportRecursiveIncludes() {
+
+        TemplateBlockBinder binder = ParseUtilities.parseString("!{include resource:'/CyclicIncludeSelf.tpl'}!{/include}");
+
+        MatcherAssert.assertThat(TemplateRenderCache.isMemoizable(binder), Matchers.is(false));
+
+    }
+
+    /**
+     * Mutable model object - compared by identity.
+     */
+    public static class Item {
+
+        private String name;
+        private boolean ok = true;
+
+        public Item(String name) {
+            this.name = name;
+        }
+
+        public Item(String name, boolean ok) {
+            this.name = name;
+            this.ok = ok;
+        }
+
+        public String getName() {
+            if (!ok) {
+                throw new IllegalStateException("name of item " + name + " must not be rendered");
+            }
+            return name;
+        }
+
+        public Boolean getOk() {
+            return ok;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    private static Map<String, Object> createItemModel(Item... items) {
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("items", Arrays.asList(items));
+        return model;
+    }
+
+    @Test
+    public void render_shouldReuseOutputForNewModelObjectsWithEqualValues() {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+        String template = "!{for item : items}[${item.name}]!{/for}";
+
+        unit.getCompiledTemplate(template).getContent(createItemModel(new Item("a"), new Item("b")));
+
+        // next round creates new model objects
+        MatcherAssert.assertThat(unit.getCompiledTemplate(template).getContent(createItemModel(new Item("a"), new Item("b"))), Matchers.is("[a][b]"));
+        MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(2L));
+
+    }
+
+    @Test
+    public void render_shouldRenderAgainIfMutableModelObjectIsChanged() {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+        String template = "!{for item : items}[${item.name}]!{/for}";
+        Item item = new Item("a");
+
+        MatcherAssert.assertThat(unit.getCompiledTemplate(template).getContent(createItemModel(item)), Matchers.is("[a]"));
+
+        item.setName("b");
+        MatcherAssert.assertThat(unit.getCompiledTemplate(template).getContent(createItemModel(item)), Matchers.is("[b]"));
+        MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(0L));
+
+    }
+
+    @Test
+    public void render_shouldNotCacheOutputsOfSubTreesWithModelObjectsAsInput() {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+
+        // the body resolves the item itself and the outer for block resolves a list
+        String template = "!{for items : lists}!{for item : items}[${item}]!{/for}!{/for}";
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("lists", Arrays.asList(Arrays.asList(new Item("a"))));
+
+        MatcherAssert.assertThat(unit.getCompiledTemplate(template).getContent(model), Matchers.startsWith("["));
+        MatcherAssert.assertThat(unit.size(), Matchers.is(0));
+        MatcherAssert.assertThat(unit.getMissCount(), Matchers.is(0L));
+
+    }
+
+    @Test
+    public void render_shouldNotResolveModelPathsOfBranchesThatArentTaken() {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+        String template = "!{for item : items}!{if item.ok}${item.name}!{/if};!{/for}";
+
+        MatcherAssert.assertThat(unit.getCompiledTemplate(template).getContent(createItemModel(new Item("a"), new Item("b", false), new Item("c"))), Matchers.is("a;;c;"));
+        MatcherAssert.assertThat(unit.getCompiledTemplate(template).getContent(createItemModel(new Item("a"), new Item("b", false), new Item("d"))), Matchers.is("a;;d;"));
+        MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(2L));
+
+    }
+
+    @Test
+    public void render_shouldNotCacheOutputIfInputCantBeEvaluated() {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+        String template = "!{for item : items}[${item.name}]!{/for}";
+
+        try {
+            unit.getCompiledTemplate(template).getContent(createItemModel(new Item("a", false)));
+            throw new AssertionError("Expected exception of unresolvable model path");
+        } catch (InvalidPathException e) {
+            MatcherAssert.assertThat(e.getCause().getCause().getMessage(), Matchers.is("name of item a must not be rendered"));
+        }
+
+        MatcherAssert.assertThat(unit.size(), Matchers.is(0));
+
+    }
+
+    private static Map<String, Object> createTreeNode(String name, Map<String, Object>... children) {
+        Map<String, Object> node = new HashMap<String, Object>();
+        node.put("name", name);
+        node.put("children", Arrays.asList(children));
+        return node;
+    }
+
+    @Test
+    public void render_shouldRenderRecursiveIncludes() throws Exception {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("model", createTreeNode("root", createTreeNode("a"), createTreeNode("b", createTreeNode("c"))));
+
+        MatcherAssert.assertThat(unit.getCompiledTemplateForResource("/Tree.tpl").getContent(model), Matchers.is("root(a)(b(c))"));
+        MatcherAssert.assertThat(unit.getCompiledTemplate("!{include resource:'/Tree.tpl', model:'model'}!{/include}").getContent(model), Matchers.is("root(a)(b(c))"));
+
+    }
+
+    @Test
+    public void templateProcessor_shouldRenderViaRenderCacheIfSet() {
+
+        TemplateRenderCache unit = new TemplateRenderCache();
+        TemplateProcessor.setRenderCache(unit);
+
+        try {
+            MatcherAssert.assertThat(TemplateProcessor.getRenderCache(), Matchers.sameInstance(unit));
+            MatcherAssert.assertThat(TemplateProcessor.processTemplate(FOR_TEMPLATE, createModel("-", "a", "a")), Matchers.is("[-a][-a]"));
+            MatcherAssert.assertThat(unit.getHitCount(), Matchers.is(1L));
+        } finally {
+            TemplateProcessor.setRenderCache(null);
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.ParseUtilities;
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidPrecompiledTemplateException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit test for {@link TemplateSerializer}.
+ */
+public class TemplateSerializerTest {
+
+    private static final String TEMPLATE = "Hello ${name} äöü!\n"
+            + "!{for item : items, limit : '3', parallel : 'true', status : 'itemLoop'}\n"
+            + "!{if itemLoop.first}first:!{/if}${item}${itemLoop.index}\n"
+            + "!{/for}\n"
+            + "!{static}${not evaluated}!{/static}\n"
+            + "!{include resource : '/IncludeTemplateBlockTest.tpl', model : 'includeModel'}!{/include}\n";
+
+    private static final SourceFingerprint SOURCE_FINGERPRINT = new SourceFingerprint(1L, 2L, 3L);
+
+    private static byte[] serialize(TemplateBlockBinder binder) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        TemplateSerializer.serialize(binder, SOURCE_FINGERPRINT, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static Map<String, Object> createModel() {
+
+        Map<String, Object> includeModel = new HashMap<String, Object>();
+        includeModel.put("value", "INCLUDED");
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("name", "World");
+        model.put("items", Arrays.asList("A", "B", "C", "D"));
+        model.put("includeModel", includeModel);
+        model.put("test", "TEST");
+
+        return model;
+    }
+
+    @Test
+    public void serialize_shouldRoundtripAllBlockTypes() throws Exception {
+
+        TemplateBlockBinder binder = ParseUtilities.parseString(TEMPLATE);
+
+        TemplateBlockBinder deserializedBinder = TemplateSerializer.deserialize(ByteBuffer.wrap(serialize(binder)));
+
+        MatcherAssert.assertThat(deserializedBinder.getContent(createModel()), Matchers.is(binder.getContent(createModel())));
+
+    }
+
+    @Test
+    public void serialize_shouldRoundtripFromDirectBuffer() throws Exception {
+
+        TemplateBlockBinder binder = TemplateOptimizer.optimize(ParseUtilities.parseString(TEMPLATE));
+        byte[] bytes = serialize(binder);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+
+        MatcherAssert.assertThat(TemplateSerializer.deserialize(buffer).getContent(createModel()), Matchers.is(binder.getContent(createModel())));
+
+    }
+
+    @Test(expected = InvalidPrecompiledTemplateException.class)
+    public void deserialize_withInvalidMagicNumber() {
+
+        TemplateSerializer.deserialize(ByteBuffer.wrap("NOT A TEMPLATE".getBytes()));
+
+    }
+
+    @Test(expected = InvalidPrecompiledTemplateException.class)
+    public void deserialize_withUnsupportedVersion() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(36);
+        buffer.putInt(TemplateSerializer.MAGIC).putInt(TemplateSerializer.VERSION + 1).putLong(0L).putLong(0L).putLong(0L).putInt(0).flip();
+
+        TemplateSerializer.deserialize(buffer);
+
+    }
+
+    @Test(expected = InvalidPrecompiledTemplateException.class)
+    public void deserialize_withTruncatedData() throws Exception {
+
+        byte[] bytes = serialize(ParseUtilities.parseString(TEMPLATE));
+
+        TemplateSerializer.deserialize(ByteBuffer.wrap(bytes, 0, bytes.length - 5));
+
+    }
+
+    @Test(expected = InvalidPrecompiledTemplateException.class)
+    public void deserialize_withUnknownBlockTag() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(37);
+        buffer.putInt(TemplateSerializer.MAGIC).putInt(TemplateSerializer.VERSION).putLong(0L).putLong(0L).putLong(0L).putInt(1).put((byte) 99).flip();
+
+        TemplateSerializer.deserialize(buffer);
+
+    }
+
+    @Test
+    public void readSourceFingerprint_shouldReadFingerprintWithoutChangingPosition() throws Exception {
+
+        ByteBuffer buffer = ByteBuffer.wrap(serialize(ParseUtilities.parseString(TEMPLATE)));
+
+        SourceFingerprint sourceFingerprint = TemplateSerializer.readSourceFingerprint(buffer);
+        MatcherAssert.assertThat(sourceFingerprint.getLength(), Matchers.is(1L));
+        MatcherAssert.assertThat(sourceFingerprint.getLastModified(), Matchers.is(2L));
+        MatcherAssert.assertThat(sourceFingerprint.getChecksum(), Matchers.is(3L));
+        MatcherAssert.assertThat(buffer.position(), Matchers.is(0));
+
+        MatcherAssert.assertThat(TemplateSerializer.deserialize(buffer).getContent(createModel()), Matchers.is(ParseUtilities.parseString(TEMPLATE).getContent(createModel())));
+
+    }
+
+    @Test(expected = InvalidPrecompiledTemplateException.class)
+    public void readSourceFingerprint_withInvalidMagicNumber() {
+
+        TemplateSerializer.readSourceFingerprint(ByteBuffer.wrap("NOT A PRECOMPILED TEMPLATE WITH HEADER".getBytes()));
+
+    }
+
+}
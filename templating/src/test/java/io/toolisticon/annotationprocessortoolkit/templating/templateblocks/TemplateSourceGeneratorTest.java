@@ -0,0 +1,152 @@
+package io.toolisticon.annotationprocessortoolkit.templating.templateblocks;
+
+import io.toolisticon.annotationprocessortoolkit.templating.CompiledTemplate;
+import io.toolisticon.annotationprocessortoolkit.templating.ParseUtilities;
+import io.toolisticon.annotationprocessortoolkit.templating.exceptions.InvalidExpressionResult;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit test for {@link TemplateSourceGenerator}.
+ */
+public class TemplateSourceGeneratorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void generate_shouldCreateSourceWithConstantsAndLoops() {
+
+        String source = TemplateSourceGenerator.generate("a.b", "GeneratedTemplate", "abc${x}!{for item : items}!{if item > 1}${item}!{/if}!{/for}");
+
+        MatcherAssert.assertThat(source, Matchers.startsWith("package a.b;"));
+        MatcherAssert.assertThat(source, Matchers.containsString("public final class GeneratedTemplate implements CompiledTemplate"));
+        MatcherAssert.assertThat(source, Matchers.containsString("private static final class Fields0 {"));
+        MatcherAssert.assertThat(source, Matchers.containsString("static final String TEXT_"));
+        MatcherAssert.assertThat(source, Matchers.containsString("= \"abc\";"));
+        MatcherAssert.assertThat(source, Matchers.containsString("while (loop"));
+
+    }
+
+    @Test
+    public void toStringLiteral() {
+
+        MatcherAssert.assertThat(TemplateSourceGenerator.toStringLiteral("a\"b\\c\nd\re\tfä\u0001"), Matchers.is("\"a\\\"b\\\\c\\nd\\re\\tf\\u00e4\\u0001\""));
+
+    }
+
+    @Test
+    public void generatedTemplate_shouldRenderLikeInterpretedTemplate() throws Exception {
+
+        final String templateString = "abc \"quoted\" \\ ä\n"
+                + "${'x' + 1}${name}!{if name == 'NAME' && flag}[if]!{/if}!{if false}[dead]!{/if}\n"
+                + "!{for item : items, limit : '3', status : 'itemLoop'}${item}${itemLoop.index}!{if !itemLoop.last},!{/if}"
+                + "!{for inner : nested}<${inner}${item}>!{/for}!{/for}\n"
+                + "!{static}${static}!{/static}\n"
+                + "!{include resource : '/IncludeTemplateBlockTest.tpl', model : 'include'}!{/include}";
+
+        Map<String, Object> include = new HashMap<String, Object>();
+        include.put("value", "INCLUDED");
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("name", "NAME");
+        model.put("flag", true);
+        model.put("items", new long[]{1L, 2L, 3L, 4L});
+        model.put("nested", Arrays.asList("a", "b"));
+        model.put("include", include);
+
+        CompiledTemplate compiledTemplate = compile("GeneratedTemplate", TemplateSourceGenerator.generate("", "GeneratedTemplate", templateString));
+
+        StringBuilder output = new StringBuilder();
+        compiledTemplate.render(output, model);
+
+        MatcherAssert.assertThat(output.toString(), Matchers.is(ParseUtilities.parseString(templateString).getContent(model)));
+
+    }
+
+    @Test
+    public void generatedTemplate_shouldSplitLargeNestedBodies() throws Exception {
+
+        // the for body and the nested if body exceed the blocks per method and the fields exceed the fields of one holder class
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < TemplateSourceGenerator.FIELDS_PER_CLASS / 2 + 1; i++) {
+            body.append("${item}-").append(i).append(";");
+        }
+        final String templateString = "!{for item : items}" + body + "!{if item > 1}" + body + "!{/if}\n!{/for}";
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("items", Arrays.asList(1L, 2L));
+
+        String source = TemplateSourceGenerator.generate("", "GeneratedLargeTemplate", templateString);
+        MatcherAssert.assertThat(source, Matchers.containsString("private static final class Fields1 {"));
+        MatcherAssert.assertThat(source.matches("(?s).*private static void render\\d+\\(Appendable output, Map<String, Object> variables\\d+\\).*"), Matchers.is(true));
+
+        CompiledTemplate compiledTemplate = compile("GeneratedLargeTemplate", source);
+
+        StringBuilder output = new StringBuilder();
+        compiledTemplate.render(output, model);
+
+        MatcherAssert.assertThat(output.toString(), Matchers.is(ParseUtilities.parseString(templateString).getContent(model)));
+
+    }
+
+    @Test(expected = InvalidExpressionResult.class)
+    public void generatedTemplate_shouldRaiseSameErrors() throws Exception {
+
+        CompiledTemplate compiledTemplate = compile("GeneratedTemplateWithError", TemplateSourceGenerator.generate("", "GeneratedTemplateWithError", "!{if name}A!{/if}"));
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("name", "NAME");
+
+        compiledTemplate.render(new StringBuilder(), model);
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void generate_withoutClassName() {
+
+        TemplateSourceGenerator.generate("a.b", null, "abc");
+
+    }
+
+    private CompiledTemplate compile(String className, String source) throws Exception {
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+
+        File directory = temporaryFolder.newFolder();
+        File sourceFile = new File(directory, className + ".java");
+
+        Writer writer = new OutputStreamWriter(new FileOutputStream(sourceFile), "UTF-8");
+        try {
+            writer.write(source);
+        } finally {
+            writer.close();
+        }
+
+        String classPath = new File(CompiledTemplate.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        int result = compiler.run(null, null, null, "-encoding", "UTF-8", "-classpath", classPath, "-d", directory.getPath(), sourceFile.getPath());
+        MatcherAssert.assertThat("Compilation of generated source failed:\n" + source, result, Matchers.is(0));
+
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toURI().toURL()}, getClass().getClassLoader());
+        return (CompiledTemplate) classLoader.loadClass(className).newInstance();
+
+    }
+
+}
@@ -83,4 +83,62 @@ public class VariableTextTemplateBlockTest {
 
     }
 
+    @Test
+    public void isModelPath() {
+
+        MatcherAssert.assertThat(VariableTextTemplateBlock.isModelPath("abc"), Matchers.is(true));
+        MatcherAssert.assertThat(VariableTextTemplateBlock.isModelPath("abc.def_1.x2"), Matchers.is(true));
+        MatcherAssert.assertThat(VariableTextTemplateBlock.isModelPath("1a"), Matchers.is(true));
+
+        MatcherAssert.assertThat(VariableTextTemplateBlock.isModelPath("true"), Matchers.is(false));
+        MatcherAssert.assertThat(VariableTextTemplateBlock.isModelPath("null"), Matchers.is(false));
+        MatcherAssert.assertThat(VariableTextTemplateBlock.isModelPath("123"), Matchers.is(false));
+        MatcherAssert.assertThat(VariableTextTemplateBlock.isModelPath("1.5"), Matchers.is(false));
+        MatcherAssert.assertThat(VariableTextTemplateBlock.isModelPath("abc."), Matchers.is(false));
+        MatcherAssert.assertThat(VariableTextTemplateBlock.isModelPath("abc..def"), Matchers.is(false));
+        MatcherAssert.assertThat(VariableTextTemplateBlock.isModelPath("a + b"), Matchers.is(false));
+        MatcherAssert.assertThat(VariableTextTemplateBlock.isModelPath("'abc'"), Matchers.is(false));
+
+    }
+
+    @Test
+    public void test_getContent_modelPath_shouldBeResolvedWithoutExpression() {
+
+        VariableTextTemplateBlock unit = new VariableTextTemplateBlock(" abc.value ");
+
+        Map<String, Object> value = new HashMap<String, Object>();
+        value.put("value", 5);
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("abc", value);
+
+        MatcherAssert.assertThat(unit.getModelPath().getPath(), Matchers.is("abc.value"));
+        MatcherAssert.assertThat(unit.getContent(model), Matchers.is("5"));
+
+        // expression is still available, but created on demand
+        MatcherAssert.assertThat(unit.getExpression().evaluateExpression(model).value(), Matchers.is((Object) 5));
+
+    }
+
+    @Test
+    public void test_getContent_literalsAndOperations_shouldUseExpression() {
+
+        Map<String, Object> model = new HashMap<String, Object>();
+        model.put("abc", 2L);
+
+        MatcherAssert.assertThat(new VariableTextTemplateBlock("true").getModelPath(), Matchers.nullValue());
+        MatcherAssert.assertThat(new VariableTextTemplateBlock("true").getContent(model), Matchers.is("true"));
+        MatcherAssert.assertThat(new VariableTextTemplateBlock("1.5").getContent(model), Matchers.is("1.5"));
+        MatcherAssert.assertThat(new VariableTextTemplateBlock("abc + 1").getContent(model), Matchers.is("3"));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidExpression_shouldFailAtCreationTime() {
+
+        // expressions are parsed when the template is compiled, not when the block is rendered
+        new VariableTextTemplateBlock("a +");
+
+    }
+
 }
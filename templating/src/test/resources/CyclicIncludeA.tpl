@@ -0,0 +1 @@
+A !{include resource : '/CyclicIncludeB.tpl'}!{/include}
\ No newline at end of file
@@ -0,0 +1 @@
+B !{include resource : '/CyclicIncludeA.tpl'}!{/include}
\ No newline at end of file
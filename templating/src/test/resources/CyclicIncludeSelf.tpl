@@ -0,0 +1 @@
+S !{include resource : '/CyclicIncludeSelf.tpl'}!{/include}
\ No newline at end of file
@@ -0,0 +1 @@
+${model.name}!{for child : model.children}(!{include resource:'/Tree.tpl', model:'child'}!{/include})!{/for}
\ No newline at end of file